@@ -3,6 +3,7 @@ package com.chhotu.billing_software.config;
 
 import com.chhotu.billing_software.filter.JwtRequestFilter;
 import com.chhotu.billing_software.service.impl.AppUserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -41,10 +42,14 @@ public class SecurityConfig {
         http.cors(Customizer.withDefaults()) // Enables CORS with default configuration
                 .csrf(AbstractHttpConfigurer::disable) // Disables CSRF protection (suitable for stateless REST APIs)
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches of SSE and streamed responses were authorised by their original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // These endpoints are accessible without authentication
                         .requestMatchers("/login", "/encode").permitAll()
+                        // Full order exports are restricted to admins
+                        .requestMatchers("/orders/export").hasRole("ADMIN")
                         // These endpoints require roles USER or ADMIN
-                        .requestMatchers("/categories", "/items", "/orders", "/payments", "/dashboard").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers("/categories", "/items", "/orders", "/payments", "/dashboard", "/customers", "/catalog/changes").hasAnyRole("USER", "ADMIN")
                         // Only accessible by users with ADMIN role
                         .requestMatchers("/admin/**").hasRole("ADMIN")
                         // Any other request must be authenticated
@@ -75,7 +80,8 @@ public class SecurityConfig {
         CorsConfiguration config = new CorsConfiguration();
         config.setAllowedOrigins(List.of("http://localhost:5173")); // Frontend origin (e.g., React/Vite app)
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS")); // HTTP methods allowed
-        config.setAllowedHeaders(List.of("Authorization", "Content-Type")); // Headers allowed in requests
+        config.setAllowedHeaders(List.of("Authorization", "Content-Type", "Idempotency-Key", "If-None-Match")); // Headers allowed in requests
+        config.setExposedHeaders(List.of("ETag")); // Lets the frontend read the catalog version
         config.setAllowCredentials(true); // Allows sending credentials (cookies, auth headers)
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
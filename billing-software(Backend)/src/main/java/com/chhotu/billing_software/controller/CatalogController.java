@@ -0,0 +1,26 @@
+package com.chhotu.billing_software.controller;
+
+import com.chhotu.billing_software.io.CatalogChangesResponse;
+import com.chhotu.billing_software.service.CatalogChangeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class CatalogController {
+
+    private final CatalogChangeService catalogChangeService; // Injected service to read the catalog change log
+
+    /**
+     * Endpoint for registers to sync their copy of the catalog incrementally.
+     * URL: GET /catalog/changes?since=
+     * Returns: The items and categories added or updated since the version, the ids of the deleted ones and the version
+     * to pass next time; fullSync=true when the register has to fetch /items and /categories again (no or too old a version)
+     */
+    @GetMapping("/catalog/changes")
+    public CatalogChangesResponse getChanges(@RequestParam(required = false) Long since) {
+        return catalogChangeService.getChangesSince(since);
+    }
+}
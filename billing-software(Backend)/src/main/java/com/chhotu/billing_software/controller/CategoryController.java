@@ -2,12 +2,16 @@ package com.chhotu.billing_software.controller;
 
 import com.chhotu.billing_software.io.CategoryRequest;
 import com.chhotu.billing_software.io.CategoryResponse;
+import com.chhotu.billing_software.service.CatalogService;
 import com.chhotu.billing_software.service.CategoryService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -17,7 +21,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CategoryController {
 
+    // Browsers keep the categories but must revalidate them with If-None-Match before every use
+    private static final CacheControl CATALOG_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final CategoryService categoryService; // Service layer to handle business logic
+    private final CatalogService catalogService; // Catalog version, bumped whenever items or categories change
 
     /**
      * Adds a new category (admin only).
@@ -49,10 +57,19 @@ public class CategoryController {
 
     /**
      * Fetches all categories (accessible to all authenticated users).
+     * Answers 304 Not Modified without reading them when the If-None-Match ETag is still current.
      */
     @GetMapping("/categories")
-    public List<CategoryResponse> fetchCategories() {
-        return categoryService.read(); // Delegates fetching logic to the service
+    public ResponseEntity<List<CategoryResponse>> fetchCategories(WebRequest request) {
+        // The item counts change with the items, so the categories share the catalog version
+        String eTag = "\"categories-" + catalogService.getVersion() + "\"";
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CATALOG_CACHE_CONTROL).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CATALOG_CACHE_CONTROL)
+                .body(categoryService.read()); // Delegates fetching logic to the service
     }
 
     /**
@@ -0,0 +1,54 @@
+package com.chhotu.billing_software.controller;
+
+import com.chhotu.billing_software.io.CustomerResponse;
+import com.chhotu.billing_software.service.CustomerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class CustomerController {
+
+    private final CustomerService customerService; // Injected service to look up customers
+
+    /**
+     * Autocompletes a phone number from the customers seen so far, most frequent first.
+     * Method: GET
+     * URL: /customers?phonePrefix=&limit=
+     * Response: Name, visit count and lifetime spend of the matching customers
+     */
+    @GetMapping("/customers")
+    public List<CustomerResponse> searchCustomers(@RequestParam String phonePrefix,
+                                                  @RequestParam(defaultValue = "10") int limit) {
+        return customerService.searchByPhonePrefix(phonePrefix, limit);
+    }
+
+    /**
+     * Fetches the purchase summary of one customer.
+     * Method: GET
+     * URL: /customers/{phoneNumber}
+     * Response: Name, visit count and lifetime spend of the customer
+     */
+    @GetMapping("/customers/{phoneNumber}")
+    public CustomerResponse getCustomer(@PathVariable String phoneNumber) {
+        return customerService.getCustomer(phoneNumber);
+    }
+
+    /**
+     * Recomputes the customer summaries from the raw orders (admin only).
+     * Method: POST
+     * URL: /admin/customers/rebuild
+     * Response: The number of customers rebuilt
+     */
+    @PostMapping("/admin/customers/rebuild")
+    public Map<String, Integer> rebuildCustomers() {
+        return Map.of("customers", customerService.rebuild());
+    }
+}
@@ -1,14 +1,20 @@
 package com.chhotu.billing_software.controller;
 
 
+import com.chhotu.billing_software.io.ItemImportJobResponse;
 import com.chhotu.billing_software.io.ItemRequest;
 import com.chhotu.billing_software.io.ItemResponse;
+import com.chhotu.billing_software.service.CatalogService;
+import com.chhotu.billing_software.service.ItemImportService;
 import com.chhotu.billing_software.service.ItemService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -18,7 +24,12 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ItemController {
 
+    // Browsers keep the catalog but must revalidate it with If-None-Match before every use
+    private static final CacheControl CATALOG_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final ItemService itemService; // Injected service to handle item logic (add, fetch, delete)
+    private final CatalogService catalogService; // Injected service to read the catalog version
+    private final ItemImportService itemImportService; // Injected service to import items in bulk
 
     /**
      * Endpoint to add a new item.
@@ -43,13 +54,70 @@ public class ItemController {
     }
 
     /**
-     * Endpoint to get the list of all items.
-     * URL: GET /items
-     * Returns: List of item response DTOs
+     * Endpoint to import items in bulk from a CSV file, in the background.
+     * Expects multipart/form-data containing:
+     * - file: CSV with a header row and the columns name, price (in rupees), category (id or name),
+     *   and optionally description and image.
+     * - images: Optional zip file with the images named in the image column.
+     * URL: POST /admin/items/import
+     * Returns: 202 Accepted with the import job; follow it with GET /admin/items/import/{jobId}
+     */
+    @PostMapping("/admin/items/import")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ItemImportJobResponse importItems(@RequestPart("file") MultipartFile file,
+                                             @RequestPart(value = "images", required = false) MultipartFile images) {
+        return itemImportService.startImport(file, images);
+    }
+
+    /**
+     * Endpoint to follow the progress of a bulk import.
+     * URL: GET /admin/items/import/{jobId}
+     * Returns: The import job with its counts and first errors; 404 Not Found for an unknown or expired job
+     */
+    @GetMapping("/admin/items/import/{jobId}")
+    public ItemImportJobResponse getImportJob(@PathVariable String jobId) {
+        try {
+            return itemImportService.getJob(jobId);
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    /**
+     * Endpoint to get the list of all items, or one page of them when a category, cursor or size is given.
+     * URL: GET /items?categoryId=&cursor=&size=
+     * Returns: List of item response DTOs, or a page with the cursor of the next one;
+     * 304 Not Modified if the If-None-Match ETag is still current
      */
     @GetMapping("/items")
-    public List<ItemResponse> readItems() {
-        return itemService.fetchItems(); // Call service to get all items
+    public ResponseEntity<?> readItems(@RequestParam(required = false) String categoryId,
+                                       @RequestParam(required = false) String cursor,
+                                       @RequestParam(required = false) Integer size,
+                                       WebRequest request) {
+        // Read the version before the items, so a concurrent change can only make the ETag older than the body
+        String eTag = "\"items-" + catalogService.getVersion() + "\"";
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CATALOG_CACHE_CONTROL).build();
+        }
+        Object body = categoryId == null && cursor == null && size == null
+                ? itemService.fetchItems() // Call service to get all items
+                : itemService.fetchItemPage(categoryId, cursor, size);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CATALOG_CACHE_CONTROL)
+                .body(body);
+    }
+
+    /**
+     * Endpoint to search the items by name, category name and description, tolerating typos.
+     * URL: GET /items/search?q=&categoryId=&limit=
+     * Returns: The best matching item response DTOs first
+     */
+    @GetMapping("/items/search")
+    public List<ItemResponse> searchItems(@RequestParam String q,
+                                          @RequestParam(required = false) String categoryId,
+                                          @RequestParam(defaultValue = "20") int limit) {
+        return itemService.searchItems(q, categoryId, limit);
     }
 
     /**
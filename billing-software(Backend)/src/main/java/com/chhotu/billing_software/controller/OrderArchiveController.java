@@ -0,0 +1,45 @@
+package com.chhotu.billing_software.controller;
+
+import com.chhotu.billing_software.io.OrderPurgeResult;
+import com.chhotu.billing_software.service.OrderArchiveService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class OrderArchiveController {
+
+    private final OrderArchiveService orderArchiveService; // Injected service to archive and purge old orders
+
+    /**
+     * Moves the orders older than the archival age into the archive tables now (admin only).
+     * Method: POST
+     * URL: /admin/orders/archive
+     * Response: The number of orders archived
+     */
+    @PostMapping("/admin/orders/archive")
+    public Map<String, Integer> archiveOrders() {
+        return Map.of("orders", orderArchiveService.archiveOrders());
+    }
+
+    /**
+     * Deletes the orders of a date range for good, or the orders past the retention period when no range is given (admin only).
+     * Method: POST
+     * URL: /admin/orders/purge?from=&to=
+     * Response: The number of orders deleted from the hot and the archive tables
+     */
+    @PostMapping("/admin/orders/purge")
+    public OrderPurgeResult purgeOrders(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from == null && to == null) {
+            return orderArchiveService.purgeExpiredOrders();
+        }
+        return orderArchiveService.purgeOrders(from, to);
+    }
+}
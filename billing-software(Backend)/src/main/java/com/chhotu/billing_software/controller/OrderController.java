@@ -1,32 +1,130 @@
 package com.chhotu.billing_software.controller;
 
 
+import com.chhotu.billing_software.io.ExportFormat;
+import com.chhotu.billing_software.io.OrderBatchResult;
+import com.chhotu.billing_software.io.OrderPageResponse;
 import com.chhotu.billing_software.io.OrderRequest;
 import com.chhotu.billing_software.io.OrderResponse;
+import com.chhotu.billing_software.io.PaymentMethod;
+import com.chhotu.billing_software.io.ReceiptFormat;
+import com.chhotu.billing_software.service.IdempotencyService;
+import com.chhotu.billing_software.service.OrderExportService;
 import com.chhotu.billing_software.service.OrderService;
+import com.chhotu.billing_software.service.ReceiptService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
 @RequestMapping("orders")
 @RequiredArgsConstructor
 public class OrderController {
+
+    private static final int BATCH_CHUNK_SIZE = 100; // Orders persisted per transaction in a bulk upload
+
     private final OrderService orderService; // Injected service to handle order-related logic
+    private final OrderExportService orderExportService; // Injected service to stream order exports
+    private final ObjectMapper objectMapper; // Used to read bulk uploads incrementally
+    private final IdempotencyService idempotencyService; // Injected service to answer retried requests once
+    private final ReceiptService receiptService; // Injected service to render receipts
 
     /**
      * Endpoint to create a new order.
      * Method: POST
      * URL: /orders
+     * Header: Idempotency-Key (optional), a retry with the same key returns the original order
      * Body: JSON representing order details
      * Response: The created order details
      */
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED) // Returns 201 status code on successful creation
-    public OrderResponse createOrder(@RequestBody OrderRequest request) {
-        return orderService.createOrder(request); // Delegates to service layer to create the order
+    public OrderResponse createOrder(@RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+                                     @RequestBody OrderRequest request) {
+        return idempotencyService.execute("orders", idempotencyKey, OrderResponse.class,
+                () -> orderService.createOrder(request)); // Delegates to service layer to create the order
+    }
+
+    /**
+     * Endpoint to upload the bills queued by an offline register.
+     * Method: POST
+     * URL: /orders/batch
+     * Body: JSON array of orders, read one order at a time and persisted in chunks; an order with a clientOrderKey
+     *       that was already uploaded is not created again, so a failed upload can simply be sent again
+     * Response: One result per order; a failed order does not roll back the others, and an unreadable upload
+     *           keeps the orders read before the error
+     */
+    @PostMapping("/batch")
+    public List<OrderBatchResult> createOrders(HttpServletRequest request) {
+        List<OrderBatchResult> results = new ArrayList<>();
+        List<OrderRequest> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+
+        try (MappingIterator<OrderRequest> orders = objectMapper.readerFor(OrderRequest.class)
+                .readValues(request.getInputStream())) {
+            while (orders.hasNext()) {
+                chunk.add(orders.next());
+                if (chunk.size() == BATCH_CHUNK_SIZE) {
+                    results.addAll(orderService.createOrders(chunk, results.size()));
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            // Malformed JSON, or the body stopped arriving
+            return withParseError(results, chunk, e);
+        } catch (RuntimeException e) {
+            // The iterator wraps the IOExceptions met while reading the next order
+            if (!(e.getCause() instanceof IOException)) {
+                throw e;
+            }
+            return withParseError(results, chunk, e.getCause());
+        }
+
+        if (!chunk.isEmpty()) {
+            results.addAll(orderService.createOrders(chunk, results.size()));
+        }
+        return results;
+    }
+
+    /**
+     * Keeps the orders read so far and reports where the upload became unreadable.
+     */
+    private List<OrderBatchResult> withParseError(List<OrderBatchResult> results, List<OrderRequest> chunk, Throwable error) {
+        results.addAll(orderService.createOrders(chunk, results.size()));
+        results.add(OrderBatchResult.builder()
+                .index(results.size())
+                .status(OrderBatchResult.Status.FAILED)
+                .error("Unable to parse the order: " + error.getMessage())
+                .build());
+        return results;
+    }
+
+    /**
+     * Endpoint to render the receipt of an order.
+     * Method: GET
+     * URL: /orders/{orderId}/receipt?format=PDF|ESCPOS
+     * Response: The receipt as a PDF, or as raw ESC/POS bytes for thermal printers
+     */
+    @GetMapping("/{orderId}/receipt")
+    public ResponseEntity<byte[]> getReceipt(@PathVariable String orderId,
+                                             @RequestParam(defaultValue = "PDF") ReceiptFormat format) {
+        byte[] receipt = receiptService.renderReceipt(orderId, format);
+        return ResponseEntity.ok()
+                .contentType(format == ReceiptFormat.ESCPOS ? MediaType.APPLICATION_OCTET_STREAM : MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + orderId + (format == ReceiptFormat.ESCPOS ? ".bin" : ".pdf") + "\"")
+                .body(receipt);
     }
 
     /**
@@ -45,10 +143,45 @@ public class OrderController {
      * Endpoint to get a list of the latest orders.
      * Method: GET
      * URL: /orders/latest
-     * Response: List of recent orders
+     * Response: List of recent orders (first page of the order history)
      */
     @GetMapping("/latest")
     public List<OrderResponse> getLatestOrders() {
         return orderService.getLatestOrders(); // Fetches recent orders from the service
     }
+
+    /**
+     * Endpoint to page through the order history, newest first.
+     * Method: GET
+     * URL: /orders/history?cursor=&size=&from=&to=&paymentMethod=&includeArchive=
+     * Response: A page of orders and the cursor to fetch the next page
+     */
+    @GetMapping("/history")
+    public OrderPageResponse getOrderHistory(@RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer size,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                             @RequestParam(required = false) PaymentMethod paymentMethod,
+                                             @RequestParam(defaultValue = "false") boolean includeArchive) {
+        return orderService.getOrderHistory(cursor, size, from, to, paymentMethod, includeArchive);
+    }
+
+    /**
+     * Endpoint to export orders and their line items for accounting (admin only).
+     * Method: GET
+     * URL: /orders/export?from=&to=&format=CSV|NDJSON&includeArchive=
+     * Response: The orders streamed straight from the database, flushed as they are written
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                              @RequestParam(defaultValue = "CSV") ExportFormat format,
+                                                              @RequestParam(defaultValue = "false") boolean includeArchive) {
+        StreamingResponseBody body = outputStream -> orderExportService.exportOrders(from, to, format, includeArchive, outputStream);
+        String fileName = format == ExportFormat.NDJSON ? "orders.ndjson" : "orders.csv";
+        return ResponseEntity.ok()
+                .contentType(format == ExportFormat.NDJSON ? MediaType.parseMediaType("application/x-ndjson") : MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
 }
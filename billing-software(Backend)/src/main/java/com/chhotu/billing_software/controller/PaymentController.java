@@ -4,6 +4,7 @@ import com.chhotu.billing_software.io.OrderResponse;
 import com.chhotu.billing_software.io.PaymentRequest;
 import com.chhotu.billing_software.io.PaymentVerificationRequest;
 import com.chhotu.billing_software.io.RazorpayOrderResponse;
+import com.chhotu.billing_software.service.IdempotencyService;
 import com.chhotu.billing_software.service.OrderService;
 import com.chhotu.billing_software.service.RazorpayService;
 import com.razorpay.RazorpayException;
@@ -18,6 +19,7 @@ public class PaymentController {
 
     private final RazorpayService razorpayService; // Service for handling Razorpay-related logic
     private final OrderService orderService; // Service to handle order verification and updates
+    private final IdempotencyService idempotencyService; // Service to answer retried requests once
 
     /**
      * Endpoint to create a Razorpay order.
@@ -36,11 +38,14 @@ public class PaymentController {
      * Endpoint to verify the payment after it's made.
      * Method: POST
      * URL: /payments/verify
+     * Header: Idempotency-Key (optional), a retry with the same key returns the original result
      * Request Body: PaymentVerificationRequest (contains payment details for verification)
      * Response: OrderResponse (updated order with payment status)
      */
     @PostMapping("/verify")
-    public OrderResponse verifyPayment(@RequestBody PaymentVerificationRequest request) {
-        return orderService.verifyPayment(request); // Verifies payment and updates order status
+    public OrderResponse verifyPayment(@RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+                                       @RequestBody PaymentVerificationRequest request) {
+        return idempotencyService.execute("payments-verify", idempotencyKey, OrderResponse.class,
+                () -> orderService.verifyPayment(request)); // Verifies payment and updates order status
     }
 }
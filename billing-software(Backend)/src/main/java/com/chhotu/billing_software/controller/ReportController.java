@@ -0,0 +1,70 @@
+package com.chhotu.billing_software.controller;
+
+import com.chhotu.billing_software.io.ReportBucket;
+import com.chhotu.billing_software.io.SalesReportResponse;
+import com.chhotu.billing_software.io.TopItemsPeriod;
+import com.chhotu.billing_software.io.TopItemsResponse;
+import com.chhotu.billing_software.service.ReportService;
+import com.chhotu.billing_software.service.SalesRollupService;
+import com.chhotu.billing_software.service.TopItemsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class ReportController {
+
+    private final SalesRollupService salesRollupService; // Injected service to maintain the daily sales rollup
+    private final ReportService reportService; // Injected service to build sales reports
+    private final TopItemsService topItemsService; // Injected service to rank the best selling items
+
+    /**
+     * Fetches the sales of a date range, bucketed by hour, day or month.
+     * Method: GET
+     * URL: /reports/sales?from=&to=&bucket=
+     * Response: Totals of the range and of every bucket
+     */
+    @GetMapping("/reports/sales")
+    public SalesReportResponse getSalesReport(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                              @RequestParam(required = false) ReportBucket bucket) {
+        return reportService.getSalesReport(from, to, bucket);
+    }
+
+    /**
+     * Fetches the best selling items of today, this week or this month (approximate, from memory),
+     * or of a date range when from and to are given (exact).
+     * Method: GET
+     * URL: /reports/top-items?period=&from=&to=&limit=
+     * Response: Items ranked by quantity sold
+     */
+    @GetMapping("/reports/top-items")
+    public TopItemsResponse getTopItems(@RequestParam(required = false) TopItemsPeriod period,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                       @RequestParam(defaultValue = "10") int limit) {
+        if (from != null || to != null) {
+            return topItemsService.getTopItems(from, to, limit);
+        }
+        return topItemsService.getTopItems(period, limit);
+    }
+
+    /**
+     * Recomputes the daily sales rollup from the raw orders (admin only).
+     * Method: POST
+     * URL: /admin/reports/daily-sales/rebuild?from=&to=
+     * Response: The number of days rebuilt
+     */
+    @PostMapping("/admin/reports/daily-sales/rebuild")
+    public Map<String, Integer> rebuildDailySales(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return Map.of("days", salesRollupService.rebuild(from, to));
+    }
+}
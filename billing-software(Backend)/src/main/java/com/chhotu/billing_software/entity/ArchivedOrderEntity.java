@@ -0,0 +1,53 @@
+package com.chhotu.billing_software.entity;
+
+import com.chhotu.billing_software.io.PaymentDetails;
+import com.chhotu.billing_software.io.PaymentMethod;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An order moved out of tbl_orders by the archival job. Same columns as OrderEntity, ids are kept.
+ */
+@Entity
+@Table(name = "tbl_orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_created_at_id", columnList = "created_at, id")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ArchivedOrderEntity {
+
+    @Id
+    private Long id;
+
+    @Column(unique = true)
+    private String orderId;
+    private String customerName;
+    private String phoneNumber;
+    // Amounts in paise; new columns so rows written as rupee doubles are never read as paise
+    @Column(name = "subtotal_paise")
+    private Long subtotal;
+    @Column(name = "tax_paise")
+    private Long tax;
+    @Column(name = "grand_total_paise")
+    private Long grandTotal;
+    private LocalDateTime createdAt;
+
+    @OneToMany
+    @JoinColumn(name = "order_id", nullable = false)
+    private List<ArchivedOrderItemEntity> items = new ArrayList<>();
+
+    @Embedded
+    private PaymentDetails paymentDetails;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentMethod paymentMethod;
+}
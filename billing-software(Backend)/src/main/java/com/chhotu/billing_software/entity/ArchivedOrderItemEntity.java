@@ -0,0 +1,27 @@
+package com.chhotu.billing_software.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A line item of an archived order. Same columns as OrderItemEntity, ids are kept.
+ */
+@Entity
+@Table(name = "tbl_order_items_archive")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedOrderItemEntity {
+
+    @Id
+    private Long id;
+    private String itemId;
+    private String name;
+    @Column(name = "price_paise")
+    private Long price; // In paise
+    private Integer quantity;
+}
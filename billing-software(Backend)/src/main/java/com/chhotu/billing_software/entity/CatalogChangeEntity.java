@@ -0,0 +1,43 @@
+package com.chhotu.billing_software.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+/**
+ * One change to an item or a category, written in the transaction of the change. The ids increase with every change
+ * and are the versions registers sync from. A deletion leaves a tombstone, so registers learn about it too.
+ */
+@Entity
+@Table(name = "tbl_catalog_changes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogChangeEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    // The itemId or categoryId that changed
+    @Column(nullable = false)
+    private String entityId;
+
+    private boolean deleted;
+
+    @Column(nullable = false)
+    private Timestamp changedAt;
+
+    public enum Type {
+        ITEM, CATEGORY
+    }
+}
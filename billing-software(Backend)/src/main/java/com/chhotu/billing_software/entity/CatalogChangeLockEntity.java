@@ -0,0 +1,28 @@
+package com.chhotu.billing_software.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+/**
+ * The single row every transaction writing to tbl_catalog_changes locks before it takes a change id. The lock is held
+ * until commit, so change ids are taken and become visible in the same order, and a register that read up to an id
+ * can never see a smaller one commit later.
+ */
+@Entity
+@Table(name = "tbl_catalog_change_lock")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogChangeLockEntity {
+
+    @Id
+    private Long id;
+
+    private Timestamp lockedAt;
+}
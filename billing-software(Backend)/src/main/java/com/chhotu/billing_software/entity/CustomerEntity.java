@@ -0,0 +1,34 @@
+package com.chhotu.billing_software.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Purchase summary of one customer, kept up to date by the order service so a phone lookup never scans tbl_orders.
+ * The phone number is stored as digits only; as the primary key its index also serves prefix searches.
+ * Amounts are in paise.
+ */
+@Entity
+@Table(name = "tbl_customers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerEntity {
+
+    @Id
+    @Column(length = 20)
+    private String phoneNumber;
+
+    private String name;
+    private Long visitCount;
+    @Column(name = "lifetime_spend_paise")
+    private Long lifetimeSpend;
+    private LocalDateTime firstVisitAt;
+    private LocalDateTime lastVisitAt;
+}
@@ -0,0 +1,40 @@
+package com.chhotu.billing_software.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Sales totals of one day, kept up to date by the order service so the dashboard never scans tbl_orders.
+ * Order count, sales and tax cover every order of the day; the cash and UPI columns only cover completed payments.
+ * Amounts are in paise.
+ */
+@Entity
+@Table(name = "tbl_daily_sales")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailySalesEntity {
+
+    @Id
+    private LocalDate salesDate;
+
+    private Long orderCount;
+    @Column(name = "total_sales_paise")
+    private Long totalSales;
+    @Column(name = "total_tax_paise")
+    private Long totalTax;
+
+    private Long cashOrderCount;
+    @Column(name = "cash_sales_paise")
+    private Long cashSales;
+
+    private Long upiOrderCount;
+    @Column(name = "upi_sales_paise")
+    private Long upiSales;
+}
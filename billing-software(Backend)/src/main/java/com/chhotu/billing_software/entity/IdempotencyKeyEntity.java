@@ -0,0 +1,34 @@
+package com.chhotu.billing_software.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response remembered for an Idempotency-Key, so a retried request returns the original result.
+ * The row is inserted in the same transaction as the work it guards, which makes concurrent retries
+ * of one key wait on the primary key and then read the committed response.
+ */
+@Entity
+@Table(name = "tbl_idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKeyEntity {
+
+    // Scope of the endpoint followed by the key sent by the client
+    @Id
+    @Column(length = 200)
+    private String idempotencyKey;
+
+    // JSON of the response, null until the guarded work has completed
+    @Lob
+    private String response;
+
+    private LocalDateTime createdAt;
+}
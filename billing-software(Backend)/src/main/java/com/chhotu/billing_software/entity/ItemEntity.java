@@ -10,7 +10,6 @@ import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 import org.hibernate.annotations.UpdateTimestamp;
 
-import java.math.BigDecimal;
 import java.sql.Timestamp;
 
 @Entity
@@ -30,7 +29,8 @@ public class ItemEntity {
 
     private String name;
 
-    private BigDecimal price;
+    @Column(name = "price_paise")
+    private Long price; // In paise
 
     private  String description;
 
@@ -13,26 +13,38 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "tbl_orders")
+@Table(name = "tbl_orders", indexes = {
+        // Keyset index used by the paginated order history (ORDER BY created_at DESC, id DESC),
+        // and by the created_at range scans of the sales reports
+        @Index(name = "idx_orders_created_at_id", columnList = "created_at, id")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 public class OrderEntity {
 
+    // Pooled sequence (a table-backed sequence on MySQL) so inserts can be batched; IDENTITY disables JDBC batching
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "tbl_orders_seq", allocationSize = 50)
     private Long id;
+
+    @Column(unique = true)
     private String orderId;
     private String customerName;
     private String phoneNumber;
-    private Double subtotal;
-    private Double tax;
-    private Double grandTotal;
+    // Amounts in paise; new columns so rows written as rupee doubles are never read as paise
+    @Column(name = "subtotal_paise")
+    private Long subtotal;
+    @Column(name = "tax_paise")
+    private Long tax;
+    @Column(name = "grand_total_paise")
+    private Long grandTotal;
     private LocalDateTime createdAt;
 
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-    @JoinColumn(name = "order_id")
+    @JoinColumn(name = "order_id", nullable = false) // Written with the item insert instead of a follow-up UPDATE
     private List<OrderItemEntity> items = new ArrayList<>();
 
     @Embedded
@@ -43,7 +55,6 @@ public class OrderEntity {
 
     @PrePersist
     protected void onCreate(){
-        this.orderId = "ORD"+System.currentTimeMillis();
         this.createdAt = LocalDateTime.now();
     }
 
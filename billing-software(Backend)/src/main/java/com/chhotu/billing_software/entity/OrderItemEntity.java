@@ -14,11 +14,14 @@ import lombok.NoArgsConstructor;
 @Builder
 public class OrderItemEntity {
 
+    // Pooled sequence so the line items of an order are inserted in one JDBC batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "tbl_order_items_seq", allocationSize = 50)
     private Long id;
     private String itemId;
     private String name;
-    private Double price;
+    @Column(name = "price_paise")
+    private Long price; // In paise
     private Integer quantity;
 }
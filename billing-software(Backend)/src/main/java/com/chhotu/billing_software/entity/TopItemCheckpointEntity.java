@@ -0,0 +1,39 @@
+package com.chhotu.billing_software.entity;
+
+import com.chhotu.billing_software.io.TopItemsPeriod;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One counter of the best sellers sketch of a period on one instance, saved periodically so a restart only has to
+ * replay the orders created since the last checkpoint, and so the other instances can add it to theirs.
+ */
+@Entity
+@Table(name = "tbl_top_items_checkpoint", indexes = @Index(name = "idx_top_items_period", columnList = "period, period_start, node_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TopItemCheckpointEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private TopItemsPeriod period;
+    private LocalDate periodStart;
+    // order.id.node-id of the instance whose orders the counter holds
+    private Long nodeId;
+    private String itemId;
+    private String name;
+    private Long quantity;
+    private Long error;
+    private LocalDateTime checkpointedAt;
+}
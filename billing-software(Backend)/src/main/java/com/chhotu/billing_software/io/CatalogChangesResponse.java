@@ -0,0 +1,22 @@
+package com.chhotu.billing_software.io;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogChangesResponse {
+
+    private Long version; // Pass as since on the next sync
+    private Boolean fullSync; // The changes are not available; fetch /items and /categories again
+    private List<ItemResponse> items; // Items added or updated, in their current state
+    private List<CategoryResponse> categories; // Categories added or updated, with their current item count
+    private List<String> deletedItemIds;
+    private List<String> deletedCategoryIds;
+}
@@ -0,0 +1,70 @@
+package com.chhotu.billing_software.io;
+
+import com.chhotu.billing_software.util.ItemSearchIndex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The item catalog as of one version. Never modified once built: a change to the catalog builds a new snapshot.
+ * @param version The id of the latest tbl_catalog_changes row read before the items (0 for an empty log), so the same
+ *                on every instance; a rebuild without a change in between keeps it.
+ * @param items Every item, in ascending order of their database id.
+ * @param ids The database id of each item, ascending; the keys of the keyset pagination.
+ * @param itemsByCategory The positions in items of the items of each category, ascending.
+ * @param searchIndex The search index over the same items.
+ */
+public record CatalogSnapshot(long version, List<ItemResponse> items, long[] ids,
+                              Map<String, int[]> itemsByCategory, ItemSearchIndex searchIndex) {
+
+    /**
+     * Builds a snapshot, its category lists and the search index of its items.
+     * @param items The items, in ascending order of their database id.
+     * @param ids The database id of each item.
+     */
+    public static CatalogSnapshot of(long version, List<ItemResponse> items, long[] ids) {
+        List<ItemResponse> copy = List.copyOf(items);
+
+        Map<String, List<Integer>> positions = new HashMap<>();
+        for (int i = 0; i < copy.size(); i++) {
+            positions.computeIfAbsent(copy.get(i).getCategoryId(), key -> new ArrayList<>()).add(i);
+        }
+        Map<String, int[]> byCategory = new HashMap<>();
+        positions.forEach((categoryId, list) -> byCategory.put(categoryId, list.stream().mapToInt(Integer::intValue).toArray()));
+
+        return new CatalogSnapshot(version, copy, ids.clone(), Map.copyOf(byCategory), new ItemSearchIndex(copy));
+    }
+
+    /**
+     * Reads the items that follow a key, in id order.
+     * @param categoryId Only return items of this category, or null for all.
+     * @param afterId The id of the last item of the previous page, or null for the first page.
+     * @param size The number of items to return.
+     * @return The positions in items of at most size + 1 items, the extra one telling whether there is a next page.
+     */
+    public int[] page(String categoryId, Long afterId, int size) {
+        int[] candidates = categoryId != null ? itemsByCategory.getOrDefault(categoryId, new int[0]) : null;
+        int count = candidates != null ? candidates.length : items.size();
+
+        // First candidate whose id is above the key
+        int low = 0;
+        int high = count;
+        while (afterId != null && low < high) {
+            int middle = (low + high) >>> 1;
+            int position = candidates != null ? candidates[middle] : middle;
+            if (ids[position] <= afterId) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        int[] page = new int[Math.min(size + 1, count - low)];
+        for (int i = 0; i < page.length; i++) {
+            page[i] = candidates != null ? candidates[low + i] : low + i;
+        }
+        return page;
+    }
+}
@@ -0,0 +1,22 @@
+package com.chhotu.billing_software.io;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerResponse {
+    private String phoneNumber;
+    private String name;
+    private Long visitCount;
+    // Amount in paise
+    private Long lifetimeSpend;
+    private LocalDateTime firstVisitAt;
+    private LocalDateTime lastVisitAt;
+}
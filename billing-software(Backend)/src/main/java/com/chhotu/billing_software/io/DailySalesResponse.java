@@ -0,0 +1,24 @@
+package com.chhotu.billing_software.io;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailySalesResponse {
+    private LocalDate salesDate;
+    private Long orderCount;
+    // Amounts are in paise
+    private Long totalSales;
+    private Long totalTax;
+    private Long cashOrderCount;
+    private Long cashSales;
+    private Long upiOrderCount;
+    private Long upiSales;
+}
@@ -13,7 +13,7 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 public class DashboardResponse {
-    private Double todaySales;
+    private Long todaySales; // In paise
     private Long todayOrderCount;
     private List<OrderResponse> recentOrders;
 }
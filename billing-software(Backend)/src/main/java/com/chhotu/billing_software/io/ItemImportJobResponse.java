@@ -0,0 +1,29 @@
+package com.chhotu.billing_software.io;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemImportJobResponse {
+
+    private String jobId;
+    private Status status;
+    private Integer processedRows; // Data rows read from the CSV so far
+    private Integer importedItems;
+    private Integer failedRows;
+    private List<String> errors; // The first errors, with their CSV line
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+}
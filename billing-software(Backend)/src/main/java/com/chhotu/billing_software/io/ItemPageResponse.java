@@ -0,0 +1,18 @@
+package com.chhotu.billing_software.io;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemPageResponse {
+    private List<ItemResponse> items;
+    private String nextCursor; // Opaque cursor for the next page, null when there are no more items
+    private Boolean hasMore;
+}
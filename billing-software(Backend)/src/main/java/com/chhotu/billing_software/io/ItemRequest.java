@@ -5,8 +5,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -15,7 +13,7 @@ public class ItemRequest {
 
     private String name;
 
-    private BigDecimal price;
+    private Long price; // In paise
 
     private String categoryId;
 
@@ -5,7 +5,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.sql.Timestamp;
 
 @Data
@@ -18,7 +17,7 @@ public class ItemResponse {
 
     private String name;
 
-    private BigDecimal price;
+    private Long price; // In paise
 
 
     private String categoryId;
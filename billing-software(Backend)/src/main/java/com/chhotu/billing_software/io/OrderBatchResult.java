@@ -0,0 +1,22 @@
+package com.chhotu.billing_software.io;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderBatchResult {
+
+    private Integer index; // Position of the order in the uploaded array
+    private String orderId;
+    private Status status;
+    private String error;
+
+    public enum Status {
+        CREATED, FAILED
+    }
+}
@@ -0,0 +1,15 @@
+package com.chhotu.billing_software.io;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderPurgeResult {
+    private Integer ordersPurged; // Deleted from tbl_orders
+    private Integer archivedOrdersPurged; // Deleted from tbl_orders_archive
+}
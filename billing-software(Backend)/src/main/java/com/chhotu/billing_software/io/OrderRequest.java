@@ -17,10 +17,13 @@ public class OrderRequest {
     private String customerName;
     private String phoneNumber;
     private List<OrderItemRequest> cartItems;
-    private Double subtotal;
-    private Double tax;
-    private Double grandTotal;
+    // Amounts are in paise (1 INR = 100 paise)
+    private Long subtotal;
+    private Long tax;
+    private Long grandTotal;
     private String paymentMethod;
+    // Key the register gave the bill, like the Idempotency-Key of a single order; a re-uploaded bill returns the original order
+    private String clientOrderKey;
 
 
     @Data
@@ -30,7 +33,7 @@ public class OrderRequest {
     public static class OrderItemRequest {
         private String itemId;
         private String name;
-        private Double price;
+        private Long price; // In paise
         private Integer quantity;
     }
 }
@@ -18,9 +18,10 @@ public class OrderResponse {
     private String customerName;
     private String phoneNumber;
     private List<OrderResponse.OrderItemResponse> items;
-    private Double subtotal;
-    private Double tax;
-    private Double grandTotal;
+    // Amounts are in paise (1 INR = 100 paise)
+    private Long subtotal;
+    private Long tax;
+    private Long grandTotal;
     private PaymentMethod paymentMethod;
     private LocalDateTime createdAt;
     private PaymentDetails paymentDetails;
@@ -34,7 +35,7 @@ public class OrderResponse {
     public static class OrderItemResponse{
         private String itemId;
         private String name;
-        private Double price;
+        private Long price; // In paise
         private Integer quantity;
     }
 }
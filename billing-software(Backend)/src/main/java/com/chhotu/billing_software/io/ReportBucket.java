@@ -0,0 +1,5 @@
+package com.chhotu.billing_software.io;
+
+public enum ReportBucket {
+    HOUR, DAY, MONTH
+}
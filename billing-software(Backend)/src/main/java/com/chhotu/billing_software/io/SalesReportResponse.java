@@ -0,0 +1,36 @@
+package com.chhotu.billing_software.io;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesReportResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private ReportBucket bucket;
+    private Long orderCount;
+    // Amounts are in paise
+    private Long totalSales;
+    private Long totalTax;
+    private List<SalesBucket> buckets;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SalesBucket {
+        private LocalDateTime start;
+        private Long orderCount;
+        private Long totalSales;
+        private Long totalTax;
+    }
+}
@@ -0,0 +1,21 @@
+package com.chhotu.billing_software.io;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+public enum TopItemsPeriod {
+    TODAY, WEEK, MONTH;
+
+    /**
+     * @param day A day of the period.
+     * @return The first day of the period containing the given day (weeks start on Monday).
+     */
+    public LocalDate start(LocalDate day) {
+        return switch (this) {
+            case TODAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package com.chhotu.billing_software.io;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TopItemsResponse {
+    private TopItemsPeriod period;
+    private LocalDate from;
+    private LocalDate to;
+    // True when the quantities come from the in-memory sketch, in which case each may overestimate by its error
+    private Boolean approximate;
+    private List<TopItem> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TopItem {
+        private String itemId;
+        private String name;
+        private Long quantity;
+        private Long error;
+    }
+}
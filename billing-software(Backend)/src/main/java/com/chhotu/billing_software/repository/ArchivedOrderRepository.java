@@ -0,0 +1,112 @@
+package com.chhotu.billing_software.repository;
+
+import com.chhotu.billing_software.entity.ArchivedOrderEntity;
+import com.chhotu.billing_software.io.PaymentMethod;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrderEntity, Long> {
+
+    // Copies a batch of orders and their line items from the hot tables into the archive tables
+    @Modifying
+    @Query(value = "INSERT INTO tbl_orders_archive (id, order_id, customer_name, phone_number, subtotal_paise, tax_paise, grand_total_paise, " +
+            "created_at, razorpay_order_id, razorpay_payment_id, razorpay_signature, status, payment_method) " +
+            "SELECT id, order_id, customer_name, phone_number, subtotal_paise, tax_paise, grand_total_paise, " +
+            "created_at, razorpay_order_id, razorpay_payment_id, razorpay_signature, status, payment_method " +
+            "FROM tbl_orders WHERE id IN (:ids)", nativeQuery = true)
+    int copyOrders(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO tbl_order_items_archive (id, item_id, name, price_paise, quantity, order_id) " +
+            "SELECT id, item_id, name, price_paise, quantity, order_id FROM tbl_order_items WHERE order_id IN (:ids)", nativeQuery = true)
+    int copyOrderItems(@Param("ids") Collection<Long> ids);
+
+    // Ids of the archived orders placed before a cutoff or in a time range, used to purge them in bounded batches
+    @Query("SELECT o.id FROM ArchivedOrderEntity o WHERE o.createdAt < :cutoff ORDER BY o.createdAt, o.id")
+    List<Long> findIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Query("SELECT o.id FROM ArchivedOrderEntity o WHERE o.createdAt >= :from AND o.createdAt < :to ORDER BY o.createdAt, o.id")
+    List<Long> findIdsCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to, Pageable pageable);
+
+    // Set-based deletes of a batch of archived orders and their line items
+    @Modifying
+    @Query(value = "DELETE FROM tbl_order_items_archive WHERE order_id IN (:ids)", nativeQuery = true)
+    int deleteItemsByOrderIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM tbl_orders_archive WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Sales per hour, day or month of a time range, same rows as the OrderEntityRepository reports
+    @Query("SELECT YEAR(o.createdAt), MONTH(o.createdAt), DAY(o.createdAt), HOUR(o.createdAt), COUNT(o), SUM(o.grandTotal), SUM(o.tax) " +
+            "FROM ArchivedOrderEntity o WHERE o.createdAt >= :from AND o.createdAt < :to " +
+            "GROUP BY YEAR(o.createdAt), MONTH(o.createdAt), DAY(o.createdAt), HOUR(o.createdAt)")
+    List<Object[]> sumSalesByHour(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT YEAR(o.createdAt), MONTH(o.createdAt), DAY(o.createdAt), 0, COUNT(o), SUM(o.grandTotal), SUM(o.tax) " +
+            "FROM ArchivedOrderEntity o WHERE o.createdAt >= :from AND o.createdAt < :to " +
+            "GROUP BY YEAR(o.createdAt), MONTH(o.createdAt), DAY(o.createdAt)")
+    List<Object[]> sumSalesByDay(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT YEAR(o.createdAt), MONTH(o.createdAt), 1, 0, COUNT(o), SUM(o.grandTotal), SUM(o.tax) " +
+            "FROM ArchivedOrderEntity o WHERE o.createdAt >= :from AND o.createdAt < :to " +
+            "GROUP BY YEAR(o.createdAt), MONTH(o.createdAt)")
+    List<Object[]> sumSalesByMonth(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Quantity sold per item over a time range; rows are [item id, name, quantity]
+    @Query("SELECT i.itemId, MAX(i.name), SUM(i.quantity) FROM ArchivedOrderEntity o JOIN o.items i " +
+            "WHERE o.createdAt >= :from AND o.createdAt < :to GROUP BY i.itemId")
+    List<Object[]> sumQuantityByItem(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Purchase summary per phone number as typed on the orders; rows are [phone, name, visits, spend, first visit, last visit]
+    @Query("SELECT o.phoneNumber, MAX(o.customerName), COUNT(o), SUM(o.grandTotal), MIN(o.createdAt), MAX(o.createdAt) " +
+            "FROM ArchivedOrderEntity o WHERE o.phoneNumber IS NOT NULL GROUP BY o.phoneNumber")
+    List<Object[]> summarizeByPhoneNumber();
+
+    // Orders and spend per phone number within a batch of orders; rows are [phone, orders, spend]
+    @Query("SELECT o.phoneNumber, COUNT(o), SUM(o.grandTotal) FROM ArchivedOrderEntity o " +
+            "WHERE o.id IN :ids AND o.phoneNumber IS NOT NULL GROUP BY o.phoneNumber")
+    List<Object[]> summarizeByPhoneNumberOfIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT o FROM ArchivedOrderEntity o LEFT JOIN FETCH o.items WHERE o.id IN :ids")
+    List<ArchivedOrderEntity> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT o FROM ArchivedOrderEntity o LEFT JOIN FETCH o.items WHERE o.orderId = :orderId")
+    Optional<ArchivedOrderEntity> findWithItemsByOrderId(@Param("orderId") String orderId);
+
+    // Same keyset page as OrderEntityRepository.findOrderHistory, over the archive
+    @Query("SELECT o FROM ArchivedOrderEntity o " +
+            "WHERE (:from IS NULL OR o.createdAt >= :from) " +
+            "AND (:to IS NULL OR o.createdAt < :to) " +
+            "AND (:paymentMethod IS NULL OR o.paymentMethod = :paymentMethod) " +
+            "AND (:cursorCreatedAt IS NULL OR o.createdAt < :cursorCreatedAt " +
+            "     OR (o.createdAt = :cursorCreatedAt AND o.id < :cursorId)) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<ArchivedOrderEntity> findOrderHistory(@Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to,
+                                               @Param("paymentMethod") PaymentMethod paymentMethod,
+                                               @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                               @Param("cursorId") Long cursorId,
+                                               Pageable pageable);
+
+    // Same rows as OrderEntityRepository.streamOrderRows, over the archive
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT o.orderId, o.createdAt, o.customerName, o.phoneNumber, o.paymentMethod, o.paymentDetails.status, " +
+            "o.subtotal, o.tax, o.grandTotal, i.itemId, i.name, i.price, i.quantity " +
+            "FROM ArchivedOrderEntity o LEFT JOIN o.items i " +
+            "WHERE (:from IS NULL OR o.createdAt >= :from) AND (:to IS NULL OR o.createdAt < :to) " +
+            "ORDER BY o.createdAt, o.id, i.id")
+    Stream<Object[]> streamOrderRows(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,28 @@
+package com.chhotu.billing_software.repository;
+
+import com.chhotu.billing_software.entity.CatalogChangeEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+public interface CatalogChangeRepository extends JpaRepository<CatalogChangeEntity, Long> {
+
+    // Changes after a version, oldest first
+    List<CatalogChangeEntity> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT MAX(c.id) FROM CatalogChangeEntity c")
+    Long findLatestId();
+
+    @Query("SELECT MIN(c.id) FROM CatalogChangeEntity c")
+    Long findOldestId();
+
+    // Drops the changes older than the retention, always keeping the latest one so the current version stays known
+    @Modifying
+    @Query("DELETE FROM CatalogChangeEntity c WHERE c.changedAt < :cutoff AND c.id < :latestId")
+    int deleteChangedBefore(@Param("cutoff") Timestamp cutoff, @Param("latestId") Long latestId);
+}
@@ -3,9 +3,13 @@ package com.chhotu.billing_software.repository;
 import com.chhotu.billing_software.entity.CategoryEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<CategoryEntity, Long> {
 
     Optional<CategoryEntity> findByCategoryId(String categoryId);
+
+    List<CategoryEntity> findByCategoryIdIn(Collection<String> categoryIds);
 }
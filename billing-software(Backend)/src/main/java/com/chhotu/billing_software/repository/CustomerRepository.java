@@ -0,0 +1,45 @@
+package com.chhotu.billing_software.repository;
+
+import com.chhotu.billing_software.entity.CustomerEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface CustomerRepository extends JpaRepository<CustomerEntity, String> {
+
+    // Any one customer, to tell an empty table without counting its rows
+    Optional<CustomerEntity> findFirstByOrderByPhoneNumber();
+
+    // Adds the given deltas to the row of a customer in a single atomic statement; a null name or visit time keeps the current one
+    @Modifying
+    @Query("UPDATE CustomerEntity c SET " +
+            "c.visitCount = c.visitCount + :visits, " +
+            "c.lifetimeSpend = c.lifetimeSpend + :spend, " +
+            "c.name = COALESCE(:name, c.name), " +
+            "c.lastVisitAt = COALESCE(:visitedAt, c.lastVisitAt) " +
+            "WHERE c.phoneNumber = :phoneNumber")
+    int increment(@Param("phoneNumber") String phoneNumber,
+                  @Param("name") String name,
+                  @Param("visits") long visits,
+                  @Param("spend") long spend,
+                  @Param("visitedAt") LocalDateTime visitedAt);
+
+    // Plain INSERT of a customer without visits, so an existing row fails on the primary key instead of being merged over
+    @Modifying
+    @Query(value = "INSERT INTO tbl_customers (phone_number, name, visit_count, lifetime_spend_paise, first_visit_at) " +
+            "VALUES (:phoneNumber, :name, 0, 0, :visitedAt)", nativeQuery = true)
+    int insertNew(@Param("phoneNumber") String phoneNumber,
+                  @Param("name") String name,
+                  @Param("visitedAt") LocalDateTime visitedAt);
+
+    // Range scan of the primary key; the prefix only ever holds digits, so it needs no LIKE escaping
+    @Query("SELECT c FROM CustomerEntity c WHERE c.phoneNumber LIKE CONCAT(:prefix, '%') AND c.visitCount > 0 " +
+            "ORDER BY c.visitCount DESC, c.phoneNumber")
+    List<CustomerEntity> searchByPhonePrefix(@Param("prefix") String prefix, Pageable pageable);
+}
@@ -0,0 +1,78 @@
+package com.chhotu.billing_software.repository;
+
+import com.chhotu.billing_software.entity.DailySalesEntity;
+import com.chhotu.billing_software.io.PaymentDetails;
+import com.chhotu.billing_software.io.PaymentMethod;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface DailySalesRepository extends JpaRepository<DailySalesEntity, LocalDate> {
+
+    // Adds the given deltas to the row of a day in a single atomic statement
+    @Modifying
+    @Query("UPDATE DailySalesEntity d SET " +
+            "d.orderCount = d.orderCount + :orders, " +
+            "d.totalSales = d.totalSales + :sales, " +
+            "d.totalTax = d.totalTax + :tax, " +
+            "d.cashOrderCount = d.cashOrderCount + :cashOrders, " +
+            "d.cashSales = d.cashSales + :cashSales, " +
+            "d.upiOrderCount = d.upiOrderCount + :upiOrders, " +
+            "d.upiSales = d.upiSales + :upiSales " +
+            "WHERE d.salesDate = :date")
+    int increment(@Param("date") LocalDate date,
+                  @Param("orders") long orders,
+                  @Param("sales") long sales,
+                  @Param("tax") long tax,
+                  @Param("cashOrders") long cashOrders,
+                  @Param("cashSales") long cashSales,
+                  @Param("upiOrders") long upiOrders,
+                  @Param("upiSales") long upiSales);
+
+    // Plain INSERT of an empty day so an existing row fails on the primary key instead of being merged over
+    @Modifying
+    @Query(value = "INSERT INTO tbl_daily_sales (sales_date, order_count, total_sales_paise, total_tax_paise, " +
+            "cash_order_count, cash_sales_paise, upi_order_count, upi_sales_paise) VALUES (:date, 0, 0, 0, 0, 0, 0, 0)", nativeQuery = true)
+    int insertEmptyDay(@Param("date") LocalDate date);
+
+    @Modifying
+    @Query("DELETE FROM DailySalesEntity d WHERE (:from IS NULL OR d.salesDate >= :from) AND (:to IS NULL OR d.salesDate <= :to)")
+    int deleteBySalesDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Recomputes the daily rows from the raw orders of a time range
+    @Query("SELECT new com.chhotu.billing_software.entity.DailySalesEntity(" +
+            "CAST(o.createdAt AS LocalDate), COUNT(o), SUM(o.grandTotal), SUM(o.tax), " +
+            "SUM(CASE WHEN o.paymentMethod = :cash AND o.paymentDetails.status = :completed THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN o.paymentMethod = :cash AND o.paymentDetails.status = :completed THEN o.grandTotal ELSE 0L END), " +
+            "SUM(CASE WHEN o.paymentMethod = :upi AND o.paymentDetails.status = :completed THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN o.paymentMethod = :upi AND o.paymentDetails.status = :completed THEN o.grandTotal ELSE 0L END)) " +
+            "FROM OrderEntity o " +
+            "WHERE (:from IS NULL OR o.createdAt >= :from) AND (:to IS NULL OR o.createdAt < :to) " +
+            "GROUP BY CAST(o.createdAt AS LocalDate)")
+    List<DailySalesEntity> aggregateOrders(@Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to,
+                                           @Param("cash") PaymentMethod cash,
+                                           @Param("upi") PaymentMethod upi,
+                                           @Param("completed") PaymentDetails.PaymentStatus completed);
+
+    // Same aggregate over the archive tables, so days older than the archival cutoff can be rebuilt too
+    @Query("SELECT new com.chhotu.billing_software.entity.DailySalesEntity(" +
+            "CAST(o.createdAt AS LocalDate), COUNT(o), SUM(o.grandTotal), SUM(o.tax), " +
+            "SUM(CASE WHEN o.paymentMethod = :cash AND o.paymentDetails.status = :completed THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN o.paymentMethod = :cash AND o.paymentDetails.status = :completed THEN o.grandTotal ELSE 0L END), " +
+            "SUM(CASE WHEN o.paymentMethod = :upi AND o.paymentDetails.status = :completed THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN o.paymentMethod = :upi AND o.paymentDetails.status = :completed THEN o.grandTotal ELSE 0L END)) " +
+            "FROM ArchivedOrderEntity o " +
+            "WHERE (:from IS NULL OR o.createdAt >= :from) AND (:to IS NULL OR o.createdAt < :to) " +
+            "GROUP BY CAST(o.createdAt AS LocalDate)")
+    List<DailySalesEntity> aggregateArchivedOrders(@Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to,
+                                                   @Param("cash") PaymentMethod cash,
+                                                   @Param("upi") PaymentMethod upi,
+                                                   @Param("completed") PaymentDetails.PaymentStatus completed);
+}
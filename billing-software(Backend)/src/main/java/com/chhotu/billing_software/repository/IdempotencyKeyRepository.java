@@ -0,0 +1,25 @@
+package com.chhotu.billing_software.repository;
+
+import com.chhotu.billing_software.entity.IdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, String> {
+
+    // Plain INSERT so a duplicate key fails (or waits for the transaction holding it) instead of being merged
+    @Modifying
+    @Query(value = "INSERT INTO tbl_idempotency_keys (idempotency_key, created_at) VALUES (:key, :createdAt)", nativeQuery = true)
+    int reserve(@Param("key") String key, @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyKeyEntity k SET k.response = :response WHERE k.idempotencyKey = :key")
+    int complete(@Param("key") String key, @Param("response") String response);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
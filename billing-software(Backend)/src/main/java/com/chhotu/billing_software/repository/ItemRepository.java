@@ -2,12 +2,30 @@ package com.chhotu.billing_software.repository;
 
 import com.chhotu.billing_software.entity.ItemEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<ItemEntity, Long> {
 
     Optional<ItemEntity> findByItemId(String id);
 
-    Integer countByCategoryId(Long id);
+    // Item count of every category that has items in one grouped query; rows are [category id, count]
+    @Query("SELECT i.category.id, COUNT(i) FROM ItemEntity i GROUP BY i.category.id")
+    List<Object[]> countItemsByCategory();
+
+    // Item count of some categories in one grouped query; rows are [category id, count]
+    @Query("SELECT i.category.id, COUNT(i) FROM ItemEntity i WHERE i.category.id IN :categoryIds GROUP BY i.category.id")
+    List<Object[]> countItemsByCategoryIdIn(@Param("categoryIds") Collection<Long> categoryIds);
+
+    // Resolves all items of a cart in one query (category fetched in the same join)
+    @Query("SELECT i FROM ItemEntity i JOIN FETCH i.category WHERE i.itemId IN :itemIds")
+    List<ItemEntity> findAllByItemIdIn(@Param("itemIds") Collection<String> itemIds);
+
+    // Loads the whole catalog with the categories in the same join, instead of one select per category
+    @Query("SELECT i FROM ItemEntity i JOIN FETCH i.category ORDER BY i.id")
+    List<ItemEntity> findAllWithCategory();
 }
@@ -1,28 +1,119 @@
 package com.chhotu.billing_software.repository;
 
 import com.chhotu.billing_software.entity.OrderEntity;
+import com.chhotu.billing_software.io.PaymentMethod;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 
-import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OrderEntityRepository extends JpaRepository<OrderEntity, Long> {
 
     Optional<OrderEntity> findByOrderId(String orderId);
 
-    List<OrderEntity> findAllByOrderByCreatedAtDesc();
+    @Query("SELECT o FROM OrderEntity o ORDER BY o.createdAt DESC")
+    List<OrderEntity> findRecentOrders(Pageable pageable);
 
-    @Query("SELECT SUM(o.grandTotal) FROM OrderEntity o WHERE DATE(o.createdAt) = :date")
-    Double sumSalesByDate(@Param("date") LocalDate date);
+    // Quantity sold per item over a time range; rows are [item id, name, quantity]
+    @Query("SELECT i.itemId, MAX(i.name), SUM(i.quantity) FROM OrderEntity o JOIN o.items i " +
+            "WHERE o.createdAt >= :from AND o.createdAt < :to GROUP BY i.itemId")
+    List<Object[]> sumQuantityByItem(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
-    @Query("SELECT COUNT(o) FROM OrderEntity o WHERE DATE(o.createdAt) = :date")
-    Long countByOrderDate(@Param("date")LocalDate date);
+    // Line items of the orders created over a time range; rows are [order id, item id, name, quantity]
+    @Query("SELECT o.orderId, i.itemId, i.name, i.quantity FROM OrderEntity o JOIN o.items i " +
+            "WHERE o.createdAt >= :from AND o.createdAt < :to")
+    List<Object[]> findLineItemsCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
-    @Query("SELECT o FROM OrderEntity o ORDER BY o.createdAt DESC")
-    List<OrderEntity> findRecentOrders(Pageable pageable);
+    // Purchase summary per phone number as typed on the orders; rows are [phone, name, visits, spend, first visit, last visit]
+    @Query("SELECT o.phoneNumber, MAX(o.customerName), COUNT(o), SUM(o.grandTotal), MIN(o.createdAt), MAX(o.createdAt) " +
+            "FROM OrderEntity o WHERE o.phoneNumber IS NOT NULL GROUP BY o.phoneNumber")
+    List<Object[]> summarizeByPhoneNumber();
+
+    // Orders and spend per phone number within a batch of orders; rows are [phone, orders, spend]
+    @Query("SELECT o.phoneNumber, COUNT(o), SUM(o.grandTotal) FROM OrderEntity o " +
+            "WHERE o.id IN :ids AND o.phoneNumber IS NOT NULL GROUP BY o.phoneNumber")
+    List<Object[]> summarizeByPhoneNumberOfIds(@Param("ids") Collection<Long> ids);
+
+    // Sales per hour of a time range; rows are [year, month, day, hour, order count, sales, tax]
+    @Query("SELECT YEAR(o.createdAt), MONTH(o.createdAt), DAY(o.createdAt), HOUR(o.createdAt), COUNT(o), SUM(o.grandTotal), SUM(o.tax) " +
+            "FROM OrderEntity o WHERE o.createdAt >= :from AND o.createdAt < :to " +
+            "GROUP BY YEAR(o.createdAt), MONTH(o.createdAt), DAY(o.createdAt), HOUR(o.createdAt)")
+    List<Object[]> sumSalesByHour(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Sales per day of a time range; rows are [year, month, day, 0, order count, sales, tax]
+    @Query("SELECT YEAR(o.createdAt), MONTH(o.createdAt), DAY(o.createdAt), 0, COUNT(o), SUM(o.grandTotal), SUM(o.tax) " +
+            "FROM OrderEntity o WHERE o.createdAt >= :from AND o.createdAt < :to " +
+            "GROUP BY YEAR(o.createdAt), MONTH(o.createdAt), DAY(o.createdAt)")
+    List<Object[]> sumSalesByDay(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Sales per month of a time range; rows are [year, month, 1, 0, order count, sales, tax]
+    @Query("SELECT YEAR(o.createdAt), MONTH(o.createdAt), 1, 0, COUNT(o), SUM(o.grandTotal), SUM(o.tax) " +
+            "FROM OrderEntity o WHERE o.createdAt >= :from AND o.createdAt < :to " +
+            "GROUP BY YEAR(o.createdAt), MONTH(o.createdAt)")
+    List<Object[]> sumSalesByMonth(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Forward-only stream of one row per line item (scalars only, so nothing piles up in the persistence context);
+    // rows are [orderId, createdAt, customerName, phoneNumber, paymentMethod, paymentStatus, subtotal, tax, grandTotal,
+    // itemId, itemName, price, quantity]
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT o.orderId, o.createdAt, o.customerName, o.phoneNumber, o.paymentMethod, o.paymentDetails.status, " +
+            "o.subtotal, o.tax, o.grandTotal, i.itemId, i.name, i.price, i.quantity " +
+            "FROM OrderEntity o LEFT JOIN o.items i " +
+            "WHERE (:from IS NULL OR o.createdAt >= :from) AND (:to IS NULL OR o.createdAt < :to) " +
+            "ORDER BY o.createdAt, o.id, i.id")
+    Stream<Object[]> streamOrderRows(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Order id and grand total of the orders of a time range; rows are [orderId, grandTotal]
+    @Query("SELECT o.orderId, o.grandTotal FROM OrderEntity o WHERE o.createdAt >= :from AND o.createdAt < :to")
+    List<Object[]> findTotalsCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Ids of the oldest orders placed before a cutoff, used to archive them in bounded batches
+    @Query("SELECT o.id FROM OrderEntity o WHERE o.createdAt < :cutoff ORDER BY o.createdAt, o.id")
+    List<Long> findIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    // Ids of the orders placed in a time range, used to purge them in bounded batches
+    @Query("SELECT o.id FROM OrderEntity o WHERE o.createdAt >= :from AND o.createdAt < :to ORDER BY o.createdAt, o.id")
+    List<Long> findIdsCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to, Pageable pageable);
+
+    // Set-based deletes of a batch of orders and their line items
+    @Modifying
+    @Query(value = "DELETE FROM tbl_order_items WHERE order_id IN (:ids)", nativeQuery = true)
+    int deleteItemsByOrderIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM tbl_orders WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Loads the given orders together with their line items in a single fetch-join query
+    @Query("SELECT DISTINCT o FROM OrderEntity o LEFT JOIN FETCH o.items WHERE o.id IN :ids")
+    List<OrderEntity> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT o FROM OrderEntity o LEFT JOIN FETCH o.items WHERE o.orderId = :orderId")
+    Optional<OrderEntity> findWithItemsByOrderId(@Param("orderId") String orderId);
+
+    // Keyset page of the order history: rows strictly after the (createdAt, id) cursor, newest first
+    @Query("SELECT o FROM OrderEntity o " +
+            "WHERE (:from IS NULL OR o.createdAt >= :from) " +
+            "AND (:to IS NULL OR o.createdAt < :to) " +
+            "AND (:paymentMethod IS NULL OR o.paymentMethod = :paymentMethod) " +
+            "AND (:cursorCreatedAt IS NULL OR o.createdAt < :cursorCreatedAt " +
+            "     OR (o.createdAt = :cursorCreatedAt AND o.id < :cursorId)) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderEntity> findOrderHistory(@Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to,
+                                       @Param("paymentMethod") PaymentMethod paymentMethod,
+                                       @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                       @Param("cursorId") Long cursorId,
+                                       Pageable pageable);
 }
@@ -0,0 +1,20 @@
+package com.chhotu.billing_software.repository;
+
+import com.chhotu.billing_software.entity.TopItemCheckpointEntity;
+import com.chhotu.billing_software.io.TopItemsPeriod;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TopItemCheckpointRepository extends JpaRepository<TopItemCheckpointEntity, Long> {
+
+    List<TopItemCheckpointEntity> findByPeriodAndPeriodStart(TopItemsPeriod period, LocalDate periodStart);
+
+    @Modifying
+    @Query("DELETE FROM TopItemCheckpointEntity c WHERE c.period = :period AND c.nodeId = :nodeId")
+    int deleteByPeriodAndNodeId(@Param("period") TopItemsPeriod period, @Param("nodeId") long nodeId);
+}
@@ -0,0 +1,20 @@
+package com.chhotu.billing_software.service;
+
+import com.chhotu.billing_software.io.CatalogChangesResponse;
+
+import java.util.Collection;
+
+public interface CatalogChangeService {
+
+    void recordItemsSaved(Collection<String> itemIds, Collection<String> categoryIds);
+
+    void recordItemDeleted(String itemId, String categoryId);
+
+    void recordCategorySaved(String categoryId);
+
+    void recordCategoryDeleted(String categoryId);
+
+    CatalogChangesResponse getChangesSince(Long version);
+
+    int pruneChanges();
+}
@@ -0,0 +1,12 @@
+package com.chhotu.billing_software.service;
+
+import com.chhotu.billing_software.io.CatalogSnapshot;
+
+public interface CatalogService {
+
+    CatalogSnapshot getSnapshot();
+
+    long getVersion();
+
+    void refresh();
+}
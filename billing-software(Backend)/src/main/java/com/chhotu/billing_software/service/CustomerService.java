@@ -0,0 +1,21 @@
+package com.chhotu.billing_software.service;
+
+import com.chhotu.billing_software.entity.OrderEntity;
+import com.chhotu.billing_software.io.CustomerResponse;
+
+import java.util.List;
+
+public interface CustomerService {
+
+    void recordOrderCreated(OrderEntity order);
+
+    void recordOrderDeleted(OrderEntity order);
+
+    void recordOrdersPurged(List<Object[]> rows);
+
+    List<CustomerResponse> searchByPhonePrefix(String phonePrefix, int limit);
+
+    CustomerResponse getCustomer(String phoneNumber);
+
+    int rebuild();
+}
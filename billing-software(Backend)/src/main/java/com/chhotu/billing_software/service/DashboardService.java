@@ -0,0 +1,20 @@
+package com.chhotu.billing_software.service;
+
+import com.chhotu.billing_software.io.DashboardResponse;
+import com.chhotu.billing_software.io.OrderResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface DashboardService {
+
+    DashboardResponse getDashboard();
+
+    SseEmitter subscribe();
+
+    void recordOrderCreated(OrderResponse order);
+
+    void recordOrderDeleted(OrderResponse order);
+
+    void recordPaymentCompleted(OrderResponse order);
+
+    void reload();
+}
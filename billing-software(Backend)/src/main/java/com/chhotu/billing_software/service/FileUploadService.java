@@ -5,5 +5,7 @@ import org.springframework.web.multipart.MultipartFile;
 public interface FileUploadService {
     String uploadFile(MultipartFile file);
 
+    String uploadFile(String fileName, String contentType, byte[] content);
+
     boolean deleteFile(String imgUrl);
 }
@@ -0,0 +1,10 @@
+package com.chhotu.billing_software.service;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    <T> T execute(String scope, String key, Class<T> type, Supplier<T> action);
+
+    int purgeExpired();
+}
@@ -0,0 +1,11 @@
+package com.chhotu.billing_software.service;
+
+import com.chhotu.billing_software.io.ItemImportJobResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface ItemImportService {
+
+    ItemImportJobResponse startImport(MultipartFile csv, MultipartFile images);
+
+    ItemImportJobResponse getJob(String jobId);
+}
@@ -1,5 +1,6 @@
 package com.chhotu.billing_software.service;
 
+import com.chhotu.billing_software.io.ItemPageResponse;
 import com.chhotu.billing_software.io.ItemRequest;
 import com.chhotu.billing_software.io.ItemResponse;
 import org.springframework.web.multipart.MultipartFile;
@@ -11,5 +12,9 @@ public interface ItemService {
 
     List<ItemResponse> fetchItems();
 
+    ItemPageResponse fetchItemPage(String categoryId, String cursor, Integer size);
+
+    List<ItemResponse> searchItems(String query, String categoryId, int limit);
+
     void deleteItem(String itemId);
 }
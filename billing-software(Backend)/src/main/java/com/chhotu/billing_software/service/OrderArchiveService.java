@@ -0,0 +1,14 @@
+package com.chhotu.billing_software.service;
+
+import com.chhotu.billing_software.io.OrderPurgeResult;
+
+import java.time.LocalDate;
+
+public interface OrderArchiveService {
+
+    int archiveOrders();
+
+    OrderPurgeResult purgeExpiredOrders();
+
+    OrderPurgeResult purgeOrders(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,12 @@
+package com.chhotu.billing_software.service;
+
+import com.chhotu.billing_software.io.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface OrderExportService {
+
+    void exportOrders(LocalDate from, LocalDate to, ExportFormat format, boolean includeArchive, OutputStream outputStream) throws IOException;
+}
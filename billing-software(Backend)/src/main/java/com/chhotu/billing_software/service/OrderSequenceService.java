@@ -0,0 +1,6 @@
+package com.chhotu.billing_software.service;
+
+public interface OrderSequenceService {
+
+    int seedSequences();
+}
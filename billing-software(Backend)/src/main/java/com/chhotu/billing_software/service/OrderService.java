@@ -1,7 +1,10 @@
 package com.chhotu.billing_software.service;
 
+import com.chhotu.billing_software.io.OrderBatchResult;
+import com.chhotu.billing_software.io.OrderPageResponse;
 import com.chhotu.billing_software.io.OrderRequest;
 import com.chhotu.billing_software.io.OrderResponse;
+import com.chhotu.billing_software.io.PaymentMethod;
 import com.chhotu.billing_software.io.PaymentVerificationRequest;
 
 
@@ -14,15 +17,18 @@ import java.util.List;
 public interface OrderService {
     OrderResponse createOrder(OrderRequest request);
 
+    List<OrderBatchResult> createOrders(List<OrderRequest> requests, int firstIndex);
+
     void deleteOrder(String orderId);
 
-    List<OrderResponse> getLatestOrders();
+    OrderResponse getOrder(String orderId);
 
-    OrderResponse verifyPayment(PaymentVerificationRequest request);
+    List<OrderResponse> getLatestOrders();
 
-    Double sumSalesByDate(LocalDate date);
+    OrderPageResponse getOrderHistory(String cursor, Integer size, LocalDate from, LocalDate to,
+                                      PaymentMethod paymentMethod, boolean includeArchive);
 
-    Long countByOrderDate(LocalDate date);
+    OrderResponse verifyPayment(PaymentVerificationRequest request);
 
     List<OrderResponse> findRecentOrders();
 
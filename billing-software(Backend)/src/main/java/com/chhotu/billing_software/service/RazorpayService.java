@@ -5,5 +5,5 @@ import com.razorpay.RazorpayException;
 
 public interface RazorpayService {
 
-    RazorpayOrderResponse createOrder(Double amount, String currency) throws RazorpayException;
+    RazorpayOrderResponse createOrder(Long amount, String currency) throws RazorpayException;
 }
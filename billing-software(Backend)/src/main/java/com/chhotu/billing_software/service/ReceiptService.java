@@ -0,0 +1,8 @@
+package com.chhotu.billing_software.service;
+
+import com.chhotu.billing_software.io.ReceiptFormat;
+
+public interface ReceiptService {
+
+    byte[] renderReceipt(String orderId, ReceiptFormat format);
+}
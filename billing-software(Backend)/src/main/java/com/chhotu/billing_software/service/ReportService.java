@@ -0,0 +1,11 @@
+package com.chhotu.billing_software.service;
+
+import com.chhotu.billing_software.io.ReportBucket;
+import com.chhotu.billing_software.io.SalesReportResponse;
+
+import java.time.LocalDate;
+
+public interface ReportService {
+
+    SalesReportResponse getSalesReport(LocalDate from, LocalDate to, ReportBucket bucket);
+}
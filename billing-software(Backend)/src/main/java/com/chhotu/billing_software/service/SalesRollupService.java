@@ -0,0 +1,19 @@
+package com.chhotu.billing_software.service;
+
+import com.chhotu.billing_software.entity.OrderEntity;
+import com.chhotu.billing_software.io.DailySalesResponse;
+
+import java.time.LocalDate;
+
+public interface SalesRollupService {
+
+    void recordOrderCreated(OrderEntity order);
+
+    void recordOrderDeleted(OrderEntity order);
+
+    void recordPaymentCompleted(OrderEntity order);
+
+    DailySalesResponse getDailySales(LocalDate date);
+
+    int rebuild(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,20 @@
+package com.chhotu.billing_software.service;
+
+import com.chhotu.billing_software.entity.OrderEntity;
+import com.chhotu.billing_software.io.TopItemsPeriod;
+import com.chhotu.billing_software.io.TopItemsResponse;
+
+import java.time.LocalDate;
+
+public interface TopItemsService {
+
+    void recordOrderCreated(OrderEntity order);
+
+    TopItemsResponse getTopItems(TopItemsPeriod period, int limit);
+
+    TopItemsResponse getTopItems(LocalDate from, LocalDate to, int limit);
+
+    void checkpoint();
+
+    void reload(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,314 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.entity.CatalogChangeEntity;
+import com.chhotu.billing_software.entity.CategoryEntity;
+import com.chhotu.billing_software.entity.ItemEntity;
+import com.chhotu.billing_software.io.CatalogChangesResponse;
+import com.chhotu.billing_software.io.CategoryResponse;
+import com.chhotu.billing_software.io.ItemResponse;
+import com.chhotu.billing_software.repository.CatalogChangeRepository;
+import com.chhotu.billing_software.repository.CategoryRepository;
+import com.chhotu.billing_software.repository.ItemRepository;
+import com.chhotu.billing_software.service.CatalogChangeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps a log of the changes to the items and categories in tbl_catalog_changes, written by the services that make them,
+ * and answers registers asking what changed since the version they last synced. Only the latest change of each item
+ * or category counts, and its current state is read from the database, so a sync costs a couple of small queries
+ * however often the same item changed. Writers of the log are serialized from their first change to their commit,
+ * so change ids become visible in increasing order and a register never skips a change that committed late.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogChangeServiceImpl implements CatalogChangeService {
+
+    // Registers further behind than this many changes fetch the whole catalog instead
+    private static final int MAX_CHANGES = 1000;
+
+    private static final String INSERT_CHANGE = "INSERT INTO tbl_catalog_changes (type, entity_id, deleted, changed_at) VALUES (?, ?, ?, ?)";
+
+    // Serializes the writers of the log from their first change to their commit, see CatalogChangeLockEntity
+    private static final String LOCK_LOG = "UPDATE tbl_catalog_change_lock SET locked_at = ? WHERE id = 1";
+    private static final String CREATE_LOCK = "INSERT INTO tbl_catalog_change_lock (id, locked_at) VALUES (1, ?)";
+
+    // Changes older than this many days are pruned; registers that last synced before that fetch the whole catalog
+    @Value("${catalog.changes.retention-days:90}")
+    private int retentionDays;
+
+    // Inject the CatalogChangeRepository to read and prune the change log
+    private final CatalogChangeRepository catalogChangeRepository;
+
+    // Inject the item and category repositories to read the current state of what changed
+    private final ItemRepository itemRepository;
+    private final CategoryRepository categoryRepository;
+
+    // Writes the changes in one JDBC batch, in the transaction of the caller
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Records items added or updated. The categories of the items are recorded as well, their item count changed.
+     * Must run in the transaction that saved the items.
+     * @param itemIds The itemIds of the items.
+     * @param categoryIds The categoryIds of their categories.
+     */
+    @Override
+    public void recordItemsSaved(Collection<String> itemIds, Collection<String> categoryIds) {
+        List<Object[]> changes = new ArrayList<>(itemIds.size() + categoryIds.size());
+        Timestamp now = lockLog();
+        for (String itemId : itemIds) {
+            changes.add(new Object[] {CatalogChangeEntity.Type.ITEM.name(), itemId, false, now});
+        }
+        for (String categoryId : new LinkedHashSet<>(categoryIds)) {
+            changes.add(new Object[] {CatalogChangeEntity.Type.CATEGORY.name(), categoryId, false, now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, changes);
+    }
+
+    /**
+     * Records the tombstone of a deleted item, and the new item count of its category.
+     */
+    @Override
+    public void recordItemDeleted(String itemId, String categoryId) {
+        Timestamp now = lockLog();
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, List.of(
+                new Object[] {CatalogChangeEntity.Type.ITEM.name(), itemId, true, now},
+                new Object[] {CatalogChangeEntity.Type.CATEGORY.name(), categoryId, false, now}));
+    }
+
+    @Override
+    public void recordCategorySaved(String categoryId) {
+        jdbcTemplate.update(INSERT_CHANGE, CatalogChangeEntity.Type.CATEGORY.name(), categoryId, false, lockLog());
+    }
+
+    /**
+     * Records the tombstone of a deleted category.
+     */
+    @Override
+    public void recordCategoryDeleted(String categoryId) {
+        jdbcTemplate.update(INSERT_CHANGE, CatalogChangeEntity.Type.CATEGORY.name(), categoryId, true, lockLog());
+    }
+
+    /**
+     * Reads the items and categories changed since a version. A register that is up to date costs a single query.
+     * @param version The version returned by the previous sync, or null for a register that never synced.
+     * @return The current state of what was added or updated, the ids of what was deleted, and the version
+     * to sync from next time; or a request for a full sync when the changes are not available any more.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CatalogChangesResponse getChangesSince(Long version) {
+        Long latestId = catalogChangeRepository.findLatestId();
+        long latest = latestId != null ? latestId : 0L;
+        if (version != null && version == latest) {
+            return changes(version, List.of(), List.of(), List.of(), List.of());
+        }
+        // Never synced, synced against a log that was since reset, or behind the pruned changes
+        Long oldestId = catalogChangeRepository.findOldestId();
+        if (version == null || version < 0 || version > latest || (oldestId != null && version < oldestId - 1)) {
+            return fullSync(latest);
+        }
+
+        List<CatalogChangeEntity> changes = catalogChangeRepository.findByIdGreaterThanOrderByIdAsc(version, PageRequest.of(0, MAX_CHANGES + 1));
+        if (changes.size() > MAX_CHANGES) {
+            return fullSync(latest);
+        }
+
+        // Keep the latest change of each item and category. Ids commit in order, so no change below the last one read
+        // can show up later and the register can sync from it next time
+        Map<String, Boolean> itemChanges = new LinkedHashMap<>();
+        Map<String, Boolean> categoryChanges = new LinkedHashMap<>();
+        long nextVersion = version;
+        for (CatalogChangeEntity change : changes) {
+            Map<String, Boolean> latestChanges = change.getType() == CatalogChangeEntity.Type.ITEM ? itemChanges : categoryChanges;
+            latestChanges.remove(change.getEntityId());
+            latestChanges.put(change.getEntityId(), change.isDeleted());
+            nextVersion = change.getId();
+        }
+
+        List<String> deletedItemIds = new ArrayList<>();
+        List<ItemResponse> items = readItems(idsOf(itemChanges, false), deletedItemIds);
+        deletedItemIds.addAll(idsOf(itemChanges, true));
+        List<String> deletedCategoryIds = new ArrayList<>();
+        List<CategoryResponse> categories = readCategories(idsOf(categoryChanges, false), deletedCategoryIds);
+        deletedCategoryIds.addAll(idsOf(categoryChanges, true));
+
+        return changes(nextVersion, items, categories, deletedItemIds, deletedCategoryIds);
+    }
+
+    /**
+     * Prunes the changes past the retention every night (05:00 by default).
+     */
+    @Scheduled(cron = "${catalog.changes.prune-cron:0 0 5 * * *}")
+    @Transactional
+    @Override
+    public int pruneChanges() {
+        Long latestId = catalogChangeRepository.findLatestId();
+        if (latestId == null) {
+            return 0;
+        }
+        return catalogChangeRepository.deleteChangedBefore(Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays)), latestId);
+    }
+
+    /**
+     * Creates the lock row at startup, so the first writers do not race to create it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        try {
+            jdbcTemplate.update(CREATE_LOCK, new Timestamp(System.currentTimeMillis()));
+        } catch (DataIntegrityViolationException e) {
+            // Created by an earlier start or another instance
+        }
+    }
+
+    /**
+     * Locks the log row before a change id is taken; the lock is held until the caller's transaction ends.
+     * Ids are therefore taken in commit order: a writer cannot take an id while another one that took
+     * a smaller id has not committed yet. A row missing because the startup seed has not run is created
+     * in the caller's transaction, which locks it just the same.
+     * @return The time of the change.
+     */
+    private Timestamp lockLog() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        if (jdbcTemplate.update(LOCK_LOG, now) == 0) {
+            jdbcTemplate.update(CREATE_LOCK, now);
+        }
+        return now;
+    }
+
+    /**
+     * Reads the current state of items, in the order given. Items deleted in the meantime are added to the deleted ids.
+     */
+    private List<ItemResponse> readItems(List<String> itemIds, List<String> deletedItemIds) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, ItemEntity> byItemId = new HashMap<>();
+        for (ItemEntity item : itemRepository.findAllByItemIdIn(itemIds)) {
+            byItemId.put(item.getItemId(), item);
+        }
+        List<ItemResponse> items = new ArrayList<>(byItemId.size());
+        for (String itemId : itemIds) {
+            ItemEntity item = byItemId.get(itemId);
+            if (item != null) {
+                items.add(convertToResponse(item));
+            } else {
+                deletedItemIds.add(itemId);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Reads the current state of categories with their item counts, in the order given. Categories deleted in the
+     * meantime are added to the deleted ids.
+     */
+    private List<CategoryResponse> readCategories(List<String> categoryIds, List<String> deletedCategoryIds) {
+        if (categoryIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, CategoryEntity> byCategoryId = new HashMap<>();
+        for (CategoryEntity category : categoryRepository.findByCategoryIdIn(categoryIds)) {
+            byCategoryId.put(category.getCategoryId(), category);
+        }
+        Map<Long, Integer> itemCounts = new HashMap<>();
+        if (!byCategoryId.isEmpty()) {
+            Set<Long> ids = new LinkedHashSet<>();
+            byCategoryId.values().forEach(category -> ids.add(category.getId()));
+            for (Object[] row : itemRepository.countItemsByCategoryIdIn(ids)) {
+                itemCounts.put((Long) row[0], ((Number) row[1]).intValue());
+            }
+        }
+        List<CategoryResponse> categories = new ArrayList<>(byCategoryId.size());
+        for (String categoryId : categoryIds) {
+            CategoryEntity category = byCategoryId.get(categoryId);
+            if (category != null) {
+                categories.add(convertToResponse(category, itemCounts.getOrDefault(category.getId(), 0)));
+            } else {
+                deletedCategoryIds.add(categoryId);
+            }
+        }
+        return categories;
+    }
+
+    private static List<String> idsOf(Map<String, Boolean> changes, boolean deleted) {
+        List<String> ids = new ArrayList<>();
+        changes.forEach((id, isDeleted) -> {
+            if (isDeleted == deleted) {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+
+    private static CatalogChangesResponse fullSync(long version) {
+        return CatalogChangesResponse.builder()
+                .version(version)
+                .fullSync(true)
+                .items(List.of())
+                .categories(List.of())
+                .deletedItemIds(List.of())
+                .deletedCategoryIds(List.of())
+                .build();
+    }
+
+    private static CatalogChangesResponse changes(long version, List<ItemResponse> items, List<CategoryResponse> categories,
+                                                  List<String> deletedItemIds, List<String> deletedCategoryIds) {
+        return CatalogChangesResponse.builder()
+                .version(version)
+                .fullSync(false)
+                .items(items)
+                .categories(categories)
+                .deletedItemIds(deletedItemIds)
+                .deletedCategoryIds(deletedCategoryIds)
+                .build();
+    }
+
+    private ItemResponse convertToResponse(ItemEntity item) {
+        return ItemResponse.builder()
+                .itemId(item.getItemId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .price(item.getPrice())
+                .imgUrl(item.getImgUrl())
+                .categoryName(item.getCategory().getName())
+                .categoryId(item.getCategory().getCategoryId())
+                .createdAt(item.getCreatedAt())
+                .updatedAt(item.getUpdatedAt())
+                .build();
+    }
+
+    private CategoryResponse convertToResponse(CategoryEntity category, int itemsCount) {
+        return CategoryResponse.builder()
+                .categoryId(category.getCategoryId())
+                .name(category.getName())
+                .description(category.getDescription())
+                .bgColor(category.getBgColor())
+                .imgUrl(category.getImgUrl())
+                .createdAt(category.getCreatedAt())
+                .updatedAt(category.getUpdatedAt())
+                .items(itemsCount)
+                .build();
+    }
+}
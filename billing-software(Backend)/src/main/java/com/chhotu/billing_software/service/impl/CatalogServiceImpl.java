@@ -0,0 +1,115 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.entity.ItemEntity;
+import com.chhotu.billing_software.io.CatalogSnapshot;
+import com.chhotu.billing_software.io.ItemResponse;
+import com.chhotu.billing_software.repository.CatalogChangeRepository;
+import com.chhotu.billing_software.repository.ItemRepository;
+import com.chhotu.billing_software.service.CatalogService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the item catalog in memory as an immutable snapshot, so reading the catalog never touches the database.
+ * The snapshot, with its search index, is rebuilt with one join query whenever the item or category services change the catalog,
+ * and swapped in atomically: readers see either the old or the new catalog, never a mix. Its version is the latest id of
+ * the catalog change log, which every instance polls, so a change made on another instance is picked up within seconds
+ * and all instances answer with the same ETag for the same catalog.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogServiceImpl implements CatalogService {
+
+    // Inject the ItemRepository to load the catalog
+    private final ItemRepository itemRepository;
+
+    // Inject the CatalogChangeRepository to version the catalog by its latest change
+    private final CatalogChangeRepository catalogChangeRepository;
+
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>();
+
+    /**
+     * Loads the catalog at startup so the first terminal does not wait for it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        refresh();
+    }
+
+    /**
+     * @return The current catalog, loaded on first use.
+     */
+    @Override
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot current = snapshot.get();
+        if (current == null) {
+            refresh();
+            current = snapshot.get();
+        }
+        return current;
+    }
+
+    /**
+     * @return The version of the current catalog: the id of the latest change to the items or categories.
+     */
+    @Override
+    public long getVersion() {
+        return getSnapshot().version();
+    }
+
+    /**
+     * Rebuilds the snapshot when the change log has moved since it was read, which covers the changes
+     * made on other instances (every 5 seconds by default). An unchanged catalog costs one indexed MAX query.
+     */
+    @Scheduled(fixedDelayString = "${catalog.refresh-ms:5000}", initialDelayString = "${catalog.refresh-ms:5000}")
+    public void refreshIfChanged() {
+        CatalogSnapshot current = snapshot.get();
+        if (current == null || current.version() != latestChangeId()) {
+            refresh();
+        }
+    }
+
+    /**
+     * Rebuilds the snapshot from the database. Rebuilds run one at a time, so the snapshot
+     * installed last was always read after the last committed change. The version is read before the items,
+     * so a change committing in between can only leave the version behind the items, and is read again on the next poll.
+     */
+    @Override
+    public synchronized void refresh() {
+        long version = latestChangeId();
+        List<ItemEntity> entities = itemRepository.findAllWithCategory();
+        List<ItemResponse> items = new ArrayList<>(entities.size());
+        long[] ids = new long[entities.size()];
+        for (int i = 0; i < entities.size(); i++) {
+            items.add(convertToResponse(entities.get(i)));
+            ids[i] = entities.get(i).getId();
+        }
+        snapshot.set(CatalogSnapshot.of(version, items, ids));
+    }
+
+    private long latestChangeId() {
+        Long latestId = catalogChangeRepository.findLatestId();
+        return latestId != null ? latestId : 0L;
+    }
+
+    private ItemResponse convertToResponse(ItemEntity item) {
+        return ItemResponse.builder()
+                .itemId(item.getItemId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .price(item.getPrice())
+                .imgUrl(item.getImgUrl())
+                .categoryName(item.getCategory().getName())
+                .categoryId(item.getCategory().getCategoryId())
+                .createdAt(item.getCreatedAt())
+                .updatedAt(item.getUpdatedAt())
+                .build();
+    }
+}
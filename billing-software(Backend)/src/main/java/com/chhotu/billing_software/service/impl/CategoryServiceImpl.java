@@ -5,13 +5,19 @@ import com.chhotu.billing_software.io.CategoryRequest;
 import com.chhotu.billing_software.io.CategoryResponse;
 import com.chhotu.billing_software.repository.CategoryRepository;
 import com.chhotu.billing_software.repository.ItemRepository;
+import com.chhotu.billing_software.service.CatalogChangeService;
+import com.chhotu.billing_software.service.CatalogService;
 import com.chhotu.billing_software.service.CategoryService;
 import com.chhotu.billing_software.service.FileUploadService;
+import com.chhotu.billing_software.util.AfterCommit;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -24,6 +30,12 @@ public class CategoryServiceImpl implements CategoryService {
     private final FileUploadService fileUploadService;
     private final ItemRepository itemRepository;
 
+    // Rebuilt after a category change, the items carry their category name
+    private final CatalogService catalogService;
+
+    // Logs every change for the registers syncing the catalog incrementally
+    private final CatalogChangeService catalogChangeService;
+
     /**
      * Adds a new category with the provided data and file (image).
      * @param request The category details.
@@ -31,6 +43,7 @@ public class CategoryServiceImpl implements CategoryService {
      * @return CategoryResponse object with saved category details.
      */
     @Override
+    @Transactional
     public CategoryResponse add(CategoryRequest request, MultipartFile file) {
         // Upload the file and get the image URL
         String imgUrl = fileUploadService.uploadFile(file);
@@ -39,11 +52,13 @@ public class CategoryServiceImpl implements CategoryService {
         CategoryEntity newCategory = convertToEntity(request);
         newCategory.setImgUrl(imgUrl);
 
-        // Save the category to the database
+        // Save the category to the database, log the change and rebuild the catalog snapshot
         newCategory = categoryRepository.save(newCategory);
+        catalogChangeService.recordCategorySaved(newCategory.getCategoryId());
+        AfterCommit.run(catalogService::refresh);
 
-        // Convert saved entity to response and return
-        return convertToResponse(newCategory);
+        // Convert saved entity to response and return, a new category has no items yet
+        return convertToResponse(newCategory, 0);
     }
 
     /**
@@ -52,10 +67,16 @@ public class CategoryServiceImpl implements CategoryService {
      */
     @Override
     public List<CategoryResponse> read() {
+        // Count the items of every category in one grouped query instead of one query per category
+        Map<Long, Integer> itemCounts = new HashMap<>();
+        for (Object[] row : itemRepository.countItemsByCategory()) {
+            itemCounts.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+
         // Fetch all categories and map them to response objects
         return categoryRepository.findAll()
                 .stream()
-                .map(this::convertToResponse)
+                .map(category -> convertToResponse(category, itemCounts.getOrDefault(category.getId(), 0)))
                 .collect(Collectors.toList());
     }
 
@@ -64,6 +85,7 @@ public class CategoryServiceImpl implements CategoryService {
      * @param categoryId Unique category identifier
      */
     @Override
+    @Transactional
     public void delete(String categoryId) {
         // Find the category by ID or throw an exception if not found
         CategoryEntity existingCategory = categoryRepository.findByCategoryId(categoryId)
@@ -72,19 +94,19 @@ public class CategoryServiceImpl implements CategoryService {
         // Delete the associated image file
         fileUploadService.deleteFile(existingCategory.getImgUrl());
 
-        // Delete the category from the database
+        // Delete the category from the database, leave its tombstone and rebuild the catalog snapshot
         categoryRepository.delete(existingCategory);
+        catalogChangeService.recordCategoryDeleted(categoryId);
+        AfterCommit.run(catalogService::refresh);
     }
 
     /**
      * Converts a CategoryEntity to CategoryResponse, including item count.
      * @param newCategory The saved CategoryEntity
+     * @param itemsCount The number of items in the category
      * @return CategoryResponse object
      */
-    private CategoryResponse convertToResponse(CategoryEntity newCategory) {
-        // Count the items associated with the category
-        Integer itemsCount = itemRepository.countByCategoryId(newCategory.getId());
-
+    private CategoryResponse convertToResponse(CategoryEntity newCategory, int itemsCount) {
         // Build and return the response object
         return CategoryResponse.builder()
                 .categoryId(newCategory.getCategoryId())
@@ -0,0 +1,287 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.entity.CustomerEntity;
+import com.chhotu.billing_software.entity.OrderEntity;
+import com.chhotu.billing_software.io.CustomerResponse;
+import com.chhotu.billing_software.repository.ArchivedOrderRepository;
+import com.chhotu.billing_software.repository.CustomerRepository;
+import com.chhotu.billing_software.repository.OrderEntityRepository;
+import com.chhotu.billing_software.service.CustomerService;
+import com.chhotu.billing_software.util.AfterCommit;
+import com.chhotu.billing_software.util.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Keeps the purchase summary of every customer in tbl_customers, updated in the transaction that saves or deletes an order,
+ * and answers phone number autocomplete from it. Search results are cached per prefix, so the prefixes of frequent
+ * customers are served from memory while rarely typed ones are evicted first.
+ */
+@Service
+public class CustomerServiceImpl implements CustomerService {
+
+    // Shortest prefix searched; shorter ones would match a large part of the table
+    private static final int MIN_PREFIX_LENGTH = 3;
+
+    // Longest phone number stored, in digits
+    private static final int MAX_PHONE_LENGTH = 20;
+
+    // Results kept per cached prefix; smaller limits are served from the same entry
+    private static final int MAX_LIMIT = 20;
+
+    // Inject the CustomerRepository for reading and updating the customer rows
+    private final CustomerRepository customerRepository;
+
+    // Inject the order repositories to rebuild the customers from the raw orders
+    private final OrderEntityRepository orderEntityRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+
+    // Used to create a missing customer row outside of the caller's transaction
+    private final PlatformTransactionManager transactionManager;
+
+    // Search results by prefix, invalidated when a matching customer changes
+    private final TtlCache<String, List<CustomerResponse>> searches;
+
+    public CustomerServiceImpl(CustomerRepository customerRepository,
+                               OrderEntityRepository orderEntityRepository,
+                               ArchivedOrderRepository archivedOrderRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${customers.cache-size:2000}") int cacheSize,
+                               @Value("${customers.cache-ttl-ms:300000}") long cacheTtlMillis) {
+        this.customerRepository = customerRepository;
+        this.orderEntityRepository = orderEntityRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.transactionManager = transactionManager;
+        this.searches = new TtlCache<>(cacheSize, cacheTtlMillis);
+    }
+
+    /**
+     * Fills tbl_customers from the orders on a database upgraded from before it existed, so autocomplete finds the
+     * existing customers without an admin calling the rebuild. Runs after the paise backfill; once the table has
+     * a row, nothing is done.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (customerRepository.findFirstByOrderByPhoneNumber().isEmpty()) {
+            new TransactionTemplate(transactionManager).execute(status -> rebuild());
+        }
+    }
+
+    /**
+     * Adds a new order to the summary of its customer. Must run in the transaction that saved the order.
+     * Orders without a phone number are not tracked.
+     * @param order The saved order.
+     */
+    @Override
+    public void recordOrderCreated(OrderEntity order) {
+        String phoneNumber = normalize(order.getPhoneNumber());
+        if (phoneNumber == null) {
+            return;
+        }
+        String name = order.getCustomerName() != null && !order.getCustomerName().isBlank()
+                ? order.getCustomerName().trim()
+                : null;
+
+        ensureCustomerExists(phoneNumber, name, order.getCreatedAt());
+        customerRepository.increment(phoneNumber, name, 1, amount(order), order.getCreatedAt());
+        AfterCommit.run(() -> evict(phoneNumber));
+    }
+
+    /**
+     * Removes an order from the summary of its customer. Must run in the transaction that deletes the order.
+     * @param order The order being deleted.
+     */
+    @Override
+    public void recordOrderDeleted(OrderEntity order) {
+        String phoneNumber = normalize(order.getPhoneNumber());
+        if (phoneNumber == null) {
+            return;
+        }
+        customerRepository.increment(phoneNumber, null, -1, -amount(order), null);
+        AfterCommit.run(() -> evict(phoneNumber));
+    }
+
+    /**
+     * Removes a batch of purged orders from the summaries of their customers. Must run in the transaction that deletes them.
+     * Only the customers of the batch are updated, in phone number order so concurrent batches lock rows in the same order.
+     * First and last visits are kept, they record when the customer came rather than which orders remain.
+     * @param rows The orders and spend per phone number of the batch, as [phone, orders, spend].
+     */
+    @Override
+    public void recordOrdersPurged(List<Object[]> rows) {
+        // Phone numbers typed in different formats belong to the same customer
+        Map<String, long[]> byPhone = new TreeMap<>();
+        for (Object[] row : rows) {
+            String phoneNumber = normalize((String) row[0]);
+            if (phoneNumber == null) {
+                continue;
+            }
+            long[] totals = byPhone.computeIfAbsent(phoneNumber, key -> new long[2]);
+            totals[0] += ((Number) row[1]).longValue();
+            totals[1] += row[2] != null ? ((Number) row[2]).longValue() : 0L;
+        }
+        byPhone.forEach((phoneNumber, totals) ->
+                customerRepository.increment(phoneNumber, null, -totals[0], -totals[1], null));
+        Set<String> phoneNumbers = Set.copyOf(byPhone.keySet());
+        AfterCommit.run(() -> phoneNumbers.forEach(this::evict));
+    }
+
+    /**
+     * Finds the customers whose phone number starts with the given digits, most frequent first.
+     * @param phonePrefix The digits typed so far; other characters are ignored.
+     * @param limit The number of customers to return.
+     * @return The matching customers, empty while fewer than 3 digits have been typed.
+     */
+    @Override
+    public List<CustomerResponse> searchByPhonePrefix(String phonePrefix, int limit) {
+        String prefix = normalize(phonePrefix);
+        if (prefix == null || prefix.length() < MIN_PREFIX_LENGTH) {
+            return List.of();
+        }
+        List<CustomerResponse> customers = searches.get(prefix);
+        if (customers == null) {
+            customers = customerRepository.searchByPhonePrefix(prefix, PageRequest.of(0, MAX_LIMIT))
+                    .stream()
+                    .map(this::convertToResponse)
+                    .toList();
+            searches.put(prefix, customers);
+        }
+        int size = limit > 0 ? Math.min(limit, customers.size()) : customers.size();
+        return customers.subList(0, size);
+    }
+
+    /**
+     * Reads the summary of one customer.
+     * @param phoneNumber The phone number, in any format.
+     * @return The customer.
+     */
+    @Override
+    public CustomerResponse getCustomer(String phoneNumber) {
+        String normalized = normalize(phoneNumber);
+        return customerRepository.findById(normalized != null ? normalized : "")
+                .map(this::convertToResponse)
+                .orElseThrow(() -> new RuntimeException("Customer not found"));
+    }
+
+    /**
+     * Recomputes every customer from the orders and the archive.
+     * @return The number of customers.
+     */
+    @Override
+    @Transactional
+    public int rebuild() {
+        // Merge the hot and archived rows of each phone number, which may have been typed in different formats
+        Map<String, CustomerEntity> byPhone = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>(orderEntityRepository.summarizeByPhoneNumber());
+        rows.addAll(archivedOrderRepository.summarizeByPhoneNumber());
+        for (Object[] row : rows) {
+            String phoneNumber = normalize((String) row[0]);
+            if (phoneNumber == null) {
+                continue;
+            }
+            CustomerEntity summary = CustomerEntity.builder()
+                    .phoneNumber(phoneNumber)
+                    .name((String) row[1])
+                    .visitCount(((Number) row[2]).longValue())
+                    .lifetimeSpend(row[3] != null ? ((Number) row[3]).longValue() : 0L)
+                    .firstVisitAt((LocalDateTime) row[4])
+                    .lastVisitAt((LocalDateTime) row[5])
+                    .build();
+            byPhone.merge(phoneNumber, summary, this::merge);
+        }
+
+        customerRepository.deleteAllInBatch();
+        customerRepository.saveAll(byPhone.values());
+        AfterCommit.run(searches::clear);
+        return byPhone.size();
+    }
+
+    /**
+     * Creates the row of a customer if it does not exist yet. The row is committed in its own transaction,
+     * and a concurrent insert of the same customer is simply ignored. A save() would merge the seed values over
+     * a row committed after the caller's snapshot was taken, resetting its visits and spend.
+     */
+    private void ensureCustomerExists(String phoneNumber, String name, LocalDateTime visitedAt) {
+        if (customerRepository.existsById(phoneNumber)) {
+            return;
+        }
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            requiresNew.executeWithoutResult(status -> customerRepository.insertNew(phoneNumber, name, visitedAt));
+        } catch (DataIntegrityViolationException e) {
+            // Another order created the row first
+        }
+    }
+
+    // Drops the cached searches whose results may contain the customer
+    private void evict(String phoneNumber) {
+        for (int length = MIN_PREFIX_LENGTH; length <= phoneNumber.length(); length++) {
+            searches.remove(phoneNumber.substring(0, length));
+        }
+    }
+
+    private CustomerEntity merge(CustomerEntity existing, CustomerEntity added) {
+        if (added.getLastVisitAt() != null && (existing.getLastVisitAt() == null || added.getLastVisitAt().isAfter(existing.getLastVisitAt()))) {
+            existing.setLastVisitAt(added.getLastVisitAt());
+            existing.setName(added.getName() != null ? added.getName() : existing.getName());
+        }
+        if (added.getFirstVisitAt() != null && (existing.getFirstVisitAt() == null || added.getFirstVisitAt().isBefore(existing.getFirstVisitAt()))) {
+            existing.setFirstVisitAt(added.getFirstVisitAt());
+        }
+        existing.setVisitCount(existing.getVisitCount() + added.getVisitCount());
+        existing.setLifetimeSpend(existing.getLifetimeSpend() + added.getLifetimeSpend());
+        return existing;
+    }
+
+    /**
+     * @return The digits of a phone number, or null if it has none or is too long to be one.
+     */
+    private static String normalize(String phoneNumber) {
+        if (phoneNumber == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phoneNumber.length());
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        if (digits.isEmpty() || digits.length() > MAX_PHONE_LENGTH) {
+            return null;
+        }
+        return digits.toString();
+    }
+
+    private long amount(OrderEntity order) {
+        return order.getGrandTotal() != null ? order.getGrandTotal() : 0L;
+    }
+
+    private CustomerResponse convertToResponse(CustomerEntity customer) {
+        return CustomerResponse.builder()
+                .phoneNumber(customer.getPhoneNumber())
+                .name(customer.getName())
+                .visitCount(customer.getVisitCount())
+                .lifetimeSpend(customer.getLifetimeSpend())
+                .firstVisitAt(customer.getFirstVisitAt())
+                .lastVisitAt(customer.getLastVisitAt())
+                .build();
+    }
+}
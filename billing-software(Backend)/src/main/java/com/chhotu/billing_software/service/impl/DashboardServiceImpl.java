@@ -0,0 +1,445 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.io.DashboardResponse;
+import com.chhotu.billing_software.io.OrderResponse;
+import com.chhotu.billing_software.repository.OrderEntityRepository;
+import com.chhotu.billing_software.service.DashboardService;
+import com.chhotu.billing_software.service.OrderService;
+import com.chhotu.billing_software.util.AfterCommit;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps today's dashboard in memory so that polling it never touches the database.
+ * The counters are seeded from today's orders at startup and start from zero at the day rollover,
+ * and the order service updates them once each order change has been committed. Each order counts once:
+ * an order both read by the seed and reported after its commit is not counted twice.
+ * Changes are also pushed to the clients subscribed to the dashboard stream, coalesced to one push per interval.
+ * Pushes are written by a pool of their own, so a slow client never holds up the scheduler, and a client still
+ * receiving one push only gets the latest dashboard once it is done.
+ * With several instances, each one only hears of its own orders, so today's orders are also read back from the
+ * database every few seconds to pick up the orders the other instances created or deleted.
+ */
+@Service
+public class DashboardServiceImpl implements DashboardService {
+
+    // Number of orders shown in the recent orders list
+    private static final int RECENT_ORDERS = 5;
+
+    // Stream connections are closed after this long, browsers reconnect on their own
+    private static final long STREAM_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+
+    // A comment is sent when nothing changed for this long, to drop connections that have gone away
+    private static final long HEARTBEAT_MILLIS = 15_000L;
+
+    // Threads writing pushes to the subscribers
+    private static final int PUSH_THREADS = 4;
+
+    // Reads today's orders at startup and at every refresh
+    private final OrderEntityRepository orderEntityRepository;
+
+    // The order service depends on this service, so it is looked up lazily to reload the recent orders
+    private final ObjectProvider<OrderService> orderServiceProvider;
+
+    // Used to serialise each push once for all subscribers
+    private final ObjectProvider<ObjectMapper> objectMapperProvider;
+
+    private final AtomicReference<DayCounters> today = new AtomicReference<>();
+
+    private final RecentOrders recentOrders = new RecentOrders(RECENT_ORDERS);
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private final ExecutorService pushExecutor;
+
+    // Set when the dashboard changed since the last push
+    private final AtomicBoolean changed = new AtomicBoolean();
+
+    private volatile long lastPushMillis = System.currentTimeMillis();
+
+    // Decides when the day rolls over; replaced by tests
+    Clock clock = Clock.systemDefaultZone();
+
+    public DashboardServiceImpl(OrderEntityRepository orderEntityRepository, ObjectProvider<OrderService> orderServiceProvider,
+                                ObjectProvider<ObjectMapper> objectMapperProvider) {
+        this.orderEntityRepository = orderEntityRepository;
+        this.orderServiceProvider = orderServiceProvider;
+        this.objectMapperProvider = objectMapperProvider;
+        AtomicInteger pushThreads = new AtomicInteger();
+        this.pushExecutor = Executors.newFixedThreadPool(PUSH_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-push-" + pushThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pushExecutor.shutdownNow();
+    }
+
+    /**
+     * Loads today's orders and the recent orders once the application has started.
+     * Orders committed while the seed runs are counted once, whether the seed read them or not.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        load(counters());
+    }
+
+    /**
+     * Reloads today's counters and the recent orders from the database, after orders were removed without
+     * going through recordOrderDeleted (a purge). The empty counters are installed before today's orders are read,
+     * so an order committed meanwhile is either read or reported to the new counters, and counted once.
+     */
+    @Override
+    public void reload() {
+        DayCounters counters = new DayCounters(LocalDate.now(clock));
+        today.set(counters);
+        load(counters);
+    }
+
+    private void load(DayCounters counters) {
+        for (Object[] row : orderEntityRepository.findTotalsCreatedBetween(
+                counters.date.atStartOfDay(), counters.date.plusDays(1).atStartOfDay())) {
+            counters.add((String) row[0], row[1] != null ? ((Number) row[1]).longValue() : 0L);
+        }
+        recentOrders.reset(orderServiceProvider.getObject().findRecentOrders());
+    }
+
+    /**
+     * Catches up with the orders created and deleted by the other instances (every 5 seconds by default).
+     * Orders this instance already counted before the read started were committed by then, so one missing from
+     * the read was deleted; an order committed during the read is left to the next refresh.
+     */
+    @Scheduled(fixedDelayString = "${dashboard.refresh-ms:5000}", initialDelayString = "${dashboard.refresh-ms:5000}")
+    public void refresh() {
+        DayCounters counters = counters();
+        Set<String> counted = counters.counted();
+        boolean updated = false;
+        Set<String> read = new HashSet<>();
+        for (Object[] row : orderEntityRepository.findTotalsCreatedBetween(
+                counters.date.atStartOfDay(), counters.date.plusDays(1).atStartOfDay())) {
+            read.add((String) row[0]);
+            updated |= counters.add((String) row[0], row[1] != null ? ((Number) row[1]).longValue() : 0L);
+        }
+        for (String orderId : counted) {
+            if (!read.contains(orderId)) {
+                updated |= counters.remove(orderId);
+            }
+        }
+        if (updated) {
+            recentOrders.reset(orderServiceProvider.getObject().findRecentOrders());
+            changed.set(true);
+        }
+    }
+
+    /**
+     * Reads today's sales, order count and recent orders from memory.
+     * @return The dashboard data.
+     */
+    @Override
+    public DashboardResponse getDashboard() {
+        DayCounters counters = counters();
+        return new DashboardResponse(counters.sales.sum(), counters.orderCount.sum(), recentOrders.snapshot());
+    }
+
+    /**
+     * Subscribes a client to the dashboard stream. The current dashboard is sent straight away,
+     * then a new one after every change.
+     * @return The emitter of the new connection.
+     */
+    @Override
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        try {
+            emitter.send(SseEmitter.event().name("dashboard").data(getDashboard(), MediaType.APPLICATION_JSON));
+            subscribers.add(subscriber);
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * Pushes the dashboard to every subscriber if it changed since the last push, so that a burst of orders
+     * becomes a single push per interval. The event is built once and handed to the push threads.
+     */
+    @Scheduled(fixedDelayString = "${dashboard.stream.interval-ms:1000}")
+    public void publish() {
+        if (subscribers.isEmpty()) {
+            changed.set(false);
+            return;
+        }
+        // build() appends the closing line break, so each event is built exactly once
+        Set<ResponseBodyEmitter.DataWithMediaType> event;
+        boolean heartbeat = false;
+        if (changed.getAndSet(false)) {
+            try {
+                event = SseEmitter.event().name("dashboard")
+                        .data(objectMapperProvider.getObject().writeValueAsString(getDashboard()), MediaType.APPLICATION_JSON)
+                        .build();
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unable to serialise the dashboard", e);
+            }
+        } else if (System.currentTimeMillis() - lastPushMillis >= HEARTBEAT_MILLIS) {
+            event = SseEmitter.event().comment("heartbeat").build();
+            heartbeat = true;
+        } else {
+            return;
+        }
+        lastPushMillis = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event, heartbeat);
+        }
+    }
+
+    /**
+     * Counts a new order once its transaction has committed.
+     * @param order The created order.
+     */
+    @Override
+    public void recordOrderCreated(OrderResponse order) {
+        AfterCommit.run(() -> {
+            DayCounters counters = counters();
+            if (counters.isDayOf(order)) {
+                counters.add(order.getOrderId(), amount(order));
+            }
+            recentOrders.add(order);
+            changed.set(true);
+        });
+    }
+
+    /**
+     * Removes a deleted order once its transaction has committed.
+     * @param order The deleted order.
+     */
+    @Override
+    public void recordOrderDeleted(OrderResponse order) {
+        AfterCommit.run(() -> {
+            DayCounters counters = counters();
+            if (counters.isDayOf(order)) {
+                counters.remove(order.getOrderId());
+            }
+            // Reload the list so that an older order takes the place of the deleted one
+            if (recentOrders.contains(order.getOrderId())) {
+                recentOrders.reset(orderServiceProvider.getObject().findRecentOrders());
+            }
+            changed.set(true);
+        });
+    }
+
+    /**
+     * Updates the payment status of a recent order once its transaction has committed.
+     * @param order The order whose payment was verified.
+     */
+    @Override
+    public void recordPaymentCompleted(OrderResponse order) {
+        AfterCommit.run(() -> {
+            recentOrders.replace(order);
+            changed.set(true);
+        });
+    }
+
+    /**
+     * Returns the counters of the current day, starting empty ones when the day has changed. A new day has no orders
+     * before its counters exist, as every order of the day reaches them after its commit; nothing is read from the database.
+     */
+    private DayCounters counters() {
+        LocalDate date = LocalDate.now(clock);
+        DayCounters counters = today.get();
+        if (counters == null || !counters.date.equals(date)) {
+            today.compareAndSet(counters, new DayCounters(date));
+            counters = today.get();
+        }
+        return counters;
+    }
+
+    /**
+     * Writes the pending pushes of a subscriber, newest only, until there are none left.
+     */
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            Set<ResponseBodyEmitter.DataWithMediaType> event = subscriber.pending.getAndSet(null);
+            if (event == null) {
+                subscriber.draining.set(false);
+                // A push offered after the read above but before the flag was cleared is picked up here
+                if (subscriber.pending.get() == null || !subscriber.draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                subscriber.emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(subscriber);
+                return;
+            }
+        }
+    }
+
+    private long amount(OrderResponse order) {
+        return order.getGrandTotal() != null ? order.getGrandTotal() : 0L;
+    }
+
+    /**
+     * A client of the dashboard stream and the latest push not yet written to it.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicReference<Set<ResponseBodyEmitter.DataWithMediaType>> pending = new AtomicReference<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // A newer dashboard replaces one not yet written; a heartbeat never replaces a dashboard
+        private void offer(Set<ResponseBodyEmitter.DataWithMediaType> event, boolean heartbeat) {
+            if (heartbeat) {
+                pending.compareAndSet(null, event);
+            } else {
+                pending.set(event);
+            }
+            if (draining.compareAndSet(false, true)) {
+                pushExecutor.execute(() -> drain(this));
+            }
+        }
+    }
+
+    /**
+     * Striped counters of one day, with the amount of each order counted so an order reported twice counts once.
+     */
+    private static final class DayCounters {
+        // Marks a deleted order, so a late add of it is ignored
+        private static final long DELETED = Long.MIN_VALUE;
+
+        private final LocalDate date;
+        private final ConcurrentHashMap<String, Long> amounts = new ConcurrentHashMap<>();
+        private final LongAdder orderCount = new LongAdder();
+        private final LongAdder sales = new LongAdder();
+
+        private DayCounters(LocalDate date) {
+            this.date = date;
+        }
+
+        private boolean add(String orderId, long amount) {
+            if (amounts.putIfAbsent(orderId, amount) == null) {
+                orderCount.increment();
+                sales.add(amount);
+                return true;
+            }
+            return false;
+        }
+
+        private boolean remove(String orderId) {
+            Long amount = amounts.put(orderId, DELETED);
+            if (amount != null && amount != DELETED) {
+                orderCount.decrement();
+                sales.add(-amount);
+                return true;
+            }
+            return false;
+        }
+
+        // Ids of the orders currently counted
+        private Set<String> counted() {
+            Set<String> orderIds = new HashSet<>();
+            amounts.forEach((orderId, amount) -> {
+                if (amount != DELETED) {
+                    orderIds.add(orderId);
+                }
+            });
+            return orderIds;
+        }
+
+        private boolean isDayOf(OrderResponse order) {
+            return order.getCreatedAt() != null && order.getCreatedAt().toLocalDate().equals(date);
+        }
+    }
+
+    /**
+     * Bounded ring buffer of the most recent orders, newest first when read.
+     */
+    private static final class RecentOrders {
+        private final OrderResponse[] buffer;
+        private int head; // Slot of the next order
+        private int size;
+
+        private RecentOrders(int capacity) {
+            this.buffer = new OrderResponse[capacity];
+        }
+
+        private synchronized void add(OrderResponse order) {
+            buffer[head] = order;
+            head = (head + 1) % buffer.length;
+            size = Math.min(size + 1, buffer.length);
+        }
+
+        private synchronized void reset(List<OrderResponse> newestFirst) {
+            head = 0;
+            size = 0;
+            for (int i = Math.min(newestFirst.size(), buffer.length) - 1; i >= 0; i--) {
+                add(newestFirst.get(i));
+            }
+        }
+
+        private synchronized boolean contains(String orderId) {
+            return indexOf(orderId) >= 0;
+        }
+
+        private synchronized void replace(OrderResponse order) {
+            int index = indexOf(order.getOrderId());
+            if (index >= 0) {
+                buffer[index] = order;
+            }
+        }
+
+        private synchronized List<OrderResponse> snapshot() {
+            List<OrderResponse> orders = new ArrayList<>(size);
+            for (int i = 1; i <= size; i++) {
+                orders.add(buffer[(head - i + buffer.length) % buffer.length]);
+            }
+            return orders;
+        }
+
+        private int indexOf(String orderId) {
+            for (int i = 1; i <= size; i++) {
+                int index = (head - i + buffer.length) % buffer.length;
+                if (buffer[index].getOrderId().equals(orderId)) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -34,33 +34,45 @@ public class FileUploadServiceImpl implements FileUploadService {
      */
     @Override
     public String uploadFile(MultipartFile file) {
+        try {
+            return uploadFile(file.getOriginalFilename(), file.getContentType(), file.getBytes());
+        } catch (IOException e) {
+            // Handle any IOExceptions while reading the uploaded file
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "An error occurred while uploading the file");
+        }
+    }
+
+    /**
+     * Uploads file contents to Amazon S3 bucket and returns the file URL. Safe to call from several threads.
+     * @param fileName The original name of the file, used for its extension.
+     * @param contentType The content type of the file.
+     * @param content The contents of the file.
+     * @return The file's URL in the S3 bucket.
+     */
+    @Override
+    public String uploadFile(String fileName, String contentType, byte[] content) {
         // Extract the file extension
-        String fileNameExtension =  file.getOriginalFilename().substring(file.getOriginalFilename().lastIndexOf(".")+1);
+        String fileNameExtension = fileName.substring(fileName.lastIndexOf(".")+1);
 
         // Generate a unique file key (name) using UUID
         String key = UUID.randomUUID().toString() + "." + fileNameExtension;
 
-        try {
-            // Prepare the PutObjectRequest to upload the file to S3
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucketName) // Specify the S3 bucket name
-                    .key(key) // Set the unique file key
-                    .acl("public-read") // Set the file's ACL to public-read (accessible by anyone)
-                    .contentType(file.getContentType()) // Set the content type of the file
-                    .build();
+        // Prepare the PutObjectRequest to upload the file to S3
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName) // Specify the S3 bucket name
+                .key(key) // Set the unique file key
+                .acl("public-read") // Set the file's ACL to public-read (accessible by anyone)
+                .contentType(contentType) // Set the content type of the file
+                .build();
 
-            // Upload the file to S3
-            PutObjectResponse response = s3Client.putObject(putObjectRequest, RequestBody.fromBytes(file.getBytes()));
+        // Upload the file to S3
+        PutObjectResponse response = s3Client.putObject(putObjectRequest, RequestBody.fromBytes(content));
 
-            // If the upload was successful, return the file URL
-            if (response.sdkHttpResponse().isSuccessful()){
-                return "https://" + bucketName + ".s3.amazonaws.com/" + key;
-            } else {
-                // If there was an error in uploading, throw an exception
-                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "An error occurred while uploading the file");
-            }
-        } catch (IOException e) {
-            // Handle any IOExceptions during file upload
+        // If the upload was successful, return the file URL
+        if (response.sdkHttpResponse().isSuccessful()){
+            return "https://" + bucketName + ".s3.amazonaws.com/" + key;
+        } else {
+            // If there was an error in uploading, throw an exception
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "An error occurred while uploading the file");
         }
     }
@@ -0,0 +1,137 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.entity.IdempotencyKeyEntity;
+import com.chhotu.billing_software.repository.IdempotencyKeyRepository;
+import com.chhotu.billing_software.service.IdempotencyService;
+import com.chhotu.billing_software.util.AfterCommit;
+import com.chhotu.billing_software.util.TtlCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per Idempotency-Key. Responses are remembered in tbl_idempotency_keys,
+ * written in the same transaction as the work itself, and the recent ones are also kept in memory
+ * so that a retry is answered without touching the database.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    // Longest key accepted from a client; UUIDs are 36 characters
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+
+    // Used to run the guarded work and record its response in one transaction
+    private final TransactionTemplate transactionTemplate;
+
+    // Used to store the responses as JSON
+    private final ObjectMapper objectMapper;
+
+    private final Duration ttl;
+
+    private final TtlCache<String, Object> responses;
+
+    public IdempotencyServiceImpl(IdempotencyKeyRepository idempotencyKeyRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  ObjectMapper objectMapper,
+                                  @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                                  @Value("${idempotency.cache-size:10000}") int cacheSize) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.responses = new TtlCache<>(cacheSize, ttl.toMillis());
+    }
+
+    /**
+     * Runs an action once per key and returns its original response to every retry.
+     * Without a key the action simply runs. A failed action leaves no trace, so it can be retried with the same key.
+     * May run inside a caller's transaction, in which case the key is only remembered in memory once that transaction commits.
+     * @param scope The endpoint the key belongs to.
+     * @param key The Idempotency-Key sent by the client, may be null.
+     * @param type The type of the response.
+     * @param action The work to guard.
+     * @return The response of the first successful run for this key.
+     */
+    @Override
+    public <T> T execute(String scope, String key, Class<T> type, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Idempotency-Key is longer than " + MAX_KEY_LENGTH + " characters");
+        }
+        String scopedKey = scope + ":" + key;
+
+        Object cached = responses.get(scopedKey);
+        if (cached != null) {
+            return type.cast(cached);
+        }
+
+        try {
+            T response = transactionTemplate.execute(status -> {
+                // A concurrent request with the same key blocks here until this transaction ends
+                idempotencyKeyRepository.reserve(scopedKey, LocalDateTime.now());
+                T result = action.get();
+                idempotencyKeyRepository.complete(scopedKey, write(result));
+                return result;
+            });
+            AfterCommit.run(() -> responses.put(scopedKey, response));
+            return response;
+        } catch (DataIntegrityViolationException e) {
+            // The key was used before: answer with the stored response
+            String stored = idempotencyKeyRepository.findById(scopedKey)
+                    .map(IdempotencyKeyEntity::getResponse)
+                    .orElseThrow(() -> e);
+            T response = read(stored, type);
+            responses.put(scopedKey, response);
+            return response;
+        }
+    }
+
+    /**
+     * Runs the purge of expired keys every hour.
+     */
+    @Scheduled(cron = "${idempotency.purge-cron:0 0 * * * *}")
+    public void scheduledPurge() {
+        purgeExpired();
+    }
+
+    /**
+     * Deletes the keys older than the time to live.
+     * @return The number of keys deleted.
+     */
+    @Override
+    public int purgeExpired() {
+        Integer deleted = transactionTemplate.execute(status ->
+                idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl)));
+        return deleted != null ? deleted : 0;
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to store the response of an idempotent request", e);
+        }
+    }
+
+    private <T> T read(String response, Class<T> type) {
+        try {
+            return objectMapper.readValue(response, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to read the stored response of an idempotent request", e);
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.entity.CategoryEntity;
+import com.chhotu.billing_software.io.ItemImportJobResponse;
+import com.chhotu.billing_software.repository.CategoryRepository;
+import com.chhotu.billing_software.service.CatalogChangeService;
+import com.chhotu.billing_software.service.CatalogService;
+import com.chhotu.billing_software.service.FileUploadService;
+import com.chhotu.billing_software.service.ItemImportService;
+import com.chhotu.billing_software.util.CsvReader;
+import com.chhotu.billing_software.util.Money;
+import com.chhotu.billing_software.util.TtlCache;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Imports items in bulk from a CSV file, with their images from an optional zip file. The CSV is streamed a row at a time
+ * and items are inserted in JDBC batches, each in its own transaction. While one batch is inserted the images of the next
+ * one are already being uploaded by a bounded pool of threads, so the upload latency is paid once per batch rather than
+ * once per item. Imports run one at a time in the background and report their progress through the job.
+ */
+@Service
+public class ItemImportServiceImpl implements ItemImportService {
+
+    // Errors kept per job; the counts still cover every failed row
+    private static final int MAX_ERRORS = 100;
+
+    // Jobs kept for their status after they finished
+    private static final int MAX_JOBS = 100;
+    private static final long JOB_TTL_MILLIS = TimeUnit.HOURS.toMillis(24);
+
+    // Item ids are generated by the database, which rules out Hibernate insert batching for tbl_items
+    private static final String INSERT_ITEM = "INSERT INTO tbl_items (item_id, name, price_paise, description, img_url, category_id, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Inject the CategoryRepository to resolve the category of each row
+    private final CategoryRepository categoryRepository;
+
+    // Inject the FileUploadService to upload the images to S3
+    private final FileUploadService fileUploadService;
+
+    // Rebuilt once when an import ends, instead of after each item
+    private final CatalogService catalogService;
+
+    // Logs the imported items in the transaction of their batch
+    private final CatalogChangeService catalogChangeService;
+
+    // Used to insert each batch in its own transaction
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Rows inserted per batch
+    private final int batchSize;
+
+    // Runs the imports one at a time, and uploads the images of a few rows at a time
+    private final ExecutorService jobExecutor;
+    private final ExecutorService uploadExecutor;
+
+    private final TtlCache<String, ImportJob> jobs = new TtlCache<>(MAX_JOBS, JOB_TTL_MILLIS);
+
+    public ItemImportServiceImpl(CategoryRepository categoryRepository,
+                                 FileUploadService fileUploadService,
+                                 CatalogService catalogService,
+                                 CatalogChangeService catalogChangeService,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${catalog.import.batch-size:500}") int batchSize,
+                                 @Value("${catalog.import.upload-concurrency:32}") int uploadConcurrency) {
+        this.categoryRepository = categoryRepository;
+        this.fileUploadService = fileUploadService;
+        this.catalogService = catalogService;
+        this.catalogChangeService = catalogChangeService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.jobExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "item-import"));
+        AtomicInteger uploadThreads = new AtomicInteger();
+        this.uploadExecutor = Executors.newFixedThreadPool(uploadConcurrency,
+                runnable -> new Thread(runnable, "item-import-upload-" + uploadThreads.incrementAndGet()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        uploadExecutor.shutdownNow();
+    }
+
+    /**
+     * Queues the import of a CSV file with the columns name, price (in rupees), category (its id or name) and optionally
+     * description and image (the name of a file in the images zip). The files are copied aside before this returns,
+     * as the uploaded parts do not outlive the request.
+     * @param csv The CSV file, with a header row.
+     * @param images A zip file with the images named in the CSV, or null.
+     * @return The queued job.
+     */
+    @Override
+    public ItemImportJobResponse startImport(MultipartFile csv, MultipartFile images) {
+        if (csv == null || csv.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The CSV file is empty");
+        }
+        Path csvPath = null;
+        Path imagesPath = null;
+        try {
+            csvPath = Files.createTempFile("item-import-", ".csv");
+            csv.transferTo(csvPath);
+            if (images != null && !images.isEmpty()) {
+                imagesPath = Files.createTempFile("item-import-", ".zip");
+                images.transferTo(imagesPath);
+            }
+        } catch (IOException e) {
+            deleteQuietly(csvPath);
+            deleteQuietly(imagesPath);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "An error occurred while reading the import files");
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString());
+        jobs.put(job.id, job);
+        Path queuedCsv = csvPath;
+        Path queuedImages = imagesPath;
+        jobExecutor.execute(() -> {
+            try {
+                runImport(job, queuedCsv, queuedImages);
+            } finally {
+                deleteQuietly(queuedCsv);
+                deleteQuietly(queuedImages);
+            }
+        });
+        return job.toResponse();
+    }
+
+    /**
+     * Reads the progress of an import.
+     * @param jobId The id returned when the import was started.
+     * @return The job, with its counts so far.
+     */
+    @Override
+    public ItemImportJobResponse getJob(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("Import job not found: " + jobId);
+        }
+        return job.toResponse();
+    }
+
+    /**
+     * Runs an import on the calling thread. Rows that cannot be read, or whose image fails to upload, are reported
+     * and skipped; the other rows are imported.
+     */
+    void runImport(ImportJob job, Path csvPath, Path imagesPath) {
+        job.status = ItemImportJobResponse.Status.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        try (BufferedReader reader = Files.newBufferedReader(csvPath, StandardCharsets.UTF_8);
+             ZipFile zip = imagesPath != null ? new ZipFile(imagesPath.toFile()) : null) {
+            CsvReader csvReader = new CsvReader(reader);
+            Map<String, Integer> columns = readHeader(csvReader.next());
+            Map<String, CategoryEntity> categories = loadCategories();
+
+            // The batch whose images are uploading while the previous one is inserted
+            List<ImportRow> pending = null;
+            List<ImportRow> batch = new ArrayList<>(batchSize);
+            List<String> fields;
+            while ((fields = csvReader.next()) != null) {
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue; // Blank line
+                }
+                job.processedRows.incrementAndGet();
+                ImportRow row = parseRow(job, csvReader.line(), fields, columns, categories, zip);
+                if (row == null) {
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    startUploads(batch, zip);
+                    if (pending != null) {
+                        insertBatch(job, pending);
+                    }
+                    pending = batch;
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            startUploads(batch, zip);
+            if (pending != null) {
+                insertBatch(job, pending);
+            }
+            insertBatch(job, batch);
+            job.status = ItemImportJobResponse.Status.COMPLETED;
+        } catch (Exception e) {
+            job.addError("Import failed: " + e.getMessage());
+            job.status = ItemImportJobResponse.Status.FAILED;
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            if (job.importedItems.get() > 0) {
+                catalogService.refresh();
+            }
+        }
+    }
+
+    /**
+     * Maps each known column of the header row to its position. Column names are case-insensitive.
+     */
+    private Map<String, Integer> readHeader(List<String> header) {
+        if (header == null) {
+            throw new IllegalArgumentException("The CSV file has no header row");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("name", "price", "category")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("The CSV file has no " + required + " column");
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Loads every category, by category id and by lower case name, once per import.
+     */
+    private Map<String, CategoryEntity> loadCategories() {
+        Map<String, CategoryEntity> categories = new HashMap<>();
+        for (CategoryEntity category : categoryRepository.findAll()) {
+            categories.put(category.getCategoryId(), category);
+            categories.putIfAbsent(category.getName().toLowerCase(Locale.ROOT), category);
+        }
+        return categories;
+    }
+
+    /**
+     * Validates one row. Returns null, after reporting the error, if it cannot be imported.
+     */
+    private ImportRow parseRow(ImportJob job, int line, List<String> fields, Map<String, Integer> columns,
+                               Map<String, CategoryEntity> categories, ZipFile zip) {
+        String name = field(fields, columns, "name");
+        if (name == null) {
+            job.failRow(line, "name is missing");
+            return null;
+        }
+
+        String priceText = field(fields, columns, "price");
+        if (priceText == null) {
+            job.failRow(line, "price is missing");
+            return null;
+        }
+        long price;
+        try {
+            price = Money.fromRupees(new BigDecimal(priceText));
+        } catch (NumberFormatException | ArithmeticException e) {
+            job.failRow(line, "price is not an amount in rupees: " + priceText);
+            return null;
+        }
+        if (price < 0) {
+            job.failRow(line, "price is negative: " + priceText);
+            return null;
+        }
+
+        String category = field(fields, columns, "category");
+        CategoryEntity categoryEntity = category == null ? null
+                : categories.getOrDefault(category, categories.get(category.toLowerCase(Locale.ROOT)));
+        if (categoryEntity == null) {
+            job.failRow(line, "category not found: " + category);
+            return null;
+        }
+
+        String image = field(fields, columns, "image");
+        ZipEntry imageEntry = null;
+        if (image != null) {
+            imageEntry = zip != null ? zip.getEntry(image) : null;
+            if (imageEntry == null || imageEntry.isDirectory()) {
+                job.failRow(line, "image not found in the zip file: " + image);
+                return null;
+            }
+        }
+
+        return new ImportRow(line, name, price, field(fields, columns, "description"), categoryEntity, imageEntry);
+    }
+
+    // The trimmed value of a column, or null if the column is absent or blank
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Starts uploading the images of a batch in the background.
+     */
+    private void startUploads(List<ImportRow> batch, ZipFile zip) {
+        for (ImportRow row : batch) {
+            if (row.imageEntry != null) {
+                row.upload = CompletableFuture.supplyAsync(() -> uploadImage(zip, row.imageEntry), uploadExecutor);
+            }
+        }
+    }
+
+    private String uploadImage(ZipFile zip, ZipEntry entry) {
+        try (InputStream in = zip.getInputStream(entry)) {
+            String contentType = URLConnection.guessContentTypeFromName(entry.getName());
+            return fileUploadService.uploadFile(entry.getName(),
+                    contentType != null ? contentType : "application/octet-stream", in.readAllBytes());
+        } catch (IOException e) {
+            throw new IllegalStateException("could not read the image " + entry.getName(), e);
+        }
+    }
+
+    /**
+     * Waits for the images of a batch, then inserts its rows in a single JDBC batch and transaction, along with their
+     * entries in the catalog change log.
+     */
+    private void insertBatch(ImportJob job, List<ImportRow> batch) {
+        List<ImportRow> ready = new ArrayList<>(batch.size());
+        for (ImportRow row : batch) {
+            if (row.upload != null) {
+                try {
+                    row.imgUrl = row.upload.join();
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    job.failRow(row.line, "image upload failed: " + cause.getMessage());
+                    continue;
+                }
+            }
+            ready.add(row);
+        }
+        if (!ready.isEmpty()) {
+            insertRows(job, ready, Timestamp.valueOf(LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Inserts rows in one transaction. If that fails, each half is tried again on its own, down to single rows,
+     * so a few bad rows only cost a few extra round trips and only they are reported failed and lose their image.
+     */
+    private void insertRows(ImportJob job, List<ImportRow> rows, Timestamp now) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_ITEM, rows, rows.size(), (ps, row) -> {
+                    ps.setString(1, row.itemId);
+                    ps.setString(2, row.name);
+                    ps.setLong(3, row.price);
+                    ps.setString(4, row.description);
+                    ps.setString(5, row.imgUrl);
+                    ps.setLong(6, row.category.getId());
+                    ps.setTimestamp(7, now);
+                    ps.setTimestamp(8, now);
+                });
+                catalogChangeService.recordItemsSaved(
+                        rows.stream().map(row -> row.itemId).toList(),
+                        rows.stream().map(row -> row.category.getCategoryId()).toList());
+            });
+            job.importedItems.addAndGet(rows.size());
+        } catch (RuntimeException e) {
+            if (rows.size() > 1) {
+                int half = rows.size() / 2;
+                insertRows(job, rows.subList(0, half), now);
+                insertRows(job, rows.subList(half, rows.size()), now);
+                return;
+            }
+            ImportRow row = rows.get(0);
+            job.failRow(row.line, "insert failed: " + e.getMessage());
+            if (row.imgUrl != null) {
+                try {
+                    fileUploadService.deleteFile(row.imgUrl);
+                } catch (RuntimeException ignored) {
+                    // The image stays orphaned in the bucket
+                }
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path != null) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // Left to the temp directory cleanup
+            }
+        }
+    }
+
+    /**
+     * One valid row of the CSV, with the upload of its image once started.
+     */
+    private static class ImportRow {
+        private final int line;
+        private final String itemId = UUID.randomUUID().toString();
+        private final String name;
+        private final long price;
+        private final String description;
+        private final CategoryEntity category;
+        private final ZipEntry imageEntry;
+        private CompletableFuture<String> upload;
+        private String imgUrl;
+
+        ImportRow(int line, String name, long price, String description, CategoryEntity category, ZipEntry imageEntry) {
+            this.line = line;
+            this.name = name;
+            this.price = price;
+            this.description = description;
+            this.category = category;
+            this.imageEntry = imageEntry;
+        }
+    }
+
+    /**
+     * The progress of one import, updated by the import thread and read by the status requests.
+     */
+    static class ImportJob {
+        private final String id;
+        private volatile ItemImportJobResponse.Status status = ItemImportJobResponse.Status.QUEUED;
+        private final AtomicInteger processedRows = new AtomicInteger();
+        private final AtomicInteger importedItems = new AtomicInteger();
+        private final AtomicInteger failedRows = new AtomicInteger();
+        private final List<String> errors = new ArrayList<>();
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+
+        ImportJob(String id) {
+            this.id = id;
+        }
+
+        void failRow(int line, String message) {
+            failedRows.incrementAndGet();
+            addError("Line " + line + ": " + message);
+        }
+
+        synchronized void addError(String message) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(message);
+            }
+        }
+
+        synchronized ItemImportJobResponse toResponse() {
+            return ItemImportJobResponse.builder()
+                    .jobId(id)
+                    .status(status)
+                    .processedRows(processedRows.get())
+                    .importedItems(importedItems.get())
+                    .failedRows(failedRows.get())
+                    .errors(List.copyOf(errors))
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
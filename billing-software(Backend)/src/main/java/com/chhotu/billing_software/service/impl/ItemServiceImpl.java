@@ -2,27 +2,43 @@ package com.chhotu.billing_software.service.impl;
 
 import com.chhotu.billing_software.entity.CategoryEntity;
 import com.chhotu.billing_software.entity.ItemEntity;
+import com.chhotu.billing_software.io.CatalogSnapshot;
+import com.chhotu.billing_software.io.ItemPageResponse;
 import com.chhotu.billing_software.io.ItemRequest;
 import com.chhotu.billing_software.io.ItemResponse;
 import com.chhotu.billing_software.repository.CategoryRepository;
 import com.chhotu.billing_software.repository.ItemRepository;
+import com.chhotu.billing_software.service.CatalogChangeService;
+import com.chhotu.billing_software.service.CatalogService;
 import com.chhotu.billing_software.service.FileUploadService;
 import com.chhotu.billing_software.service.ItemService;
+import com.chhotu.billing_software.util.AfterCommit;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
 
+    // Page size limits for the item listing
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    // Number of search results returned by default and at most
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 100;
+
     // Inject the FileUploadService for handling file uploads (e.g., images)
     private final FileUploadService fileUploadService;
 
@@ -32,6 +48,12 @@ public class ItemServiceImpl implements ItemService {
     // Inject the ItemRepository for interacting with Item entities
     private final ItemRepository itemRepository;
 
+    // Serves the catalog from memory, refreshed after every change
+    private final CatalogService catalogService;
+
+    // Logs every change for the registers syncing the catalog incrementally
+    private final CatalogChangeService catalogChangeService;
+
     /**
      * Adds a new item to the system. The item is associated with a category and a file (image) is uploaded.
      * @param request The item details from the user.
@@ -39,6 +61,7 @@ public class ItemServiceImpl implements ItemService {
      * @return The response object containing the item details.
      */
     @Override
+    @Transactional
     public ItemResponse add(ItemRequest request, MultipartFile file) {
         // Upload the file and get the file's URL
         String imgUrl = fileUploadService.uploadFile(file);
@@ -54,8 +77,10 @@ public class ItemServiceImpl implements ItemService {
         newItem.setCategory(existingCategory);
         newItem.setImgUrl(imgUrl);
 
-        // Save the new item to the database
+        // Save the new item to the database, log the change and rebuild the catalog snapshot
         newItem = itemRepository.save(newItem);
+        catalogChangeService.recordItemsSaved(List.of(newItem.getItemId()), List.of(existingCategory.getCategoryId()));
+        AfterCommit.run(catalogService::refresh);
 
         // Convert the saved item to a response object and return it
         return convertToResponse(newItem);
@@ -95,16 +120,73 @@ public class ItemServiceImpl implements ItemService {
     }
 
     /**
-     * Fetches all items from the database.
+     * Fetches all items from the in-memory catalog snapshot, without touching the database.
      * @return A list of ItemResponse objects representing all items.
      */
     @Override
     public List<ItemResponse> fetchItems() {
-        // Fetch all items from the repository, convert each item to a response, and return the list
-        return itemRepository.findAll()
-                .stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return catalogService.getSnapshot().items();
+    }
+
+    /**
+     * Fetches one page of the items, optionally of a single category, from the catalog snapshot.
+     * Pages follow the database id of the items, so an item added or deleted between two requests
+     * neither repeats nor skips the others.
+     * @param categoryId Only return items of this category, or null for all.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size The number of items per page.
+     * @return The page of items along with the cursor for the next page.
+     */
+    @Override
+    public ItemPageResponse fetchItemPage(String categoryId, String cursor, Integer size) {
+        int pageSize = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+
+        // Decode the cursor into the id of the last item on the previous page
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                afterId = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + cursor);
+            }
+        }
+
+        CatalogSnapshot snapshot = catalogService.getSnapshot();
+        int[] positions = snapshot.page(categoryId, afterId, pageSize);
+        boolean hasMore = positions.length > pageSize;
+        int count = Math.min(positions.length, pageSize);
+
+        List<ItemResponse> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(snapshot.items().get(positions[i]));
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            long lastId = snapshot.ids()[positions[count - 1]];
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.UTF_8));
+        }
+
+        return ItemPageResponse.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Searches the items by name, category name and description in the index of the catalog snapshot.
+     * Tokens match as prefixes, and longer ones also with a typo or two.
+     * @param query The text typed by the user.
+     * @param categoryId Only return items of this category, or null for all.
+     * @param limit The number of items to return.
+     * @return The best matching items first.
+     */
+    @Override
+    public List<ItemResponse> searchItems(String query, String categoryId, int limit) {
+        int size = limit > 0 ? Math.min(limit, MAX_SEARCH_LIMIT) : DEFAULT_SEARCH_LIMIT;
+        return catalogService.getSnapshot().searchIndex().search(query, categoryId, size);
     }
 
     /**
@@ -112,17 +194,20 @@ public class ItemServiceImpl implements ItemService {
      * @param itemId The ID of the item to be deleted.
      */
     @Override
+    @Transactional
     public void deleteItem(String itemId) {
         // Find the item by its ID
         ItemEntity existingItem = itemRepository.findByItemId(itemId)
                 .orElseThrow(() -> new RuntimeException("Item not found: " + itemId));
 
-        // Delete the file associated with the item (e.g., image) from S3
-        boolean isFileDelete = fileUploadService.deleteFile(existingItem.getImgUrl());
+        // Delete the file associated with the item (e.g., image) from S3; imported items may have none
+        boolean isFileDelete = existingItem.getImgUrl() == null || fileUploadService.deleteFile(existingItem.getImgUrl());
 
         // If the file was successfully deleted, delete the item from the database
         if (isFileDelete) {
             itemRepository.delete(existingItem);
+            catalogChangeService.recordItemDeleted(itemId, existingItem.getCategory().getCategoryId());
+            AfterCommit.run(catalogService::refresh);
         } else {
             // If the file couldn't be deleted, throw an exception
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Unable to delete the image");
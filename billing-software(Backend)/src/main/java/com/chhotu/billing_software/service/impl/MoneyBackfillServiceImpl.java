@@ -0,0 +1,126 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.service.MoneyBackfillService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Fills the *_paise columns of rows written before amounts moved from rupee decimals to paise. On a database created
+ * with paise the rupee columns do not exist and nothing runs; on an upgraded one only the rows whose paise column is
+ * still empty are converted, so running it again at every start is harmless.
+ */
+@Service
+@RequiredArgsConstructor
+public class MoneyBackfillServiceImpl implements MoneyBackfillService {
+
+    // Rows converted per statement, keeps each auto-committed update short
+    private static final int BATCH_SIZE = 10_000;
+
+    // Keyed by sales_date rather than a numeric id; one row per day, small enough to convert in one statement
+    private static final String DAILY_SALES = "tbl_daily_sales";
+
+    // Rupee columns and the paise columns that replaced them, per table
+    private static final Map<String, List<String[]>> COLUMNS = new LinkedHashMap<>();
+
+    static {
+        COLUMNS.put("tbl_items", List.<String[]>of(new String[] {"price", "price_paise"}));
+        COLUMNS.put("tbl_orders", orderColumns());
+        COLUMNS.put("tbl_orders_archive", orderColumns());
+        COLUMNS.put("tbl_order_items", List.<String[]>of(new String[] {"price", "price_paise"}));
+        COLUMNS.put("tbl_order_items_archive", List.<String[]>of(new String[] {"price", "price_paise"}));
+        COLUMNS.put(DAILY_SALES, List.of(
+                new String[] {"total_sales", "total_sales_paise"},
+                new String[] {"total_tax", "total_tax_paise"},
+                new String[] {"cash_sales", "cash_sales_paise"},
+                new String[] {"upi_sales", "upi_sales_paise"}));
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Converts the old rows once the schema is up to date, before the dashboard and reports read them at startup.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void seed() {
+        backfillPaise();
+    }
+
+    /**
+     * Copies every rupee amount that has no paise value yet into its paise column, rounded to the paisa.
+     * @return The number of rows converted.
+     */
+    @Override
+    public int backfillPaise() {
+        int converted = 0;
+        for (Map.Entry<String, List<String[]>> table : COLUMNS.entrySet()) {
+            List<String[]> columns = new ArrayList<>();
+            for (String[] column : table.getValue()) {
+                if (columnExists(table.getKey(), column[0])) {
+                    columns.add(column);
+                }
+            }
+            if (!columns.isEmpty()) {
+                converted += backfill(table.getKey(), columns);
+            }
+        }
+        return converted;
+    }
+
+    /**
+     * Converts one table, in ranges of ids for the tables that have one.
+     */
+    private int backfill(String table, List<String[]> columns) {
+        String set = columns.stream()
+                .map(column -> column[1] + " = COALESCE(" + column[1] + ", ROUND(" + column[0] + " * 100))")
+                .collect(Collectors.joining(", "));
+        String missing = columns.stream()
+                .map(column -> "(" + column[1] + " IS NULL AND " + column[0] + " IS NOT NULL)")
+                .collect(Collectors.joining(" OR "));
+        String update = "UPDATE " + table + " SET " + set + " WHERE (" + missing + ")";
+
+        if (DAILY_SALES.equals(table)) {
+            return jdbcTemplate.update(update);
+        }
+        Long minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM " + table, Long.class);
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (minId == null || maxId == null) {
+            return 0;
+        }
+        int converted = 0;
+        for (long from = minId; from <= maxId; from += BATCH_SIZE) {
+            converted += jdbcTemplate.update(update + " AND id >= ? AND id < ?", from, from + BATCH_SIZE);
+        }
+        return converted;
+    }
+
+    private boolean columnExists(String table, String column) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            boolean upperCase = metaData.storesUpperCaseIdentifiers();
+            try (ResultSet columns = metaData.getColumns(connection.getCatalog(), connection.getSchema(),
+                    upperCase ? table.toUpperCase() : table,
+                    upperCase ? column.toUpperCase() : column)) {
+                return columns.next();
+            }
+        }));
+    }
+
+    private static List<String[]> orderColumns() {
+        return List.of(
+                new String[] {"subtotal", "subtotal_paise"},
+                new String[] {"tax", "tax_paise"},
+                new String[] {"grand_total", "grand_total_paise"});
+    }
+}
@@ -0,0 +1,202 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.io.OrderPurgeResult;
+import com.chhotu.billing_software.repository.ArchivedOrderRepository;
+import com.chhotu.billing_software.repository.OrderEntityRepository;
+import com.chhotu.billing_software.service.CustomerService;
+import com.chhotu.billing_software.service.DashboardService;
+import com.chhotu.billing_software.service.OrderArchiveService;
+import com.chhotu.billing_software.service.SalesRollupService;
+import com.chhotu.billing_software.service.TopItemsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+@Service
+@RequiredArgsConstructor
+public class OrderArchiveServiceImpl implements OrderArchiveService {
+
+    // Orders older than this many days are moved to the archive tables
+    @Value("${order.archive.after-days:90}")
+    private int archiveAfterDays;
+
+    // Orders moved or purged per transaction, keeps lock hold times short
+    @Value("${order.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${order.archive.enabled:true}")
+    private boolean enabled;
+
+    // Orders older than this many days are deleted for good, from the hot and the archive tables
+    @Value("${order.purge.after-days:2920}")
+    private int purgeAfterDays;
+
+    @Value("${order.purge.enabled:false}")
+    private boolean purgeEnabled;
+
+    private final OrderEntityRepository orderEntityRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+
+    // Used to bring the daily rollup, the customer summaries, the dashboard and the best sellers back in step after a purge of recent orders
+    private final SalesRollupService salesRollupService;
+    private final CustomerService customerService;
+    private final DashboardService dashboardService;
+    private final TopItemsService topItemsService;
+
+    // Used to move each batch in its own transaction
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Runs the archival every night (03:30 by default).
+     */
+    @Scheduled(cron = "${order.archive.cron:0 30 3 * * *}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archiveOrders();
+        }
+    }
+
+    /**
+     * Runs the retention purge every night (04:30 by default), after the archival.
+     */
+    @Scheduled(cron = "${order.purge.cron:0 30 4 * * *}")
+    public void scheduledPurge() {
+        if (purgeEnabled) {
+            purgeExpiredOrders();
+        }
+    }
+
+    /**
+     * Moves the orders older than the configured age, with their line items, into the archive tables.
+     * Each batch is copied and deleted in its own short transaction, oldest orders first.
+     * @return The number of orders archived.
+     */
+    @Override
+    public int archiveOrders() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(archiveAfterDays);
+        int archived = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> {
+                List<Long> ids = orderEntityRepository.findIdsCreatedBefore(cutoff, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                archivedOrderRepository.copyOrders(ids);
+                archivedOrderRepository.copyOrderItems(ids);
+                orderEntityRepository.deleteItemsByOrderIdIn(ids);
+                orderEntityRepository.deleteByIdIn(ids);
+                return ids.size();
+            });
+            if (moved == null || moved == 0) {
+                return archived;
+            }
+            archived += moved;
+        }
+    }
+
+    /**
+     * Deletes the orders older than the retention period, with their line items, from the hot and the archive tables.
+     * The daily rollup keeps the totals of the purged days.
+     * @return The number of orders deleted from each table.
+     */
+    @Override
+    public OrderPurgeResult purgeExpiredOrders() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(purgeAfterDays);
+        return OrderPurgeResult.builder()
+                .ordersPurged(deleteInBatches(
+                        page -> orderEntityRepository.findIdsCreatedBefore(cutoff, page),
+                        this::deleteOrders))
+                .archivedOrdersPurged(deleteInBatches(
+                        page -> archivedOrderRepository.findIdsCreatedBefore(cutoff, page),
+                        this::deleteArchivedOrders))
+                .build();
+    }
+
+    /**
+     * Deletes every order placed in a date range, such as test data, from the hot and the archive tables.
+     * Each batch also takes its orders off the summaries of their customers, in the same transaction; the daily rollup
+     * of those days is then recomputed, and the in-memory dashboard and best sellers are reloaded.
+     * @param from The first day to purge.
+     * @param to The last day to purge (inclusive).
+     * @return The number of orders deleted from each table.
+     */
+    @Override
+    public OrderPurgeResult purgeOrders(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A valid from and to date are required");
+        }
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+
+        OrderPurgeResult result = OrderPurgeResult.builder()
+                .ordersPurged(deleteInBatches(
+                        page -> orderEntityRepository.findIdsCreatedBetween(start, end, page),
+                        ids -> {
+                            customerService.recordOrdersPurged(orderEntityRepository.summarizeByPhoneNumberOfIds(ids));
+                            deleteOrders(ids);
+                        }))
+                .archivedOrdersPurged(deleteInBatches(
+                        page -> archivedOrderRepository.findIdsCreatedBetween(start, end, page),
+                        ids -> {
+                            customerService.recordOrdersPurged(archivedOrderRepository.summarizeByPhoneNumberOfIds(ids));
+                            deleteArchivedOrders(ids);
+                        }))
+                .build();
+
+        if (result.getOrdersPurged() + result.getArchivedOrdersPurged() > 0) {
+            salesRollupService.rebuild(from, to);
+        }
+        if (result.getOrdersPurged() > 0) {
+            // Only the hot table holds today's and the recent orders
+            dashboardService.reload();
+            topItemsService.reload(from, to);
+        }
+        return result;
+    }
+
+    /**
+     * Deletes orders one bounded batch per transaction, so locks are only held for the few
+     * milliseconds a batch takes and orders being billed never wait behind the purge.
+     * @param findIds Finds the ids of the next batch.
+     * @param delete Deletes the line items and the orders of a batch with set-based statements.
+     * @return The number of orders deleted.
+     */
+    private int deleteInBatches(Function<Pageable, List<Long>> findIds, Consumer<List<Long>> delete) {
+        int deleted = 0;
+        while (true) {
+            Integer batch = transactionTemplate.execute(status -> {
+                List<Long> ids = findIds.apply(PageRequest.of(0, batchSize));
+                if (!ids.isEmpty()) {
+                    delete.accept(ids);
+                }
+                return ids.size();
+            });
+            if (batch == null || batch == 0) {
+                return deleted;
+            }
+            deleted += batch;
+        }
+    }
+
+    private void deleteOrders(List<Long> ids) {
+        orderEntityRepository.deleteItemsByOrderIdIn(ids);
+        orderEntityRepository.deleteByIdIn(ids);
+    }
+
+    private void deleteArchivedOrders(List<Long> ids) {
+        archivedOrderRepository.deleteItemsByOrderIdIn(ids);
+        archivedOrderRepository.deleteByIdIn(ids);
+    }
+}
@@ -0,0 +1,164 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.io.ExportFormat;
+import com.chhotu.billing_software.io.OrderResponse;
+import com.chhotu.billing_software.io.PaymentDetails;
+import com.chhotu.billing_software.io.PaymentMethod;
+import com.chhotu.billing_software.repository.ArchivedOrderRepository;
+import com.chhotu.billing_software.repository.OrderEntityRepository;
+import com.chhotu.billing_software.service.OrderExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class OrderExportServiceImpl implements OrderExportService {
+
+    // Rows written between two flushes to the client
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    private static final String CSV_HEADER = "orderId,createdAt,customerName,phoneNumber,paymentMethod,paymentStatus," +
+            "subtotalPaise,taxPaise,grandTotalPaise,itemId,itemName,pricePaise,quantity";
+
+    // Inject the OrderEntityRepository to stream orders from the database
+    private final OrderEntityRepository orderEntityRepository;
+
+    // Inject the ArchivedOrderRepository to include archived orders when asked for
+    private final ArchivedOrderRepository archivedOrderRepository;
+
+    // Used to write NDJSON lines
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Streams the orders of a date range and their line items to the output, reading them through
+     * a forward-only cursor so memory use stays constant whatever the number of orders.
+     * @param from The first day to export (inclusive), or null to start from the first order.
+     * @param to The last day to export (inclusive), or null to export up to now.
+     * @param format CSV (one line per line item) or NDJSON (one JSON order per line).
+     * @param includeArchive Whether to export the archived orders too (they come first, being the oldest).
+     * @param outputStream The response body to write to.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOrders(LocalDate from, LocalDate to, ExportFormat format, boolean includeArchive,
+                             OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        LocalDateTime fromTime = from != null ? from.atStartOfDay() : null;
+        LocalDateTime toTime = to != null ? to.plusDays(1).atStartOfDay() : null;
+
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        // Read the archive and the recent orders one after the other, never holding two cursors open
+        if (includeArchive) {
+            try (Stream<Object[]> rows = archivedOrderRepository.streamOrderRows(fromTime, toTime)) {
+                writeRows(rows.iterator(), format, writer);
+            }
+        }
+        try (Stream<Object[]> rows = orderEntityRepository.streamOrderRows(fromTime, toTime)) {
+            writeRows(rows.iterator(), format, writer);
+        }
+        writer.flush();
+    }
+
+    private void writeRows(Iterator<Object[]> rows, ExportFormat format, Writer writer) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            writeNdjson(rows, writer);
+        } else {
+            writeCsv(rows, writer);
+        }
+    }
+
+    private void writeCsv(Iterator<Object[]> rows, Writer writer) throws IOException {
+        int written = 0;
+        while (rows.hasNext()) {
+            Object[] row = rows.next();
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csvField(row[i]));
+            }
+            writer.write('\n');
+            if (++written % FLUSH_EVERY_ROWS == 0) {
+                writer.flush();
+            }
+        }
+    }
+
+    /**
+     * Rows arrive ordered by order, so the line items of an order are collected until the next order starts.
+     */
+    private void writeNdjson(Iterator<Object[]> rows, Writer writer) throws IOException {
+        OrderResponse current = null;
+        int written = 0;
+        while (rows.hasNext()) {
+            Object[] row = rows.next();
+            if (current == null || !current.getOrderId().equals(row[0])) {
+                if (current != null) {
+                    writeNdjsonLine(current, writer);
+                    if (++written % FLUSH_EVERY_ROWS == 0) {
+                        writer.flush();
+                    }
+                }
+                current = OrderResponse.builder()
+                        .orderId((String) row[0])
+                        .createdAt((LocalDateTime) row[1])
+                        .customerName((String) row[2])
+                        .phoneNumber((String) row[3])
+                        .paymentMethod((PaymentMethod) row[4])
+                        .paymentDetails(PaymentDetails.builder().status((PaymentDetails.PaymentStatus) row[5]).build())
+                        .subtotal((Long) row[6])
+                        .tax((Long) row[7])
+                        .grandTotal((Long) row[8])
+                        .items(new ArrayList<>())
+                        .build();
+            }
+            if (row[9] != null) {
+                current.getItems().add(OrderResponse.OrderItemResponse.builder()
+                        .itemId((String) row[9])
+                        .name((String) row[10])
+                        .price((Long) row[11])
+                        .quantity((Integer) row[12])
+                        .build());
+            }
+        }
+        if (current != null) {
+            writeNdjsonLine(current, writer);
+        }
+    }
+
+    private void writeNdjsonLine(OrderResponse order, Writer writer) throws IOException {
+        writer.write(objectMapper.writeValueAsString(order));
+        writer.write('\n');
+    }
+
+    /**
+     * Formats a value as a CSV field, quoting it when it contains a separator, a quote or a line break.
+     */
+    private String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,82 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.service.OrderSequenceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves the order id sequences past the ids already in use. Orders used IDENTITY ids before they moved to pooled
+ * sequences, and on MySQL Hibernate creates each sequence as a one-row table starting at 1, so on an upgraded database
+ * the first new orders would reuse existing ids. Only the table form is seeded: a database with native sequences got
+ * them with its tables. A sequence already past the ids is left alone, so running it at every start is harmless.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderSequenceServiceImpl implements OrderSequenceService {
+
+    // allocationSize of the @SequenceGenerator of OrderEntity and OrderItemEntity
+    private static final int ALLOCATION_SIZE = 50;
+
+    // Sequence tables and the tables whose ids they hand out; archived rows keep their ids
+    private static final Map<String, List<String>> SEQUENCES = new LinkedHashMap<>();
+
+    static {
+        SEQUENCES.put("tbl_orders_seq", List.of("tbl_orders", "tbl_orders_archive"));
+        SEQUENCES.put("tbl_order_items_seq", List.of("tbl_order_items", "tbl_order_items_archive"));
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Seeds the sequences once the schema is up to date, before any order is created.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void seed() {
+        seedSequences();
+    }
+
+    /**
+     * Raises next_val of every sequence table that is not yet past the largest id of its tables, with room for a
+     * whole pooled block below it.
+     * @return The number of sequences moved.
+     */
+    @Override
+    public int seedSequences() {
+        int moved = 0;
+        for (Map.Entry<String, List<String>> sequence : SEQUENCES.entrySet()) {
+            if (!tableExists(sequence.getKey())) {
+                continue;
+            }
+            long maxId = 0;
+            for (String table : sequence.getValue()) {
+                if (tableExists(table)) {
+                    Long tableMax = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+                    maxId = Math.max(maxId, tableMax == null ? 0 : tableMax);
+                }
+            }
+            long nextVal = maxId + ALLOCATION_SIZE + 1;
+            moved += jdbcTemplate.update("UPDATE " + sequence.getKey() + " SET next_val = ? WHERE next_val < ?", nextVal, nextVal);
+        }
+        return moved;
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet tables = metaData.getTables(connection.getCatalog(), connection.getSchema(),
+                    metaData.storesUpperCaseIdentifiers() ? table.toUpperCase() : table, new String[] {"TABLE"})) {
+                return tables.next();
+            }
+        }));
+    }
+}
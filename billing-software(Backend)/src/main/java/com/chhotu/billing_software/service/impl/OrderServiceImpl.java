@@ -1,33 +1,202 @@
 package com.chhotu.billing_software.service.impl;
 
+import com.chhotu.billing_software.entity.ArchivedOrderEntity;
+import com.chhotu.billing_software.entity.ArchivedOrderItemEntity;
+import com.chhotu.billing_software.entity.ItemEntity;
 import com.chhotu.billing_software.entity.OrderEntity;
 import com.chhotu.billing_software.entity.OrderItemEntity;
 import com.chhotu.billing_software.io.*;
+import com.chhotu.billing_software.repository.ArchivedOrderRepository;
+import com.chhotu.billing_software.repository.ItemRepository;
 import com.chhotu.billing_software.repository.OrderEntityRepository;
+import com.chhotu.billing_software.service.CustomerService;
+import com.chhotu.billing_software.service.DashboardService;
+import com.chhotu.billing_software.service.IdempotencyService;
 import com.chhotu.billing_software.service.OrderService;
+import com.chhotu.billing_software.service.SalesRollupService;
+import com.chhotu.billing_software.service.TopItemsService;
+import com.chhotu.billing_software.util.Money;
+import com.chhotu.billing_software.util.OrderIdGenerator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+    // Page size limits for the order history
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 20;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+    // Tax applied on the subtotal in basis points (1%), and the largest difference in paise tolerated between client and server totals
+    private static final long TAX_RATE_BASIS_POINTS = 100;
+    private static final long TOTAL_TOLERANCE_PAISE = 1;
+
     // Inject the OrderEntityRepository for interacting with Order entities in the database
     private final OrderEntityRepository orderEntityRepository;
 
+    // Inject the ArchivedOrderRepository to read archived orders when asked for
+    private final ArchivedOrderRepository archivedOrderRepository;
+
+    // Inject the ItemRepository to price carts from the catalog
+    private final ItemRepository itemRepository;
+
+    // Generates collision-free order IDs
+    private final OrderIdGenerator orderIdGenerator;
+
+    // Keeps the daily sales rollup in step with the orders
+    private final SalesRollupService salesRollupService;
+
+    // Keeps the in-memory dashboard in step with the orders
+    private final DashboardService dashboardService;
+
+    // Keeps the best sellers sketches in step with the orders
+    private final TopItemsService topItemsService;
+
+    // Keeps the customer summaries in step with the orders
+    private final CustomerService customerService;
+
+    // Used to persist bulk uploads in one transaction per chunk
+    private final TransactionTemplate transactionTemplate;
+
+    // Creates an uploaded order once per client order key
+    private final IdempotencyService idempotencyService;
+
     /**
      * Creates a new order in the system, including order items and payment details.
      * @param request The order request containing customer information, items, and payment method.
      * @return The response containing the created order details.
      */
     @Override
+    @Transactional
     public OrderResponse createOrder(OrderRequest request) {
+        OrderEntity newOrder = buildOrderEntity(request);
+
+        // Save the order in the repository, add it to the daily rollup and return it as a response
+        return saveNewOrder(newOrder);
+    }
+
+    /**
+     * Creates a chunk of orders uploaded by a register in a single transaction.
+     * If the chunk cannot be saved as a whole, each order is retried in its own transaction
+     * so that one bad order does not reject the others. An order whose client order key was already uploaded,
+     * or sent as the Idempotency-Key of a single order, is not created again: its result carries the original order id.
+     * @param requests The orders of the chunk.
+     * @param firstIndex The position of the first order of the chunk in the whole upload.
+     * @return One result per order, in the same order as the requests.
+     */
+    @Override
+    public List<OrderBatchResult> createOrders(List<OrderRequest> requests, int firstIndex) {
+        OrderBatchResult[] results = new OrderBatchResult[requests.size()];
+
+        // Build the entities first; orders that cannot even be converted fail on their own
+        List<OrderEntity> newOrders = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                newOrders.add(buildOrderEntity(requests.get(i)));
+                positions.add(i);
+            } catch (RuntimeException e) {
+                results[i] = failedResult(firstIndex + i, e);
+            }
+        }
+
+        try {
+            List<OrderResponse> saved = transactionTemplate.execute(status -> {
+                List<OrderResponse> responses = new ArrayList<>(newOrders.size());
+                for (int i = 0; i < newOrders.size(); i++) {
+                    responses.add(saveUploadedOrder(requests.get(positions.get(i)), newOrders.get(i)));
+                }
+                return responses;
+            });
+            for (int i = 0; i < saved.size(); i++) {
+                results[positions.get(i)] = createdResult(firstIndex + positions.get(i), saved.get(i));
+            }
+        } catch (RuntimeException chunkFailure) {
+            // Retry one order per transaction, rebuilding the entities since the failed attempt assigned ids to them
+            for (int position : positions) {
+                try {
+                    OrderEntity newOrder = buildOrderEntity(requests.get(position));
+                    OrderResponse saved = saveUploadedOrder(requests.get(position), newOrder);
+                    results[position] = createdResult(firstIndex + position, saved);
+                } catch (RuntimeException e) {
+                    results[position] = failedResult(firstIndex + position, e);
+                }
+            }
+        }
+
+        return List.of(results);
+    }
+
+    /**
+     * Saves a new order and records it in the daily sales rollup and the customer summary, in the caller's transaction,
+     * and in the dashboard and best sellers once that transaction commits.
+     * @param newOrder The order to save.
+     * @return The saved order as a response.
+     */
+    private OrderResponse saveNewOrder(OrderEntity newOrder) {
+        orderEntityRepository.save(newOrder);
+        salesRollupService.recordOrderCreated(newOrder);
+        customerService.recordOrderCreated(newOrder);
+        OrderResponse response = convertToResponse(newOrder);
+        dashboardService.recordOrderCreated(response);
+        topItemsService.recordOrderCreated(newOrder);
+        return response;
+    }
+
+    /**
+     * Saves an uploaded order unless its client order key was used before, in which case the original order is returned.
+     * Joins the chunk transaction when there is one; a repeated key then fails the chunk, which is retried one order
+     * per transaction.
+     */
+    private OrderResponse saveUploadedOrder(OrderRequest request, OrderEntity newOrder) {
+        // Same scope as the Idempotency-Key of POST /orders, so a bill sent both ways is created once
+        return idempotencyService.execute("orders", request.getClientOrderKey(), OrderResponse.class,
+                () -> transactionTemplate.execute(status -> saveNewOrder(newOrder)));
+    }
+
+    private OrderBatchResult createdResult(int index, OrderResponse order) {
+        return OrderBatchResult.builder()
+                .index(index)
+                .orderId(order.getOrderId())
+                .status(OrderBatchResult.Status.CREATED)
+                .build();
+    }
+
+    private OrderBatchResult failedResult(int index, RuntimeException e) {
+        return OrderBatchResult.builder()
+                .index(index)
+                .status(OrderBatchResult.Status.FAILED)
+                .error(e.getMessage())
+                .build();
+    }
+
+    /**
+     * Builds a new OrderEntity, with its payment details and line items, from an order request.
+     * @param request The order request.
+     * @return The OrderEntity ready to be saved.
+     */
+    private OrderEntity buildOrderEntity(OrderRequest request) {
+        if (request.getCartItems() == null || request.getCartItems().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The cart is empty");
+        }
+
         // Convert the request to an OrderEntity
         OrderEntity newOrder = convertToOrderEntity(request);
 
@@ -37,30 +206,82 @@ public class OrderServiceImpl implements OrderService {
                 PaymentDetails.PaymentStatus.COMPLETED : PaymentDetails.PaymentStatus.PENDING);
         newOrder.setPaymentDetails(paymentDetails);
 
-        // Convert cart items from the request to OrderItemEntity and associate them with the order
-        List<OrderItemEntity> orderItems = request.getCartItems().stream()
-                .map(this::convertToOrderItemEntity)
-                .collect(Collectors.toList());
-        newOrder.setItems(orderItems);
+        // Price the cart from the catalog and associate the items with the order
+        priceOrder(newOrder, request);
 
-        // Save the order in the repository
-        orderEntityRepository.save(newOrder);
+        return newOrder;
+    }
+
+    /**
+     * Prices an order from the catalog instead of trusting the amounts sent by the client.
+     * All cart items are resolved with a single query, and any client price or total that
+     * does not match the catalog is rejected.
+     * @param order The order to set the items and totals on.
+     * @param request The order request containing the cart.
+     */
+    private void priceOrder(OrderEntity order, OrderRequest request) {
+        // Resolve every item of the cart in one query
+        Map<String, ItemEntity> catalog = itemRepository.findAllByItemIdIn(request.getCartItems().stream()
+                        .map(OrderRequest.OrderItemRequest::getItemId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(ItemEntity::getItemId, Function.identity()));
+
+        long subtotal = 0L;
+        List<OrderItemEntity> orderItems = new ArrayList<>(request.getCartItems().size());
+        for (OrderRequest.OrderItemRequest cartItem : request.getCartItems()) {
+            ItemEntity item = catalog.get(cartItem.getItemId());
+            if (item == null || item.getPrice() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Item not found: " + cartItem.getItemId());
+            }
+            if (cartItem.getQuantity() == null || cartItem.getQuantity() <= 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid quantity for item: " + cartItem.getItemId());
+            }
+            if (cartItem.getPrice() != null && !matches(cartItem.getPrice(), item.getPrice(), 0L)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Price of " + item.getName() + " does not match the catalog price " + Money.toRupees(item.getPrice()));
+            }
+
+            orderItems.add(convertToOrderItemEntity(item, cartItem.getQuantity()));
+            subtotal = Math.addExact(subtotal, Money.times(item.getPrice(), cartItem.getQuantity()));
+        }
 
-        // Convert the saved order to a response object and return it
-        return convertToResponse(newOrder);
+        long tax = Money.percentage(subtotal, TAX_RATE_BASIS_POINTS);
+        long grandTotal = subtotal + tax;
+
+        // Totals sent by the client are optional, but must agree with the catalog when present
+        if ((request.getSubtotal() != null && !matches(request.getSubtotal(), subtotal, TOTAL_TOLERANCE_PAISE))
+                || (request.getTax() != null && !matches(request.getTax(), tax, TOTAL_TOLERANCE_PAISE))
+                || (request.getGrandTotal() != null && !matches(request.getGrandTotal(), grandTotal, TOTAL_TOLERANCE_PAISE))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Order totals do not match the catalog, expected grand total " + Money.toRupees(grandTotal));
+        }
+
+        order.setItems(orderItems);
+        order.setSubtotal(subtotal);
+        order.setTax(tax);
+        order.setGrandTotal(grandTotal);
+    }
+
+    /**
+     * Checks whether an amount in paise sent by the client is within the tolerance of the server amount.
+     */
+    private boolean matches(long clientAmount, long serverAmount, long tolerance) {
+        return Math.abs(clientAmount - serverAmount) <= tolerance;
     }
 
     /**
-     * Converts an OrderItemRequest object to an OrderItemEntity object.
-     * @param orderItemRequest The OrderItemRequest to be converted.
+     * Converts a catalog item and the ordered quantity to an OrderItemEntity object.
+     * @param item The catalog item.
+     * @param quantity The ordered quantity.
      * @return The converted OrderItemEntity object.
      */
-    private OrderItemEntity convertToOrderItemEntity(OrderRequest.OrderItemRequest orderItemRequest) {
+    private OrderItemEntity convertToOrderItemEntity(ItemEntity item, Integer quantity) {
         return OrderItemEntity.builder()
-                .itemId(orderItemRequest.getItemId())
-                .name(orderItemRequest.getName())
-                .price(orderItemRequest.getPrice())
-                .quantity(orderItemRequest.getQuantity())
+                .itemId(item.getItemId())
+                .name(item.getName())
+                .price(item.getPrice())
+                .quantity(quantity)
                 .build();
     }
 
@@ -86,6 +307,37 @@ public class OrderServiceImpl implements OrderService {
                 .build();
     }
 
+    /**
+     * Converts an archived order to an OrderResponse object.
+     * @param archivedOrder The ArchivedOrderEntity to be converted.
+     * @return The converted OrderResponse object.
+     */
+    private OrderResponse convertToResponse(ArchivedOrderEntity archivedOrder) {
+        return OrderResponse.builder()
+                .orderId(archivedOrder.getOrderId())
+                .customerName(archivedOrder.getCustomerName())
+                .phoneNumber(archivedOrder.getPhoneNumber())
+                .subtotal(archivedOrder.getSubtotal())
+                .tax(archivedOrder.getTax())
+                .grandTotal(archivedOrder.getGrandTotal())
+                .paymentMethod(archivedOrder.getPaymentMethod())
+                .items(archivedOrder.getItems().stream()
+                        .map(this::convertToItemResponse)
+                        .collect(Collectors.toList()))
+                .paymentDetails(archivedOrder.getPaymentDetails())
+                .createdAt(archivedOrder.getCreatedAt())
+                .build();
+    }
+
+    private OrderResponse.OrderItemResponse convertToItemResponse(ArchivedOrderItemEntity archivedItem) {
+        return OrderResponse.OrderItemResponse.builder()
+                .itemId(archivedItem.getItemId())
+                .name(archivedItem.getName())
+                .price(archivedItem.getPrice())
+                .quantity(archivedItem.getQuantity())
+                .build();
+    }
+
     /**
      * Converts an OrderItemEntity object to an OrderItemResponse object.
      * @param orderItemEntity The OrderItemEntity to be converted.
@@ -107,11 +359,9 @@ public class OrderServiceImpl implements OrderService {
      */
     private OrderEntity convertToOrderEntity(OrderRequest request) {
         return OrderEntity.builder()
+                .orderId(orderIdGenerator.nextOrderId())
                 .customerName(request.getCustomerName())
                 .phoneNumber(request.getPhoneNumber())
-                .subtotal(request.getSubtotal())
-                .tax(request.getTax())
-                .grandTotal(request.getGrandTotal())
                 .paymentMethod(PaymentMethod.valueOf(request.getPaymentMethod()))
                 .build();
     }
@@ -121,26 +371,125 @@ public class OrderServiceImpl implements OrderService {
      * @param orderId The ID of the order to be deleted.
      */
     @Override
+    @Transactional
     public void deleteOrder(String orderId) {
         // Find the order by its ID
         OrderEntity existingOrder = orderEntityRepository.findByOrderId(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
-        // Delete the order from the repository
+        OrderResponse deletedOrder = convertToResponse(existingOrder);
+
+        // Delete the order from the repository and remove it from the daily rollup, the customer summary and the dashboard
         orderEntityRepository.delete(existingOrder);
+        salesRollupService.recordOrderDeleted(existingOrder);
+        customerService.recordOrderDeleted(existingOrder);
+        dashboardService.recordOrderDeleted(deletedOrder);
+    }
+
+    /**
+     * Retrieves one order with its line items, looking in the archive when it is no longer in the recent orders.
+     * @param orderId The ID of the order.
+     * @return The order details.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public OrderResponse getOrder(String orderId) {
+        return orderEntityRepository.findWithItemsByOrderId(orderId)
+                .map(this::convertToResponse)
+                .or(() -> archivedOrderRepository.findWithItemsByOrderId(orderId).map(this::convertToResponse))
+                .orElseThrow(() -> new RuntimeException("Order not found"));
     }
 
     /**
      * Retrieves the latest orders from the system.
+     * Only the first page of the order history is returned; use {@link #getOrderHistory} to page further.
      * @return A list of OrderResponse objects representing the latest orders.
      */
     @Override
     public List<OrderResponse> getLatestOrders() {
-        // Fetch all orders ordered by their creation date in descending order, and convert to response
-        return orderEntityRepository.findAllByOrderByCreatedAtDesc()
-                .stream()
+        return getOrderHistory(null, DEFAULT_HISTORY_PAGE_SIZE, null, null, null, false).getOrders();
+    }
+
+    /**
+     * Retrieves one page of the order history, newest first, using keyset pagination on (createdAt, id).
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size The page size (defaults to 20, capped at 100).
+     * @param from Optional first day (inclusive) of the date range.
+     * @param to Optional last day (inclusive) of the date range.
+     * @param paymentMethod Optional payment method filter.
+     * @param includeArchive Whether to continue into the archived orders once the recent ones are exhausted.
+     * @return The page of orders along with the cursor for the next page.
+     */
+    @Override
+    public OrderPageResponse getOrderHistory(String cursor, Integer size, LocalDate from, LocalDate to,
+                                             PaymentMethod paymentMethod, boolean includeArchive) {
+        int pageSize = size == null || size <= 0 ? DEFAULT_HISTORY_PAGE_SIZE : Math.min(size, MAX_HISTORY_PAGE_SIZE);
+
+        // Decode the cursor into the (createdAt, id) of the last order on the previous page
+        LocalDateTime cursorCreatedAt = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                cursorCreatedAt = LocalDateTime.parse(parts[0]);
+                cursorId = Long.parseLong(parts[1]);
+            } catch (RuntimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + cursor);
+            }
+        }
+
+        LocalDateTime fromTime = from != null ? from.atStartOfDay() : null;
+        LocalDateTime toTime = to != null ? to.plusDays(1).atStartOfDay() : null;
+
+        // Fetch one extra row to know whether another page exists
+        List<OrderEntity> orders = orderEntityRepository.findOrderHistory(
+                fromTime, toTime, paymentMethod, cursorCreatedAt, cursorId, PageRequest.of(0, pageSize + 1));
+
+        // Archived orders are all older than the recent ones, so the archive simply continues the recent history
+        List<ArchivedOrderEntity> archivedOrders = List.of();
+        if (includeArchive && orders.size() <= pageSize) {
+            archivedOrders = archivedOrderRepository.findOrderHistory(
+                    fromTime, toTime, paymentMethod, cursorCreatedAt, cursorId, PageRequest.of(0, pageSize + 1 - orders.size()));
+        }
+
+        boolean hasMore = orders.size() + archivedOrders.size() > pageSize;
+        if (orders.size() > pageSize) {
+            orders = orders.subList(0, pageSize);
+        } else if (hasMore) {
+            archivedOrders = archivedOrders.subList(0, pageSize - orders.size());
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            LocalDateTime lastCreatedAt;
+            Long lastId;
+            if (archivedOrders.isEmpty()) {
+                lastCreatedAt = orders.get(orders.size() - 1).getCreatedAt();
+                lastId = orders.get(orders.size() - 1).getId();
+            } else {
+                lastCreatedAt = archivedOrders.get(archivedOrders.size() - 1).getCreatedAt();
+                lastId = archivedOrders.get(archivedOrders.size() - 1).getId();
+            }
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((lastCreatedAt + "|" + lastId).getBytes(StandardCharsets.UTF_8));
+        }
+
+        List<OrderResponse> responses = withItems(orders).stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
+        if (!archivedOrders.isEmpty()) {
+            Map<Long, ArchivedOrderEntity> archivedById = archivedOrderRepository.findAllWithItemsByIdIn(
+                            archivedOrders.stream().map(ArchivedOrderEntity::getId).collect(Collectors.toList()))
+                    .stream()
+                    .collect(Collectors.toMap(ArchivedOrderEntity::getId, Function.identity()));
+            archivedOrders.forEach(order -> responses.add(convertToResponse(archivedById.get(order.getId()))));
+        }
+
+        return OrderPageResponse.builder()
+                .orders(responses)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
     }
 
     /**
@@ -149,6 +498,7 @@ public class OrderServiceImpl implements OrderService {
      * @return The OrderResponse containing the updated order details after payment verification.
      */
     @Override
+    @Transactional
     public OrderResponse verifyPayment(PaymentVerificationRequest request) {
         // Find the order by its ID
         OrderEntity existingOrder = orderEntityRepository.findByOrderId(request.getOrderId())
@@ -163,36 +513,22 @@ public class OrderServiceImpl implements OrderService {
 
         // Update the payment details and set status to completed
         PaymentDetails paymentDetails = existingOrder.getPaymentDetails();
+        boolean alreadyCompleted = paymentDetails.getStatus() == PaymentDetails.PaymentStatus.COMPLETED;
         paymentDetails.setRazorpayOrderId(request.getRazorpayOrderId());
         paymentDetails.setRazorpayPaymentId(request.getRazorpayPaymentId());
         paymentDetails.setRazorpaySignature(request.getRazorpaySignature());
         paymentDetails.setStatus(PaymentDetails.PaymentStatus.COMPLETED);
 
-        // Save the updated order
+        // Save the updated order and count the payment in the daily rollup once
         existingOrder = orderEntityRepository.save(existingOrder);
+        if (!alreadyCompleted) {
+            salesRollupService.recordPaymentCompleted(existingOrder);
+        }
 
         // Return the updated order details in response
-        return convertToResponse(existingOrder);
-    }
-
-    /**
-     * Calculates the total sales for a specific date.
-     * @param date The date for which sales should be calculated.
-     * @return The total sales amount for the given date.
-     */
-    @Override
-    public Double sumSalesByDate(LocalDate date) {
-        return orderEntityRepository.sumSalesByDate(date);
-    }
-
-    /**
-     * Counts the number of orders placed on a specific date.
-     * @param date The date for which the order count should be calculated.
-     * @return The number of orders placed on the given date.
-     */
-    @Override
-    public Long countByOrderDate(LocalDate date) {
-        return orderEntityRepository.countByOrderDate(date);
+        OrderResponse response = convertToResponse(existingOrder);
+        dashboardService.recordPaymentCompleted(response);
+        return response;
     }
 
     /**
@@ -201,12 +537,30 @@ public class OrderServiceImpl implements OrderService {
      */
     @Override
     public List<OrderResponse> findRecentOrders() {
-        return orderEntityRepository.findRecentOrders(PageRequest.of(0, 5))
+        return withItems(orderEntityRepository.findRecentOrders(PageRequest.of(0, 5)))
                 .stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Loads the line items of a list of orders with one extra query instead of one query per order.
+     * @param orders The orders to load the items for.
+     * @return The same orders, in the same order, with their items initialised.
+     */
+    private List<OrderEntity> withItems(List<OrderEntity> orders) {
+        if (orders.isEmpty()) {
+            return orders;
+        }
+        Map<Long, OrderEntity> ordersById = orderEntityRepository.findAllWithItemsByIdIn(
+                        orders.stream().map(OrderEntity::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(OrderEntity::getId, Function.identity()));
+        return orders.stream()
+                .map(order -> ordersById.get(order.getId()))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Verifies the Razorpay payment signature (to be implemented for production).
      * @param razorpayOrderId The Razorpay order ID.
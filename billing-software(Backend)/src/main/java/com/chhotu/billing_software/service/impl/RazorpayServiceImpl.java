@@ -24,19 +24,19 @@ public class RazorpayServiceImpl implements RazorpayService {
 
     /**
      * Creates a Razorpay order for a given amount and currency.
-     * @param amount The amount for the order in the currency's base unit (e.g., paise for INR).
+     * @param amount The amount for the order in the currency's minor unit (e.g., paise for INR).
      * @param currency The currency for the order (e.g., "INR").
      * @return A RazorpayOrderResponse containing order details from Razorpay.
      * @throws RazorpayException If the Razorpay API request fails.
      */
     @Override
-    public RazorpayOrderResponse createOrder(Double amount, String currency) throws RazorpayException {
+    public RazorpayOrderResponse createOrder(Long amount, String currency) throws RazorpayException {
         // Initialize Razorpay client with the API key and secret
         RazorpayClient razorpayClient = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
 
         // Prepare the order request JSON object
         JSONObject orderRequest = new JSONObject();
-        orderRequest.put("amount", amount * 100); // Convert amount to paise (1 INR = 100 paise)
+        orderRequest.put("amount", amount); // Already in paise, Razorpay expects the minor unit
         orderRequest.put("currency", currency);
         orderRequest.put("receipt", "order_rcptid_" + System.currentTimeMillis()); // Generate a unique receipt ID
         orderRequest.put("payment_capture", 1); // Enable automatic payment capture
@@ -0,0 +1,53 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.io.OrderResponse;
+import com.chhotu.billing_software.io.ReceiptFormat;
+import com.chhotu.billing_software.service.OrderService;
+import com.chhotu.billing_software.service.ReceiptService;
+import com.chhotu.billing_software.util.EscPosReceiptWriter;
+import com.chhotu.billing_software.util.PdfReceiptWriter;
+import com.chhotu.billing_software.util.ReceiptLayout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Renders receipts on the server so every counter prints the same thing.
+ * The layout and both writers are built once at startup, with the shop header and footer already encoded,
+ * so rendering a receipt only lays out and encodes the lines of the order.
+ */
+@Service
+public class ReceiptServiceImpl implements ReceiptService {
+
+    // Inject the OrderService to load the order with its line items
+    private final OrderService orderService;
+
+    private final ReceiptLayout layout;
+    private final PdfReceiptWriter pdfWriter;
+    private final EscPosReceiptWriter escPosWriter;
+
+    public ReceiptServiceImpl(OrderService orderService,
+                              @Value("${receipt.width:42}") int width,
+                              @Value("${receipt.shop-name:My Retail Shop}") String shopName,
+                              @Value("${receipt.address:}") List<String> address,
+                              @Value("${receipt.footer:Thank you for shopping with us!}") List<String> footer) {
+        this.orderService = orderService;
+        this.layout = new ReceiptLayout(width, shopName, address, footer);
+        this.pdfWriter = new PdfReceiptWriter(layout);
+        this.escPosWriter = new EscPosReceiptWriter(layout);
+    }
+
+    /**
+     * Renders the receipt of an order.
+     * @param orderId The ID of the order.
+     * @param format PDF for browsers, ESCPOS for raw thermal printers (defaults to PDF).
+     * @return The rendered receipt.
+     */
+    @Override
+    public byte[] renderReceipt(String orderId, ReceiptFormat format) {
+        OrderResponse order = orderService.getOrder(orderId);
+        List<ReceiptLayout.Line> body = layout.body(order);
+        return format == ReceiptFormat.ESCPOS ? escPosWriter.write(body) : pdfWriter.write(body);
+    }
+}
@@ -0,0 +1,122 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.io.ReportBucket;
+import com.chhotu.billing_software.io.SalesReportResponse;
+import com.chhotu.billing_software.repository.ArchivedOrderRepository;
+import com.chhotu.billing_software.repository.OrderEntityRepository;
+import com.chhotu.billing_software.service.ReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class ReportServiceImpl implements ReportService {
+
+    // Longest range a single report may cover
+    private static final long MAX_REPORT_DAYS = 366;
+
+    // Inject the order repositories to aggregate the orders and the archive
+    private final OrderEntityRepository orderEntityRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+
+    /**
+     * Builds a sales report for a date range, bucketed by hour, day or month.
+     * Totals come from one aggregate query over a created_at range per table (orders and archive), merged per bucket,
+     * and empty buckets are filled with zeros.
+     * @param from The first day of the report (inclusive).
+     * @param to The last day of the report (inclusive).
+     * @param bucket The size of the buckets (defaults to DAY).
+     * @return The report with one entry per bucket.
+     */
+    @Override
+    public SalesReportResponse getSalesReport(LocalDate from, LocalDate to, ReportBucket bucket) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A valid from and to date are required");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_REPORT_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A report can cover at most " + MAX_REPORT_DAYS + " days");
+        }
+        if (bucket == null) {
+            bucket = ReportBucket.DAY;
+        }
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        List<Object[]> rows = new ArrayList<>(switch (bucket) {
+            case HOUR -> orderEntityRepository.sumSalesByHour(start, end);
+            case DAY -> orderEntityRepository.sumSalesByDay(start, end);
+            case MONTH -> orderEntityRepository.sumSalesByMonth(start, end);
+        });
+        rows.addAll(switch (bucket) {
+            case HOUR -> archivedOrderRepository.sumSalesByHour(start, end);
+            case DAY -> archivedOrderRepository.sumSalesByDay(start, end);
+            case MONTH -> archivedOrderRepository.sumSalesByMonth(start, end);
+        });
+
+        // Index the aggregated rows by the start of their bucket as [order count, sales, tax],
+        // adding up the hot and archived rows of a bucket that straddles the archival cutoff
+        Map<LocalDateTime, long[]> totalsByBucket = new HashMap<>();
+        for (Object[] row : rows) {
+            LocalDateTime bucketStart = LocalDateTime.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(),
+                    ((Number) row[2]).intValue(), ((Number) row[3]).intValue(), 0);
+            long[] totals = totalsByBucket.computeIfAbsent(bucketStart, key -> new long[3]);
+            totals[0] += ((Number) row[4]).longValue();
+            totals[1] += row[5] != null ? ((Number) row[5]).longValue() : 0L;
+            totals[2] += row[6] != null ? ((Number) row[6]).longValue() : 0L;
+        }
+
+        // Walk every bucket of the range in order, including the empty ones
+        List<SalesReportResponse.SalesBucket> buckets = new ArrayList<>();
+        long orderCount = 0;
+        long totalSales = 0L;
+        long totalTax = 0L;
+        for (LocalDateTime bucketStart = truncate(start, bucket); bucketStart.isBefore(end); bucketStart = next(bucketStart, bucket)) {
+            long[] totals = totalsByBucket.getOrDefault(bucketStart, new long[3]);
+            long bucketOrders = totals[0];
+            long bucketSales = totals[1];
+            long bucketTax = totals[2];
+
+            buckets.add(SalesReportResponse.SalesBucket.builder()
+                    .start(bucketStart)
+                    .orderCount(bucketOrders)
+                    .totalSales(bucketSales)
+                    .totalTax(bucketTax)
+                    .build());
+            orderCount += bucketOrders;
+            totalSales += bucketSales;
+            totalTax += bucketTax;
+        }
+
+        return SalesReportResponse.builder()
+                .from(from)
+                .to(to)
+                .bucket(bucket)
+                .orderCount(orderCount)
+                .totalSales(totalSales)
+                .totalTax(totalTax)
+                .buckets(buckets)
+                .build();
+    }
+
+    private LocalDateTime truncate(LocalDateTime time, ReportBucket bucket) {
+        return bucket == ReportBucket.MONTH ? time.withDayOfMonth(1) : time;
+    }
+
+    private LocalDateTime next(LocalDateTime bucketStart, ReportBucket bucket) {
+        return switch (bucket) {
+            case HOUR -> bucketStart.plusHours(1);
+            case DAY -> bucketStart.plusDays(1);
+            case MONTH -> bucketStart.plusMonths(1);
+        };
+    }
+}
@@ -0,0 +1,187 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.entity.DailySalesEntity;
+import com.chhotu.billing_software.entity.OrderEntity;
+import com.chhotu.billing_software.io.DailySalesResponse;
+import com.chhotu.billing_software.io.PaymentDetails;
+import com.chhotu.billing_software.io.PaymentMethod;
+import com.chhotu.billing_software.repository.DailySalesRepository;
+import com.chhotu.billing_software.service.SalesRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class SalesRollupServiceImpl implements SalesRollupService {
+
+    // Inject the DailySalesRepository for reading and updating the daily rollup rows
+    private final DailySalesRepository dailySalesRepository;
+
+    // Used to create a missing day row outside of the caller's transaction
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Adds a new order to the rollup of its day. Must run in the transaction that saved the order.
+     * @param order The saved order.
+     */
+    @Override
+    public void recordOrderCreated(OrderEntity order) {
+        apply(order, 1, true, isCompleted(order));
+    }
+
+    /**
+     * Removes an order from the rollup of its day. Must run in the transaction that deletes the order.
+     * @param order The order being deleted.
+     */
+    @Override
+    public void recordOrderDeleted(OrderEntity order) {
+        apply(order, -1, true, isCompleted(order));
+    }
+
+    /**
+     * Counts the payment of an order that has just been completed.
+     * @param order The order whose payment was verified.
+     */
+    @Override
+    public void recordPaymentCompleted(OrderEntity order) {
+        apply(order, 1, false, true);
+    }
+
+    /**
+     * Reads the rollup row of a day.
+     * @param date The day.
+     * @return The totals of the day, all zero if no order was placed.
+     */
+    @Override
+    public DailySalesResponse getDailySales(LocalDate date) {
+        return dailySalesRepository.findById(date)
+                .map(this::convertToResponse)
+                .orElseGet(() -> convertToResponse(emptyDay(date)));
+    }
+
+    /**
+     * Recomputes the rollup rows of a date range from the raw orders and the archive.
+     * @param from The first day to rebuild, or null to start from the first order.
+     * @param to The last day to rebuild, or null to rebuild up to today.
+     * @return The number of days that have orders in the range.
+     */
+    @Override
+    @Transactional
+    public int rebuild(LocalDate from, LocalDate to) {
+        LocalDateTime start = from != null ? from.atStartOfDay() : null;
+        LocalDateTime end = to != null ? to.plusDays(1).atStartOfDay() : null;
+        dailySalesRepository.deleteBySalesDateBetween(from, to);
+
+        // A day being archived has part of its orders in each table
+        Map<LocalDate, DailySalesEntity> days = new HashMap<>();
+        List<DailySalesEntity> rows = new ArrayList<>(dailySalesRepository.aggregateOrders(
+                start, end, PaymentMethod.CASH, PaymentMethod.UPI, PaymentDetails.PaymentStatus.COMPLETED));
+        rows.addAll(dailySalesRepository.aggregateArchivedOrders(
+                start, end, PaymentMethod.CASH, PaymentMethod.UPI, PaymentDetails.PaymentStatus.COMPLETED));
+        for (DailySalesEntity row : rows) {
+            days.merge(row.getSalesDate(), row, this::merge);
+        }
+        dailySalesRepository.saveAll(days.values());
+        return days.size();
+    }
+
+    private DailySalesEntity merge(DailySalesEntity existing, DailySalesEntity added) {
+        existing.setOrderCount(existing.getOrderCount() + added.getOrderCount());
+        existing.setTotalSales(sum(existing.getTotalSales(), added.getTotalSales()));
+        existing.setTotalTax(sum(existing.getTotalTax(), added.getTotalTax()));
+        existing.setCashOrderCount(existing.getCashOrderCount() + added.getCashOrderCount());
+        existing.setCashSales(sum(existing.getCashSales(), added.getCashSales()));
+        existing.setUpiOrderCount(existing.getUpiOrderCount() + added.getUpiOrderCount());
+        existing.setUpiSales(sum(existing.getUpiSales(), added.getUpiSales()));
+        return existing;
+    }
+
+    private long sum(Long a, Long b) {
+        return (a != null ? a : 0L) + (b != null ? b : 0L);
+    }
+
+    /**
+     * Applies the amounts of an order to the rollup row of the day it was placed.
+     * @param order The order.
+     * @param sign 1 to add the order, -1 to remove it.
+     * @param totals Whether the order count, sales and tax change.
+     * @param payment Whether the completed payment columns change.
+     */
+    private void apply(OrderEntity order, int sign, boolean totals, boolean payment) {
+        LocalDate date = order.getCreatedAt().toLocalDate();
+        long grandTotal = order.getGrandTotal() != null ? order.getGrandTotal() : 0L;
+        long tax = order.getTax() != null ? order.getTax() : 0L;
+        boolean cash = order.getPaymentMethod() == PaymentMethod.CASH;
+
+        ensureDayExists(date);
+        dailySalesRepository.increment(date,
+                totals ? sign : 0,
+                totals ? sign * grandTotal : 0L,
+                totals ? sign * tax : 0L,
+                payment && cash ? sign : 0,
+                payment && cash ? sign * grandTotal : 0L,
+                payment && !cash ? sign : 0,
+                payment && !cash ? sign * grandTotal : 0L);
+    }
+
+    /**
+     * Creates the row of a day if it does not exist yet. The row is committed in its own transaction,
+     * and a concurrent insert of the same day is simply ignored. A save() would merge an empty day over
+     * a row committed after the caller's snapshot was taken, wiping its totals.
+     */
+    private void ensureDayExists(LocalDate date) {
+        if (dailySalesRepository.existsById(date)) {
+            return;
+        }
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            requiresNew.executeWithoutResult(status -> dailySalesRepository.insertEmptyDay(date));
+        } catch (DataIntegrityViolationException e) {
+            // Another order created the row first
+        }
+    }
+
+    private boolean isCompleted(OrderEntity order) {
+        return order.getPaymentDetails() != null
+                && order.getPaymentDetails().getStatus() == PaymentDetails.PaymentStatus.COMPLETED;
+    }
+
+    private DailySalesEntity emptyDay(LocalDate date) {
+        return DailySalesEntity.builder()
+                .salesDate(date)
+                .orderCount(0L)
+                .totalSales(0L)
+                .totalTax(0L)
+                .cashOrderCount(0L)
+                .cashSales(0L)
+                .upiOrderCount(0L)
+                .upiSales(0L)
+                .build();
+    }
+
+    private DailySalesResponse convertToResponse(DailySalesEntity day) {
+        return DailySalesResponse.builder()
+                .salesDate(day.getSalesDate())
+                .orderCount(day.getOrderCount())
+                .totalSales(day.getTotalSales())
+                .totalTax(day.getTotalTax())
+                .cashOrderCount(day.getCashOrderCount())
+                .cashSales(day.getCashSales())
+                .upiOrderCount(day.getUpiOrderCount())
+                .upiSales(day.getUpiSales())
+                .build();
+    }
+}
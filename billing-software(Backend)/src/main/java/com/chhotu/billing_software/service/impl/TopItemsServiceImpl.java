@@ -0,0 +1,340 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.entity.OrderEntity;
+import com.chhotu.billing_software.entity.OrderItemEntity;
+import com.chhotu.billing_software.entity.TopItemCheckpointEntity;
+import com.chhotu.billing_software.io.TopItemsPeriod;
+import com.chhotu.billing_software.io.TopItemsResponse;
+import com.chhotu.billing_software.repository.ArchivedOrderRepository;
+import com.chhotu.billing_software.repository.OrderEntityRepository;
+import com.chhotu.billing_software.repository.TopItemCheckpointRepository;
+import com.chhotu.billing_software.service.TopItemsService;
+import com.chhotu.billing_software.util.AfterCommit;
+import com.chhotu.billing_software.util.OrderIdGenerator;
+import com.chhotu.billing_software.util.SpaceSaving;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tracks the best sellers of today, this week and this month in Space-Saving sketches updated as orders are created,
+ * so the current periods never group tbl_order_items. The sketches are checkpointed to the database and restored at startup.
+ * Deleted orders are not subtracted: the sketch counters only grow. Arbitrary ranges use an exact aggregate query.
+ * <p>
+ * With several instances, each one counts the orders it creates and checkpoints them under its node ID. Reads add the
+ * latest checkpoints of the other instances, so they lag behind by at most one checkpoint interval.
+ */
+@Service
+@RequiredArgsConstructor
+public class TopItemsServiceImpl implements TopItemsService {
+
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 50;
+
+    // Longest range an exact query may cover
+    private static final long MAX_RANGE_DAYS = 366;
+
+    // Counters kept per period; items outside the top few hundred are only tracked approximately
+    @Value("${reports.top-items.capacity:200}")
+    private int capacity;
+
+    // Inject the repositories to run the exact aggregates and to save the checkpoints
+    private final OrderEntityRepository orderEntityRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final TopItemCheckpointRepository topItemCheckpointRepository;
+    private final OrderIdGenerator orderIdGenerator;
+
+    private final Map<TopItemsPeriod, AtomicReference<PeriodSketch>> sketches = new EnumMap<>(Map.of(
+            TopItemsPeriod.TODAY, new AtomicReference<>(),
+            TopItemsPeriod.WEEK, new AtomicReference<>(),
+            TopItemsPeriod.MONTH, new AtomicReference<>()));
+
+    // Latest name seen for each item id, the sketches only hold the ids
+    private final Map<String, String> itemNames = new ConcurrentHashMap<>();
+
+    // Decides when the periods roll over; replaced by tests
+    Clock clock = Clock.systemDefaultZone();
+
+    // Checkpointed counters of the other instances, read again at every checkpoint
+    private final Map<TopItemsPeriod, List<TopItemCheckpointEntity>> otherNodes = new ConcurrentHashMap<>();
+
+    /**
+     * Restores the sketches of the current periods from the last checkpoint of this instance,
+     * then replays the orders it created since then.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDate today = now.toLocalDate();
+        for (TopItemsPeriod period : TopItemsPeriod.values()) {
+            LocalDate start = period.start(today);
+            PeriodSketch sketch = new PeriodSketch(start, new SpaceSaving<>(capacity));
+            LocalDateTime replayFrom = start.atStartOfDay();
+            List<TopItemCheckpointEntity> others = new ArrayList<>();
+            for (TopItemCheckpointEntity row : topItemCheckpointRepository.findByPeriodAndPeriodStart(period, start)) {
+                if (row.getNodeId() != orderIdGenerator.getNodeId()) {
+                    others.add(row);
+                    itemNames.putIfAbsent(row.getItemId(), row.getName());
+                    continue;
+                }
+                sketch.counters.restore(row.getItemId(), row.getQuantity(), row.getError());
+                itemNames.put(row.getItemId(), row.getName());
+                if (row.getCheckpointedAt().isAfter(replayFrom)) {
+                    replayFrom = row.getCheckpointedAt();
+                }
+            }
+            replay(sketch, replayFrom, now);
+            sketches.get(period).set(sketch);
+            otherNodes.put(period, others);
+        }
+    }
+
+    /**
+     * Adds the line items of a new order to the sketches once its transaction has committed.
+     * @param order The saved order.
+     */
+    @Override
+    public void recordOrderCreated(OrderEntity order) {
+        LocalDate day = order.getCreatedAt().toLocalDate();
+        List<OrderItemEntity> items = List.copyOf(order.getItems());
+        AfterCommit.run(() -> {
+            for (TopItemsPeriod period : TopItemsPeriod.values()) {
+                PeriodSketch sketch = sketch(period, day);
+                if (sketch == null) {
+                    continue;
+                }
+                for (OrderItemEntity item : items) {
+                    offer(sketch, item.getItemId(), item.getName(), item.getQuantity());
+                }
+            }
+        });
+    }
+
+    /**
+     * Reads the best sellers of the current day, week or month from memory, adding the counters of this instance
+     * to the checkpointed counters of the others.
+     * @param period The period (defaults to TODAY).
+     * @param limit The number of items to return.
+     * @return The best sellers, with the error bound of each quantity.
+     */
+    @Override
+    public TopItemsResponse getTopItems(TopItemsPeriod period, int limit) {
+        if (period == null) {
+            period = TopItemsPeriod.TODAY;
+        }
+        LocalDate today = LocalDate.now(clock);
+        PeriodSketch sketch = sketch(period, today);
+
+        // Item id -> [quantity, error]; the error bounds of the instances add up like their quantities
+        Map<String, long[]> counts = new HashMap<>();
+        for (SpaceSaving.Counter<String> counter : sketch.counters.top(capacity)) {
+            counts.put(counter.getKey(), new long[] {counter.getCount(), counter.getError()});
+        }
+        for (TopItemCheckpointEntity row : otherNodes.getOrDefault(period, List.of())) {
+            if (row.getPeriodStart().equals(sketch.start)) {
+                counts.merge(row.getItemId(), new long[] {row.getQuantity(), row.getError()}, (existing, added) -> {
+                    existing[0] += added[0];
+                    existing[1] += added[1];
+                    return existing;
+                });
+            }
+        }
+        List<TopItemsResponse.TopItem> items = counts.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[0]).reversed())
+                .limit(limit(limit))
+                .map(entry -> TopItemsResponse.TopItem.builder()
+                        .itemId(entry.getKey())
+                        .name(itemNames.get(entry.getKey()))
+                        .quantity(entry.getValue()[0])
+                        .error(entry.getValue()[1])
+                        .build())
+                .toList();
+        return TopItemsResponse.builder()
+                .period(period)
+                .from(sketch.start)
+                .to(today)
+                .approximate(true)
+                .items(items)
+                .build();
+    }
+
+    /**
+     * Computes the exact best sellers of a date range from the orders and the archive.
+     * @param from The first day of the range (inclusive).
+     * @param to The last day of the range (inclusive).
+     * @param limit The number of items to return.
+     * @return The best sellers of the range.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TopItemsResponse getTopItems(LocalDate from, LocalDate to, int limit) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A valid from and to date are required");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A range can cover at most " + MAX_RANGE_DAYS + " days");
+        }
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+
+        // Merge the hot and archived quantities of each item
+        Map<String, TopItemsResponse.TopItem> byItem = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>(orderEntityRepository.sumQuantityByItem(start, end));
+        rows.addAll(archivedOrderRepository.sumQuantityByItem(start, end));
+        for (Object[] row : rows) {
+            long quantity = ((Number) row[2]).longValue();
+            byItem.merge((String) row[0],
+                    new TopItemsResponse.TopItem((String) row[0], (String) row[1], quantity, 0L),
+                    (existing, added) -> {
+                        existing.setQuantity(existing.getQuantity() + added.getQuantity());
+                        return existing;
+                    });
+        }
+        List<TopItemsResponse.TopItem> items = byItem.values().stream()
+                .sorted(Comparator.comparingLong(TopItemsResponse.TopItem::getQuantity).reversed())
+                .limit(limit(limit))
+                .toList();
+
+        return TopItemsResponse.builder()
+                .from(from)
+                .to(to)
+                .approximate(false)
+                .items(items)
+                .build();
+    }
+
+    /**
+     * Saves the counters of the current sketches, replacing the previous checkpoint of this instance
+     * (every 5 minutes by default), and reads the latest checkpoints of the other instances.
+     */
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${reports.top-items.checkpoint-ms:300000}", initialDelayString = "${reports.top-items.checkpoint-ms:300000}")
+    public void checkpoint() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        for (TopItemsPeriod period : TopItemsPeriod.values()) {
+            PeriodSketch sketch = sketch(period, now.toLocalDate());
+            List<TopItemCheckpointEntity> rows = new ArrayList<>();
+            for (SpaceSaving.Counter<String> counter : sketch.counters.top(capacity)) {
+                rows.add(TopItemCheckpointEntity.builder()
+                        .period(period)
+                        .periodStart(sketch.start)
+                        .nodeId(orderIdGenerator.getNodeId())
+                        .itemId(counter.getKey())
+                        .name(itemNames.get(counter.getKey()))
+                        .quantity(counter.getCount())
+                        .error(counter.getError())
+                        .checkpointedAt(now)
+                        .build());
+            }
+            topItemCheckpointRepository.deleteByPeriodAndNodeId(period, orderIdGenerator.getNodeId());
+            topItemCheckpointRepository.saveAll(rows);
+
+            List<TopItemCheckpointEntity> others = new ArrayList<>();
+            for (TopItemCheckpointEntity row : topItemCheckpointRepository.findByPeriodAndPeriodStart(period, sketch.start)) {
+                if (row.getNodeId() != orderIdGenerator.getNodeId()) {
+                    others.add(row);
+                    itemNames.putIfAbsent(row.getItemId(), row.getName());
+                }
+            }
+            otherNodes.put(period, others);
+        }
+    }
+
+    /**
+     * Rebuilds the sketches of the current periods that overlap a date range from the orders of this instance, after
+     * orders of the range were removed (a purge). Its checkpoints are dropped, so a restart replays the whole period.
+     * The other instances keep counting the purged orders they created until they restart.
+     * An order committed while a sketch is rebuilt may be counted twice, within the error the sketch already allows.
+     * @param from The first day of the range.
+     * @param to The last day of the range (inclusive).
+     */
+    @Override
+    @Transactional
+    public void reload(LocalDate from, LocalDate to) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDate today = now.toLocalDate();
+        for (TopItemsPeriod period : TopItemsPeriod.values()) {
+            LocalDate start = period.start(today);
+            if (to.isBefore(start) || from.isAfter(today)) {
+                continue;
+            }
+            PeriodSketch sketch = new PeriodSketch(start, new SpaceSaving<>(capacity));
+            sketches.get(period).set(sketch);
+            replay(sketch, start.atStartOfDay(), now);
+            topItemCheckpointRepository.deleteByPeriodAndNodeId(period, orderIdGenerator.getNodeId());
+        }
+    }
+
+    /**
+     * Returns the sketch of the period containing a day, starting a new one when the period has rolled over.
+     * @return The sketch, or null if the day belongs to a period that has already ended.
+     */
+    private PeriodSketch sketch(TopItemsPeriod period, LocalDate day) {
+        LocalDate start = period.start(day);
+        AtomicReference<PeriodSketch> current = sketches.get(period);
+        while (true) {
+            PeriodSketch sketch = current.get();
+            if (sketch != null && sketch.start.equals(start)) {
+                return sketch;
+            }
+            if (sketch != null && sketch.start.isAfter(start)) {
+                return null;
+            }
+            PeriodSketch fresh = new PeriodSketch(start, new SpaceSaving<>(capacity));
+            if (current.compareAndSet(sketch, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    /**
+     * Offers the line items of the orders this instance created over a time range.
+     * Orders from before node IDs count for node 0, the only instance there was then.
+     */
+    private void replay(PeriodSketch sketch, LocalDateTime from, LocalDateTime to) {
+        for (Object[] row : orderEntityRepository.findLineItemsCreatedBetween(from, to)) {
+            long nodeId = Math.max(OrderIdGenerator.nodeIdOf((String) row[0]), 0);
+            if (nodeId == orderIdGenerator.getNodeId()) {
+                offer(sketch, (String) row[1], (String) row[2], ((Number) row[3]).longValue());
+            }
+        }
+    }
+
+    private void offer(PeriodSketch sketch, String itemId, String name, long quantity) {
+        itemNames.put(itemId, name);
+        sketch.counters.offer(itemId, quantity);
+    }
+
+    private int limit(int limit) {
+        if (limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Counters of one day, week or month.
+     */
+    private record PeriodSketch(LocalDate start, SpaceSaving<String> counters) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.chhotu.billing_software.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads CSV records one at a time from a stream, so a large file is never held in memory.
+ * Follows RFC 4180: fields may be quoted, a quote inside a quoted field is doubled, and quoted fields
+ * may contain separators and line breaks. Lines may end with LF or CRLF.
+ */
+public class CsvReader {
+
+    private final Reader reader;
+    private int next = -2; // One character of look-ahead; -2 until the first read
+
+    // Line of the input where the last record started, 1-based
+    private int line;
+    private int currentLine = 1;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return The fields of the next record, or null at the end of the input.
+     */
+    public List<String> next() throws IOException {
+        if (peek() < 0) {
+            return null;
+        }
+        line = currentLine;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            int c = read();
+            if (quoted) {
+                if (c < 0) {
+                    throw new IOException("Unterminated quoted field starting on line " + line);
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        field.append((char) read());
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' && peek() == '\n') {
+                // The line feed ends the record
+            } else if (c == '\n' || c < 0) {
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    /**
+     * @return The line of the input where the last record returned by next() started.
+     */
+    public int line() {
+        return line;
+    }
+
+    private int peek() throws IOException {
+        if (next == -2) {
+            next = reader.read();
+        }
+        return next;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        next = reader.read();
+        if (c == '\n') {
+            currentLine++;
+        }
+        return c;
+    }
+}
@@ -0,0 +1,70 @@
+package com.chhotu.billing_software.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+/**
+ * Writes receipt lines as raw ESC/POS commands for thermal printers, ending with a paper cut.
+ * The commands of the shared header and footer are encoded once when the writer is created.
+ */
+public class EscPosReceiptWriter {
+
+    private static final byte ESC = 0x1B;
+    private static final byte GS = 0x1D;
+    private static final byte LF = 0x0A;
+
+    private static final byte[] INITIALIZE = {ESC, '@'};
+    private static final byte[] BOLD_ON = {ESC, 'E', 1};
+    private static final byte[] BOLD_OFF = {ESC, 'E', 0};
+
+    // Feeds past the cutter, then cuts the paper
+    private static final byte[] FEED_AND_CUT = {ESC, 'd', 4, GS, 'V', 66, 0};
+
+    private final byte[] header;
+    private final byte[] footer;
+
+    public EscPosReceiptWriter(ReceiptLayout layout) {
+        ByteArrayOutputStream headerCommands = new ByteArrayOutputStream();
+        headerCommands.writeBytes(INITIALIZE);
+        writeLines(layout.header(), headerCommands);
+        this.header = headerCommands.toByteArray();
+
+        ByteArrayOutputStream footerCommands = new ByteArrayOutputStream();
+        writeLines(layout.footer(), footerCommands);
+        footerCommands.writeBytes(FEED_AND_CUT);
+        this.footer = footerCommands.toByteArray();
+    }
+
+    /**
+     * @param body The lines of the order, printed between the shared header and footer.
+     * @return The bytes to send to the printer.
+     */
+    public byte[] write(List<ReceiptLayout.Line> body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(header.length + footer.length + body.size() * 48);
+        out.writeBytes(header);
+        writeLines(body, out);
+        out.writeBytes(footer);
+        return out.toByteArray();
+    }
+
+    private static void writeLines(List<ReceiptLayout.Line> lines, ByteArrayOutputStream out) {
+        for (ReceiptLayout.Line line : lines) {
+            if (line.bold()) {
+                out.writeBytes(BOLD_ON);
+            }
+            writeText(line.text(), out);
+            out.write(LF);
+            if (line.bold()) {
+                out.writeBytes(BOLD_OFF);
+            }
+        }
+    }
+
+    // Printers start in code page 437, so only ASCII is sent as is; anything else is printed as '?'
+    private static void writeText(String text, ByteArrayOutputStream out) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            out.write(c >= 0x20 && c < 0x7F ? c : '?');
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.chhotu.billing_software.util;
+
+import com.chhotu.billing_software.io.ItemResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Inverted index over the name, category name and description of the items of one catalog snapshot.
+ * Terms are kept sorted, so the terms starting with a prefix are found by binary search, and each term
+ * points at the items containing it. Every query token must match, either exactly, as a prefix of a term,
+ * or, when nothing else matches, within one or two typos. Never modified once built.
+ */
+public class ItemSearchIndex {
+
+    // A match in the name counts more than one in the category name, which counts more than one in the description
+    private static final int NAME_WEIGHT = 4;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // Multipliers of the field weight by kind of match
+    private static final int EXACT_MATCH = 3;
+    private static final int PREFIX_MATCH = 2;
+    private static final int FUZZY_MATCH = 1;
+
+    // Tokens needed before a typo is tolerated: one typo from 4 characters, two from 8
+    private static final int ONE_TYPO_LENGTH = 4;
+    private static final int TWO_TYPOS_LENGTH = 8;
+
+    // Tokens of a query beyond this are ignored
+    private static final int MAX_QUERY_TOKENS = 8;
+
+    private final List<ItemResponse> items;
+
+    // Distinct terms in ascending order, and for each one the ascending ordinals of its items
+    // with the weight of the best field the term appears in
+    private final String[] terms;
+    private final int[][] postings;
+    private final byte[][] weights;
+
+    // Items from the shortest name to the longest, and the position of each item in that order;
+    // among equal scores a shorter name is the closer match
+    private final int[] itemsByName;
+    private final int[] nameOrder;
+
+    public ItemSearchIndex(List<ItemResponse> items) {
+        this.items = items;
+
+        Map<String, Postings> byTerm = new HashMap<>();
+        for (int item = 0; item < items.size(); item++) {
+            ItemResponse response = items.get(item);
+            addTokens(byTerm, response.getName(), item, NAME_WEIGHT);
+            addTokens(byTerm, response.getCategoryName(), item, CATEGORY_WEIGHT);
+            addTokens(byTerm, response.getDescription(), item, DESCRIPTION_WEIGHT);
+        }
+
+        this.terms = byTerm.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+        this.postings = new int[terms.length][];
+        this.weights = new byte[terms.length][];
+        for (int i = 0; i < terms.length; i++) {
+            Postings termPostings = byTerm.get(terms[i]);
+            postings[i] = Arrays.copyOf(termPostings.items, termPostings.size);
+            weights[i] = Arrays.copyOf(termPostings.weights, termPostings.size);
+        }
+
+        this.itemsByName = IntStream.range(0, items.size())
+                .boxed()
+                .sorted(Comparator.comparingInt((Integer item) -> nameOf(items.get(item)).length())
+                        .thenComparing(item -> nameOf(items.get(item)), String.CASE_INSENSITIVE_ORDER))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        this.nameOrder = new int[items.size()];
+        for (int i = 0; i < itemsByName.length; i++) {
+            nameOrder[itemsByName[i]] = i;
+        }
+    }
+
+    /**
+     * Finds the items matching every token of a query, best matches first.
+     * @param query The text typed by the user.
+     * @param categoryId Only return items of this category, or null for all.
+     * @param limit The number of items to return.
+     * @return The matching items.
+     */
+    public List<ItemResponse> search(String query, String categoryId, int limit) {
+        List<String> tokens = queryTokens(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        // Score of each item so far, number of tokens it matched, and what the current token added to it
+        int[] scores = new int[items.size()];
+        int[] matched = new int[items.size()];
+        int[] tokenScores = new int[items.size()];
+        Hits hits = new Hits();
+
+        for (int token = 0; token < tokens.size(); token++) {
+            hits.size = 0;
+            String text = tokens.get(token);
+            int from = lowerBound(text);
+            int to = lowerBound(text + Character.MAX_VALUE);
+            for (int term = from; term < to; term++) {
+                score(term, terms[term].length() == text.length() ? EXACT_MATCH : PREFIX_MATCH, token, scores, matched, tokenScores, hits);
+            }
+            if (from == to) {
+                for (int term : fuzzyTerms(text)) {
+                    score(term, FUZZY_MATCH, token, scores, matched, tokenScores, hits);
+                }
+            }
+            if (hits.size == 0) {
+                return List.of();
+            }
+        }
+
+        // Rank by score, then by the precomputed order of the names, keeping the best few in a min-heap
+        long[] heap = new long[Math.min(limit, hits.size)];
+        int heapSize = 0;
+        for (int i = 0; i < hits.size; i++) {
+            int item = hits.items[i];
+            if (categoryId != null && !categoryId.equals(items.get(item).getCategoryId())) {
+                continue;
+            }
+            long key = ((long) scores[item] << 32) | (Integer.MAX_VALUE - nameOrder[item]);
+            if (heapSize < heap.length) {
+                heap[heapSize++] = key;
+                siftUp(heap, heapSize - 1);
+            } else if (key > heap[0]) {
+                heap[0] = key;
+                siftDown(heap, heapSize);
+            }
+        }
+
+        ItemResponse[] results = new ItemResponse[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            results[i] = items.get(itemsByName[Integer.MAX_VALUE - (int) heap[0]]);
+            heap[0] = heap[i];
+            siftDown(heap, i);
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Adds the items of a matching term to the scores of the current token. An item only counts if it
+     * matched every previous token, and only its best matching term counts for each token.
+     */
+    private void score(int term, int matchKind, int token, int[] scores, int[] matched, int[] tokenScores, Hits hits) {
+        int[] termItems = postings[term];
+        byte[] termWeights = weights[term];
+        for (int i = 0; i < termItems.length; i++) {
+            int item = termItems[i];
+            int score = termWeights[i] * matchKind;
+            if (matched[item] == token) {
+                matched[item] = token + 1;
+                scores[item] += score;
+                tokenScores[item] = score;
+                hits.add(item);
+            } else if (matched[item] == token + 1 && score > tokenScores[item]) {
+                scores[item] += score - tokenScores[item];
+                tokenScores[item] = score;
+            }
+        }
+    }
+
+    /**
+     * Finds the terms that start with the token, give or take one or two typos. Typos in the first character
+     * are not tolerated, which limits the scan to the terms sharing it.
+     */
+    private List<Integer> fuzzyTerms(String token) {
+        int maxTypos = token.length() >= TWO_TYPOS_LENGTH ? 2 : token.length() >= ONE_TYPO_LENGTH ? 1 : 0;
+        if (maxTypos == 0) {
+            return List.of();
+        }
+        String first = token.substring(0, 1);
+        int from = lowerBound(first);
+        int to = lowerBound(first + Character.MAX_VALUE);
+        List<Integer> matches = new ArrayList<>();
+        for (int term = from; term < to; term++) {
+            if (terms[term].length() >= token.length() - maxTypos && prefixDistance(token, terms[term], maxTypos) <= maxTypos) {
+                matches.add(term);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Edit distance between the token and the closest prefix of the term, counting insertions, deletions,
+     * substitutions and swaps of adjacent characters. Gives up once the distance exceeds the maximum.
+     */
+    static int prefixDistance(String token, String term, int max) {
+        int columns = term.length() + 1;
+        int[] previous2 = new int[columns];
+        int[] previous = new int[columns];
+        int[] current = new int[columns];
+        for (int j = 0; j < columns; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= token.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j < columns; j++) {
+                int cost = token.charAt(i - 1) == term.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && token.charAt(i - 1) == term.charAt(j - 2) && token.charAt(i - 2) == term.charAt(j - 1)) {
+                    distance = Math.min(distance, previous2[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > max) {
+                return rowMin;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        int distance = Integer.MAX_VALUE;
+        for (int j = 0; j < columns; j++) {
+            distance = Math.min(distance, previous[j]);
+        }
+        return distance;
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= heap[index]) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && heap[left] < heap[smallest]) {
+                smallest = left;
+            }
+            if (right < size && heap[right] < heap[smallest]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(heap, smallest, index);
+            index = smallest;
+        }
+    }
+
+    private static void swap(long[] heap, int i, int j) {
+        long value = heap[i];
+        heap[i] = heap[j];
+        heap[j] = value;
+    }
+
+    // Index of the first term not smaller than the value
+    private int lowerBound(String value) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (terms[middle].compareTo(value) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static String nameOf(ItemResponse item) {
+        return item.getName() != null ? item.getName() : "";
+    }
+
+    private static void addTokens(Map<String, Postings> byTerm, String text, int item, int weight) {
+        for (String token : tokenize(text)) {
+            byTerm.computeIfAbsent(token, key -> new Postings()).add(item, weight);
+        }
+    }
+
+    private static List<String> queryTokens(String query) {
+        Set<String> tokens = new LinkedHashSet<>(tokenize(query));
+        return new ArrayList<>(tokens).subList(0, Math.min(tokens.size(), MAX_QUERY_TOKENS));
+    }
+
+    /**
+     * Splits text into lower case runs of letters and digits.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Items matching every token so far.
+     */
+    private static class Hits {
+        private int[] items = new int[64];
+        private int size;
+
+        void add(int item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = item;
+        }
+    }
+
+    /**
+     * Items of one term while the index is being built. Items are added in ascending order.
+     */
+    private static class Postings {
+        private int[] items = new int[4];
+        private byte[] weights = new byte[4];
+        private int size;
+
+        void add(int item, int weight) {
+            if (size > 0 && items[size - 1] == item) {
+                weights[size - 1] = (byte) Math.max(weights[size - 1], weight);
+                return;
+            }
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            items[size] = item;
+            weights[size] = (byte) weight;
+            size++;
+        }
+    }
+}
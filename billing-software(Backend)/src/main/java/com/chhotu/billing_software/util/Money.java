@@ -0,0 +1,50 @@
+package com.chhotu.billing_software.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Money is held everywhere as a long count of paise (1 INR = 100 paise), so totals are exact integer sums.
+ * These helpers cover the few places where rupees are still read or written.
+ */
+public final class Money {
+
+    public static final long PAISE_PER_RUPEE = 100;
+
+    private Money() {
+    }
+
+    /**
+     * Converts a rupee amount to paise.
+     * @param rupees The amount in rupees, with at most two decimals.
+     * @return The amount in paise.
+     * @throws ArithmeticException If the amount has a fraction of a paisa or does not fit in a long.
+     */
+    public static long fromRupees(BigDecimal rupees) {
+        return rupees.movePointRight(2).longValueExact();
+    }
+
+    /**
+     * @param paise An amount in paise.
+     * @return The same amount in rupees, with two decimals.
+     */
+    public static BigDecimal toRupees(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    /**
+     * Computes a percentage of an amount, rounding half up to the nearest paisa.
+     * @param paise The amount in paise, not negative.
+     * @param basisPoints The rate in hundredths of a percent (100 = 1%).
+     * @return The rounded share in paise.
+     */
+    public static long percentage(long paise, long basisPoints) {
+        return (Math.multiplyExact(paise, basisPoints) + 5_000) / 10_000;
+    }
+
+    /**
+     * @return The price of a line, failing instead of overflowing.
+     */
+    public static long times(long paise, int quantity) {
+        return Math.multiplyExact(paise, quantity);
+    }
+}
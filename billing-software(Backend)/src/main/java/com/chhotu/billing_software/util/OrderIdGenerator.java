@@ -0,0 +1,98 @@
+package com.chhotu.billing_software.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates unique, time-ordered order IDs without locking.
+ * Each ID packs a millisecond timestamp, the node ID of this instance and a per-millisecond sequence,
+ * so several app instances can bill at thousands of orders per second without collisions.
+ */
+@Component
+public class OrderIdGenerator {
+
+    private static final String PREFIX = "ORD";
+
+    // 2025-01-01T00:00:00Z, keeps the 41 timestamp bits usable for ~69 years
+    private static final long EPOCH = 1735689600000L;
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    // Order IDs used to be "ORD" + System.currentTimeMillis(); those numbers stay below this bound
+    private static final long FIRST_PACKED_ID = 10_000_000_000_000L;
+
+    private final long nodeId;
+
+    // Last issued (timestamp << SEQUENCE_BITS | sequence)
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * @param nodeId The node ID of this instance (0-1023). It must be configured: a node ID derived from the host
+     *               could be shared by two instances, which would then issue the same order IDs.
+     */
+    public OrderIdGenerator(@Value("${order.id.node-id:-1}") long nodeId) {
+        if (nodeId < 0) {
+            throw new IllegalStateException("order.id.node-id is not set; give each instance sharing the database its own node ID");
+        }
+        if (nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("order.id.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * @return The node ID of this instance.
+     */
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Reads back the node ID packed into an order ID.
+     * @param orderId An order ID.
+     * @return The node ID of the instance that issued it, or -1 for an order ID from before node IDs.
+     */
+    public static long nodeIdOf(String orderId) {
+        if (orderId == null || !orderId.startsWith(PREFIX)) {
+            return -1;
+        }
+        long id;
+        try {
+            id = Long.parseLong(orderId.substring(PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        return id < FIRST_PACKED_ID ? -1 : (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+
+    /**
+     * Generates the next order ID.
+     * @return A unique order ID such as "ORD123456789012345".
+     */
+    public String nextOrderId() {
+        return PREFIX + nextId();
+    }
+
+    /**
+     * Generates the next numeric ID. IDs are strictly increasing on this node, even if the clock moves back;
+     * when a millisecond's sequence is exhausted the ID borrows from the next millisecond.
+     * @return The next ID.
+     */
+    public long nextId() {
+        while (true) {
+            long last = state.get();
+            long now = System.currentTimeMillis() - EPOCH;
+            long next = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+            if (state.compareAndSet(last, next)) {
+                return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+                        | (nodeId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+}
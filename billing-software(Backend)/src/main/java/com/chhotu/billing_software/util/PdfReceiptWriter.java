@@ -0,0 +1,119 @@
+package com.chhotu.billing_software.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes receipt lines as a single-page PDF sized to a thermal roll.
+ * Courier and Courier-Bold are standard PDF fonts, so nothing is embedded, and a monospace font keeps
+ * the columns of the layout aligned. The objects that never change (catalog, page tree, fonts and the
+ * content stream of the shared header) are encoded once when the writer is created.
+ */
+public class PdfReceiptWriter {
+
+    private static final int FONT_SIZE = 8;
+    private static final int LEADING = 10;
+    private static final int MARGIN = 10;
+
+    // Courier glyphs are 600/1000 of the font size wide
+    private static final double CHAR_WIDTH = FONT_SIZE * 0.6;
+
+    private static final byte[] PREAMBLE = ascii("%PDF-1.4\n");
+    private static final byte[] CATALOG = ascii("1 0 obj\n<< /Type /Catalog /Pages 2 0 R >>\nendobj\n");
+    private static final byte[] PAGES = ascii("2 0 obj\n<< /Type /Pages /Kids [3 0 R] /Count 1 >>\nendobj\n");
+    private static final byte[] REGULAR_FONT = ascii(
+            "4 0 obj\n<< /Type /Font /Subtype /Type1 /BaseFont /Courier /Encoding /WinAnsiEncoding >>\nendobj\n");
+    private static final byte[] BOLD_FONT = ascii(
+            "5 0 obj\n<< /Type /Font /Subtype /Type1 /BaseFont /Courier-Bold /Encoding /WinAnsiEncoding >>\nendobj\n");
+
+    private final int pageWidth;
+
+    // Text operators of the lines printed on every receipt
+    private final byte[] headerText;
+    private final byte[] footerText;
+    private final int fixedLines;
+
+    public PdfReceiptWriter(ReceiptLayout layout) {
+        this.pageWidth = (int) Math.ceil(2 * MARGIN + layout.width() * CHAR_WIDTH);
+        this.headerText = text(layout.header());
+        this.footerText = text(layout.footer());
+        this.fixedLines = layout.header().size() + layout.footer().size();
+    }
+
+    /**
+     * @param body The lines of the order, printed between the shared header and footer.
+     * @return The PDF document.
+     */
+    public byte[] write(List<ReceiptLayout.Line> body) {
+        int pageHeight = 2 * MARGIN + (fixedLines + body.size()) * LEADING;
+        byte[] bodyText = text(body);
+
+        ByteArrayOutputStream content = new ByteArrayOutputStream(headerText.length + bodyText.length + footerText.length + 64);
+        content.writeBytes(ascii("BT\n" + LEADING + " TL\n" + MARGIN + " " + (pageHeight - MARGIN - FONT_SIZE) + " Td\n"));
+        content.writeBytes(headerText);
+        content.writeBytes(bodyText);
+        content.writeBytes(footerText);
+        content.writeBytes(ascii("ET\n"));
+
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream(content.size() + 1024);
+        long[] offsets = new long[7];
+        pdf.writeBytes(PREAMBLE);
+        offsets[1] = pdf.size();
+        pdf.writeBytes(CATALOG);
+        offsets[2] = pdf.size();
+        pdf.writeBytes(PAGES);
+        offsets[3] = pdf.size();
+        pdf.writeBytes(ascii("3 0 obj\n<< /Type /Page /Parent 2 0 R /MediaBox [0 0 " + pageWidth + " " + pageHeight + "] " +
+                "/Resources << /Font << /F1 4 0 R /F2 5 0 R >> >> /Contents 6 0 R >>\nendobj\n"));
+        offsets[4] = pdf.size();
+        pdf.writeBytes(REGULAR_FONT);
+        offsets[5] = pdf.size();
+        pdf.writeBytes(BOLD_FONT);
+        offsets[6] = pdf.size();
+        pdf.writeBytes(ascii("6 0 obj\n<< /Length " + content.size() + " >>\nstream\n"));
+        pdf.writeBytes(content.toByteArray());
+        pdf.writeBytes(ascii("endstream\nendobj\n"));
+
+        long xref = pdf.size();
+        StringBuilder trailer = new StringBuilder(256).append("xref\n0 7\n0000000000 65535 f \n");
+        for (int i = 1; i < offsets.length; i++) {
+            String offset = Long.toString(offsets[i]);
+            trailer.append("0".repeat(10 - offset.length())).append(offset).append(" 00000 n \n");
+        }
+        trailer.append("trailer\n<< /Size 7 /Root 1 0 R >>\nstartxref\n").append(xref).append("\n%%EOF\n");
+        pdf.writeBytes(ascii(trailer.toString()));
+        return pdf.toByteArray();
+    }
+
+    /**
+     * Encodes lines as text operators: the font, then the string and a move to the next line.
+     */
+    private static byte[] text(List<ReceiptLayout.Line> lines) {
+        StringBuilder text = new StringBuilder(lines.size() * 60);
+        for (ReceiptLayout.Line line : lines) {
+            text.append(line.bold() ? "/F2 " : "/F1 ").append(FONT_SIZE).append(" Tf (");
+            escape(line.text(), text);
+            text.append(") Tj T*\n");
+        }
+        return text.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    // Escapes PDF string delimiters; characters outside Latin-1 are printed as '?'
+    private static void escape(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20 || c > 0xFF) {
+                out.append('?');
+            } else {
+                out.append(c);
+            }
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,158 @@
+package com.chhotu.billing_software.util;
+
+import com.chhotu.billing_software.io.OrderResponse;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lays out a receipt as fixed-width text lines, shared by the PDF and ESC/POS writers.
+ * The header, footer and separators do not depend on the order, so they are built once.
+ */
+public class ReceiptLayout {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
+
+    // Columns taken by the quantity and the amount of an item row
+    private static final int QUANTITY_WIDTH = 5;
+    private static final int AMOUNT_WIDTH = 11;
+
+    private final int width;
+    private final List<Line> header;
+    private final List<Line> footer;
+    private final Line separator;
+    private final Line columns;
+
+    /**
+     * @param width Characters per line (42 for 80 mm rolls, 32 for 58 mm rolls).
+     * @param shopName Printed in bold at the top.
+     * @param address Lines printed under the shop name.
+     * @param footer Lines printed at the bottom.
+     */
+    public ReceiptLayout(int width, String shopName, List<String> address, List<String> footer) {
+        if (width < QUANTITY_WIDTH + AMOUNT_WIDTH + 8) {
+            throw new IllegalArgumentException("Receipt width is too small: " + width);
+        }
+        this.width = width;
+        this.separator = new Line("-".repeat(width), false);
+        this.columns = new Line(row("Item", "Qty", "Amount"), true);
+
+        List<Line> headerLines = new ArrayList<>();
+        headerLines.add(new Line(center(shopName), true));
+        address.forEach(line -> headerLines.add(new Line(center(line), false)));
+        headerLines.add(separator);
+        this.header = List.copyOf(headerLines);
+
+        List<Line> footerLines = new ArrayList<>();
+        footerLines.add(separator);
+        footer.forEach(line -> footerLines.add(new Line(center(line), false)));
+        this.footer = List.copyOf(footerLines);
+    }
+
+    public int width() {
+        return width;
+    }
+
+    /**
+     * @return The lines printed before every order, identical for all receipts.
+     */
+    public List<Line> header() {
+        return header;
+    }
+
+    /**
+     * @return The lines printed after every order, identical for all receipts.
+     */
+    public List<Line> footer() {
+        return footer;
+    }
+
+    /**
+     * Lays out the part of the receipt that depends on the order.
+     * @param order The order.
+     * @return The lines between the header and the footer.
+     */
+    public List<Line> body(OrderResponse order) {
+        List<Line> lines = new ArrayList<>(order.getItems().size() + 12);
+        lines.add(new Line(truncate("Order: " + order.getOrderId()), false));
+        if (order.getCreatedAt() != null) {
+            lines.add(new Line("Date: " + DATE_FORMAT.format(order.getCreatedAt()), false));
+        }
+        lines.add(new Line(truncate("Customer: " + nullToEmpty(order.getCustomerName())), false));
+        lines.add(new Line(truncate("Phone: " + nullToEmpty(order.getPhoneNumber())), false));
+        lines.add(separator);
+        lines.add(columns);
+        for (OrderResponse.OrderItemResponse item : order.getItems()) {
+            long amount = Money.times(item.getPrice(), item.getQuantity());
+            lines.add(new Line(row(item.getName(), String.valueOf(item.getQuantity()), rupees(amount)), false));
+        }
+        lines.add(separator);
+        lines.add(new Line(total("Subtotal", order.getSubtotal()), false));
+        lines.add(new Line(total("Tax (1%)", order.getTax()), false));
+        lines.add(new Line(total("Grand Total", order.getGrandTotal()), true));
+        if (order.getPaymentMethod() != null) {
+            String status = order.getPaymentDetails() != null && order.getPaymentDetails().getStatus() != null
+                    ? " (" + order.getPaymentDetails().getStatus() + ")"
+                    : "";
+            lines.add(new Line(truncate("Payment: " + order.getPaymentMethod() + status), false));
+        }
+        return lines;
+    }
+
+    private String row(String name, String quantity, String amount) {
+        int nameWidth = width - QUANTITY_WIDTH - AMOUNT_WIDTH;
+        StringBuilder row = new StringBuilder(width);
+        String shownName = nullToEmpty(name);
+        row.append(shownName, 0, Math.min(shownName.length(), nameWidth - 1));
+        pad(row, nameWidth);
+        padLeft(row, quantity, nameWidth + QUANTITY_WIDTH);
+        padLeft(row, amount, width);
+        return row.toString();
+    }
+
+    private String total(String label, Long paise) {
+        StringBuilder row = new StringBuilder(width).append(label);
+        padLeft(row, "Rs " + rupees(paise != null ? paise : 0L), width);
+        return row.toString();
+    }
+
+    private String center(String text) {
+        String shown = truncate(text);
+        StringBuilder line = new StringBuilder(width);
+        pad(line, (width - shown.length()) / 2);
+        return line.append(shown).toString();
+    }
+
+    private String truncate(String text) {
+        return text.length() > width ? text.substring(0, width) : text;
+    }
+
+    private static String rupees(long paise) {
+        return Money.toRupees(paise).toPlainString();
+    }
+
+    private static void pad(StringBuilder builder, int length) {
+        while (builder.length() < length) {
+            builder.append(' ');
+        }
+    }
+
+    // Right-aligns the value so that it ends at the given column
+    private static void padLeft(StringBuilder builder, String value, int end) {
+        pad(builder, end - value.length());
+        builder.append(value);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    /**
+     * One line of the receipt.
+     * @param text The text, at most the receipt width.
+     * @param bold Whether the line is printed in bold.
+     */
+    public record Line(String text, boolean bold) {
+    }
+}
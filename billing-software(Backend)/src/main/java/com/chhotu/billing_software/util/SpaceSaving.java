@@ -0,0 +1,117 @@
+package com.chhotu.billing_software.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy hitters sketch: tracks the most frequent keys of a stream in a fixed number of counters.
+ * When every counter is taken, a new key replaces the smallest one and inherits its count as its error,
+ * so the count of a tracked key overestimates its true count by at most its error.
+ * Any key whose true count exceeds total / capacity is guaranteed to be tracked.
+ */
+public class SpaceSaving<K> {
+
+    private final int capacity;
+    private final Map<K, Counter<K>> counters;
+    private long total;
+
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Adds an occurrence count to a key.
+     * @param key The key.
+     * @param count The number of occurrences, must be positive.
+     */
+    public synchronized void offer(K key, long count) {
+        if (count <= 0) {
+            return;
+        }
+        total += count;
+        Counter<K> counter = counters.get(key);
+        if (counter != null) {
+            counter.count += count;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new Counter<>(key, count, 0));
+            return;
+        }
+        // Evict the smallest counter; the new key takes over its count as the error bound
+        Counter<K> smallest = null;
+        for (Counter<K> candidate : counters.values()) {
+            if (smallest == null || candidate.count < smallest.count) {
+                smallest = candidate;
+            }
+        }
+        counters.remove(smallest.key);
+        counters.put(key, new Counter<>(key, smallest.count + count, smallest.count));
+    }
+
+    /**
+     * Restores a counter saved by a checkpoint.
+     * @param key The key.
+     * @param count The estimated count of the key.
+     * @param error The error bound of the count.
+     */
+    public synchronized void restore(K key, long count, long error) {
+        if (counters.size() >= capacity && !counters.containsKey(key)) {
+            return;
+        }
+        total += count - error;
+        counters.put(key, new Counter<>(key, count, error));
+    }
+
+    /**
+     * Lists the most frequent keys, highest estimated count first.
+     * @param limit The maximum number of keys to return.
+     * @return Copies of the top counters.
+     */
+    public synchronized List<Counter<K>> top(int limit) {
+        List<Counter<K>> result = new ArrayList<>(counters.size());
+        for (Counter<K> counter : counters.values()) {
+            result.add(new Counter<>(counter.key, counter.count, counter.error));
+        }
+        result.sort(Comparator.comparingLong((Counter<K> counter) -> counter.count).reversed());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * @return The sum of all the counts offered.
+     */
+    public synchronized long total() {
+        return total;
+    }
+
+    public static final class Counter<K> {
+        private final K key;
+        private long count;
+        private final long error;
+
+        private Counter(K key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.chhotu.billing_software.controller;
+
+import com.chhotu.billing_software.entity.CategoryEntity;
+import com.chhotu.billing_software.repository.CatalogChangeRepository;
+import com.chhotu.billing_software.repository.CategoryRepository;
+import com.chhotu.billing_software.repository.ItemRepository;
+import com.chhotu.billing_software.service.FileUploadService;
+import com.chhotu.billing_software.service.impl.CatalogChangeServiceImpl;
+import com.chhotu.billing_software.service.impl.CatalogServiceImpl;
+import com.chhotu.billing_software.service.impl.CategoryServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs without a test transaction, so the catalog is refreshed after each change the way it is after a commit.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CategoryControllerTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CatalogChangeRepository catalogChangeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private CategoryServiceImpl categoryService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        categoryRepository.save(CategoryEntity.builder().categoryId("snacks").name("Snacks").build());
+
+        FileUploadService fileUploadService = mock(FileUploadService.class);
+        when(fileUploadService.uploadFile(any())).thenReturn("https://bucket.s3.amazonaws.com/drinks.jpg");
+        when(fileUploadService.deleteFile(any())).thenReturn(true);
+        CatalogServiceImpl catalogService = new CatalogServiceImpl(itemRepository, catalogChangeRepository);
+        CatalogChangeServiceImpl catalogChangeService = new CatalogChangeServiceImpl(catalogChangeRepository, itemRepository, categoryRepository, jdbcTemplate);
+        categoryService = spy(new CategoryServiceImpl(categoryRepository, fileUploadService, itemRepository, catalogService, catalogChangeService));
+        mockMvc = MockMvcBuilders.standaloneSetup(new CategoryController(categoryService, catalogService)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tbl_catalog_changes");
+        jdbcTemplate.update("DELETE FROM tbl_catalog_change_lock");
+        jdbcTemplate.update("DELETE FROM tbl_category");
+    }
+
+    @Test
+    void aCurrentETagIsAnsweredWithoutReadingTheCategories() throws Exception {
+        String eTag = mockMvc.perform(get("/categories"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/categories").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        verify(categoryService, times(1)).read();
+    }
+
+    @Test
+    void theETagChangesWhenACategoryIsAddedOrDeleted() throws Exception {
+        String before = mockMvc.perform(get("/categories")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(multipart("/admin/categories")
+                        .file(new MockMultipartFile("category", "", "application/json", "{\"name\":\"Drinks\"}".getBytes()))
+                        .file(new MockMultipartFile("file", "drinks.jpg", "image/jpeg", new byte[] {1, 2, 3})))
+                .andExpect(status().isCreated());
+        String added = mockMvc.perform(get("/categories").header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(added).isNotEqualTo(before);
+
+        mockMvc.perform(delete("/admin/categories/snacks")).andExpect(status().isNoContent());
+        String deleted = mockMvc.perform(get("/categories").header(HttpHeaders.IF_NONE_MATCH, added))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(deleted).isNotEqualTo(added).isNotEqualTo(before);
+    }
+}
@@ -0,0 +1,117 @@
+package com.chhotu.billing_software.controller;
+
+import com.chhotu.billing_software.entity.CategoryEntity;
+import com.chhotu.billing_software.repository.CatalogChangeRepository;
+import com.chhotu.billing_software.repository.CategoryRepository;
+import com.chhotu.billing_software.repository.ItemRepository;
+import com.chhotu.billing_software.service.FileUploadService;
+import com.chhotu.billing_software.service.impl.CatalogChangeServiceImpl;
+import com.chhotu.billing_software.service.impl.CatalogServiceImpl;
+import com.chhotu.billing_software.service.impl.ItemServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs without a test transaction, so the catalog is refreshed after each change the way it is after a commit.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ItemControllerTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CatalogChangeRepository catalogChangeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ItemServiceImpl itemService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        categoryRepository.save(CategoryEntity.builder().categoryId("snacks").name("Snacks").build());
+
+        FileUploadService fileUploadService = mock(FileUploadService.class);
+        when(fileUploadService.uploadFile(any())).thenReturn("https://bucket.s3.amazonaws.com/samosa.jpg");
+        when(fileUploadService.deleteFile(any())).thenReturn(true);
+        CatalogServiceImpl catalogService = new CatalogServiceImpl(itemRepository, catalogChangeRepository);
+        CatalogChangeServiceImpl catalogChangeService = new CatalogChangeServiceImpl(catalogChangeRepository, itemRepository, categoryRepository, jdbcTemplate);
+        itemService = spy(new ItemServiceImpl(fileUploadService, categoryRepository, itemRepository, catalogService, catalogChangeService));
+        mockMvc = MockMvcBuilders.standaloneSetup(new ItemController(itemService, catalogService, null)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tbl_catalog_changes");
+        jdbcTemplate.update("DELETE FROM tbl_catalog_change_lock");
+        jdbcTemplate.update("DELETE FROM tbl_items");
+        jdbcTemplate.update("DELETE FROM tbl_category");
+    }
+
+    @Test
+    void aCurrentETagIsAnsweredWithoutReadingTheItems() throws Exception {
+        String eTag = mockMvc.perform(get("/items"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/items").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        verify(itemService, times(1)).fetchItems();
+    }
+
+    @Test
+    void theETagChangesWhenAnItemIsAddedOrDeleted() throws Exception {
+        String empty = mockMvc.perform(get("/items")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(multipart("/admin/items")
+                        .file(new MockMultipartFile("item", "", "application/json",
+                                "{\"name\":\"Samosa\",\"price\":1500,\"categoryId\":\"snacks\"}".getBytes()))
+                        .file(new MockMultipartFile("file", "samosa.jpg", "image/jpeg", new byte[] {1, 2, 3})))
+                .andExpect(status().isCreated());
+        String added = mockMvc.perform(get("/items").header(HttpHeaders.IF_NONE_MATCH, empty))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(added).isNotEqualTo(empty);
+
+        String itemId = itemRepository.findAll().get(0).getItemId();
+        mockMvc.perform(delete("/admin/items/" + itemId)).andExpect(status().isNoContent());
+        String deleted = mockMvc.perform(get("/items").header(HttpHeaders.IF_NONE_MATCH, added))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(deleted).isNotEqualTo(added).isNotEqualTo(empty);
+    }
+}
@@ -0,0 +1,118 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.entity.CategoryEntity;
+import com.chhotu.billing_software.io.CatalogChangesResponse;
+import com.chhotu.billing_software.io.CategoryRequest;
+import com.chhotu.billing_software.io.CategoryResponse;
+import com.chhotu.billing_software.io.ItemRequest;
+import com.chhotu.billing_software.io.ItemResponse;
+import com.chhotu.billing_software.repository.CatalogChangeRepository;
+import com.chhotu.billing_software.repository.CategoryRepository;
+import com.chhotu.billing_software.repository.ItemRepository;
+import com.chhotu.billing_software.service.CatalogService;
+import com.chhotu.billing_software.service.FileUploadService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+class CatalogChangeServiceImplTest {
+
+    @Autowired
+    private CatalogChangeRepository catalogChangeRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private CatalogChangeServiceImpl catalogChangeService;
+
+    private ItemServiceImpl itemService;
+
+    private CategoryServiceImpl categoryService;
+
+    @BeforeEach
+    void setUp() {
+        categoryRepository.save(CategoryEntity.builder().categoryId("snacks").name("Snacks").build());
+
+        FileUploadService fileUploadService = mock(FileUploadService.class);
+        when(fileUploadService.uploadFile(any())).thenReturn("https://bucket.s3.amazonaws.com/image.jpg");
+        when(fileUploadService.deleteFile(any())).thenReturn(true);
+        CatalogService catalogService = mock(CatalogService.class);
+
+        catalogChangeService = new CatalogChangeServiceImpl(catalogChangeRepository, itemRepository, categoryRepository, jdbcTemplate);
+        ReflectionTestUtils.setField(catalogChangeService, "retentionDays", 90);
+        itemService = new ItemServiceImpl(fileUploadService, categoryRepository, itemRepository, catalogService, catalogChangeService);
+        categoryService = new CategoryServiceImpl(categoryRepository, fileUploadService, itemRepository, catalogService, catalogChangeService);
+    }
+
+    @Test
+    void aSyncReturnsTheCurrentStateOfWhatChangedAndTombstones() {
+        itemService.add(item("Chai"), null);
+
+        // A register that never synced fetches everything, and syncs from the current version afterwards
+        CatalogChangesResponse first = catalogChangeService.getChangesSince(null);
+        assertThat(first.getFullSync()).isTrue();
+        assertThat(first.getVersion()).isEqualTo(catalogChangeRepository.findLatestId());
+
+        ItemResponse samosa = itemService.add(item("Samosa"), null);
+        ItemResponse vadaPav = itemService.add(item("Vada Pav"), null);
+        itemService.deleteItem(samosa.getItemId());
+        CategoryResponse drinks = categoryService.add(CategoryRequest.builder().name("Drinks").build(), null);
+        categoryService.delete(drinks.getCategoryId());
+
+        CatalogChangesResponse changes = catalogChangeService.getChangesSince(first.getVersion());
+        assertThat(changes.getFullSync()).isFalse();
+        assertThat(changes.getItems()).extracting(ItemResponse::getItemId).containsExactly(vadaPav.getItemId());
+        assertThat(changes.getDeletedItemIds()).containsExactly(samosa.getItemId());
+        assertThat(changes.getCategories()).extracting(CategoryResponse::getCategoryId, CategoryResponse::getItems)
+                .containsExactly(tuple("snacks", 2));
+        assertThat(changes.getDeletedCategoryIds()).containsExactly(drinks.getCategoryId());
+        // Ids commit in order, so the register syncs from the latest change straight away
+        assertThat(changes.getVersion()).isEqualTo(catalogChangeRepository.findLatestId());
+
+        CatalogChangesResponse upToDate = catalogChangeService.getChangesSince(changes.getVersion());
+        assertThat(upToDate.getFullSync()).isFalse();
+        assertThat(upToDate.getVersion()).isEqualTo(changes.getVersion());
+        assertThat(upToDate.getItems()).isEmpty();
+        assertThat(upToDate.getDeletedItemIds()).isEmpty();
+    }
+
+    @Test
+    void registersBehindThePrunedChangesSyncFully() {
+        itemService.add(item("Samosa"), null);
+        itemService.add(item("Chai"), null);
+        jdbcTemplate.update("UPDATE tbl_catalog_changes SET changed_at = ?", Timestamp.valueOf(LocalDateTime.now().minusDays(100)));
+
+        // Everything but the latest change is pruned
+        assertThat(catalogChangeService.pruneChanges()).isEqualTo(3);
+        long latest = catalogChangeRepository.findLatestId();
+
+        CatalogChangesResponse behind = catalogChangeService.getChangesSince(latest - 2);
+        assertThat(behind.getFullSync()).isTrue();
+        assertThat(behind.getVersion()).isEqualTo(latest);
+        assertThat(catalogChangeService.getChangesSince(latest).getFullSync()).isFalse();
+        assertThat(catalogChangeService.getChangesSince(latest + 10).getFullSync()).isTrue();
+    }
+
+    private static ItemRequest item(String name) {
+        return ItemRequest.builder().name(name).price(1500L).categoryId("snacks").build();
+    }
+}
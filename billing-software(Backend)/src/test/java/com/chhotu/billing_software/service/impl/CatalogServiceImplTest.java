@@ -0,0 +1,140 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.entity.CatalogChangeEntity;
+import com.chhotu.billing_software.entity.CategoryEntity;
+import com.chhotu.billing_software.entity.ItemEntity;
+import com.chhotu.billing_software.io.CatalogSnapshot;
+import com.chhotu.billing_software.io.ItemPageResponse;
+import com.chhotu.billing_software.io.ItemResponse;
+import com.chhotu.billing_software.repository.CatalogChangeRepository;
+import com.chhotu.billing_software.repository.CategoryRepository;
+import com.chhotu.billing_software.repository.ItemRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.sql.Timestamp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(CatalogServiceImpl.class)
+class CatalogServiceImplTest {
+
+    @Autowired
+    private CatalogServiceImpl catalogService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CatalogChangeRepository catalogChangeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // Four categories of five items each
+        for (int c = 0; c < 4; c++) {
+            CategoryEntity category = categoryRepository.save(CategoryEntity.builder()
+                    .categoryId("category-" + c)
+                    .name("Category " + c)
+                    .build());
+            for (int i = 0; i < 5; i++) {
+                itemRepository.save(ItemEntity.builder()
+                        .itemId("item-" + c + "-" + i)
+                        .name("Item " + i)
+                        .price(1000L)
+                        .category(category)
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void snapshotIsBuiltWithOneQueryAndThenServedFromMemory() {
+        catalogService.refresh();
+        // The latest change id, then the items with their categories
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        CatalogSnapshot snapshot = catalogService.getSnapshot();
+        assertThat(snapshot.items()).hasSize(20);
+        assertThat(snapshot.items().get(0).getCategoryName()).isEqualTo("Category 0");
+        assertThat(catalogService.getSnapshot()).isSameAs(snapshot);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void refreshInstallsANewerVersion() {
+        CatalogSnapshot before = catalogService.getSnapshot();
+        itemRepository.deleteAll(itemRepository.findAll().subList(0, 5));
+        recordChange();
+
+        catalogService.refresh();
+
+        CatalogSnapshot after = catalogService.getSnapshot();
+        assertThat(after.version()).isGreaterThan(before.version());
+        assertThat(after.items()).hasSize(15);
+        assertThat(before.items()).hasSize(20);
+    }
+
+    @Test
+    void pollingReloadsOnlyWhenTheChangeLogMoved() {
+        catalogService.refresh();
+        CatalogSnapshot before = catalogService.getSnapshot();
+
+        catalogService.refreshIfChanged();
+        assertThat(catalogService.getSnapshot()).isSameAs(before);
+
+        // A change made through another instance only shows in the change log
+        itemRepository.deleteAll(itemRepository.findAll().subList(0, 5));
+        recordChange();
+        catalogService.refreshIfChanged();
+
+        assertThat(catalogService.getSnapshot().items()).hasSize(15);
+        assertThat(catalogService.getVersion()).isGreaterThan(before.version());
+    }
+
+    @Test
+    void itemsOfACategoryArePagedByKeyset() {
+        ItemServiceImpl itemService = new ItemServiceImpl(null, categoryRepository, itemRepository, catalogService, null);
+
+        ItemPageResponse first = itemService.fetchItemPage("category-2", null, 3);
+        assertThat(first.getItems()).extracting(ItemResponse::getItemId).containsExactly("item-2-0", "item-2-1", "item-2-2");
+        assertThat(first.getHasMore()).isTrue();
+
+        ItemPageResponse second = itemService.fetchItemPage("category-2", first.getNextCursor(), 3);
+        assertThat(second.getItems()).extracting(ItemResponse::getItemId).containsExactly("item-2-3", "item-2-4");
+        assertThat(second.getHasMore()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+
+        assertThat(itemService.fetchItemPage("missing", null, 3).getItems()).isEmpty();
+        assertThat(itemService.fetchItemPage(null, first.getNextCursor(), 100).getItems()).hasSize(7);
+    }
+
+    private void recordChange() {
+        catalogChangeRepository.save(CatalogChangeEntity.builder()
+                .type(CatalogChangeEntity.Type.ITEM)
+                .entityId("item-0-0")
+                .deleted(true)
+                .changedAt(new Timestamp(System.currentTimeMillis()))
+                .build());
+        entityManager.flush();
+    }
+}
@@ -0,0 +1,72 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.entity.CategoryEntity;
+import com.chhotu.billing_software.entity.ItemEntity;
+import com.chhotu.billing_software.io.CategoryResponse;
+import com.chhotu.billing_software.repository.CategoryRepository;
+import com.chhotu.billing_software.repository.ItemRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CategoryServiceImplTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private CategoryServiceImpl categoryService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // Category i has i items, so the first one is empty
+        for (int c = 0; c < 10; c++) {
+            CategoryEntity category = categoryRepository.save(CategoryEntity.builder()
+                    .categoryId("category-" + c)
+                    .name("Category " + c)
+                    .build());
+            for (int i = 0; i < c; i++) {
+                itemRepository.save(ItemEntity.builder()
+                        .itemId("item-" + c + "-" + i)
+                        .name("Item " + i)
+                        .price(1000L)
+                        .category(category)
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // Listing categories needs neither file uploads nor the catalog snapshot
+        categoryService = new CategoryServiceImpl(categoryRepository, null, itemRepository, null, null);
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void categoriesAreListedWithTheirItemCountsInTwoQueries() {
+        List<CategoryResponse> categories = categoryService.read();
+
+        assertThat(categories).hasSize(10);
+        assertThat(categories).allSatisfy(category ->
+                assertThat(category.getItems()).isEqualTo(Integer.parseInt(category.getCategoryId().substring("category-".length()))));
+        // One query for the categories, one for the grouped counts
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,122 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.io.DashboardResponse;
+import com.chhotu.billing_software.io.OrderResponse;
+import com.chhotu.billing_software.io.PaymentDetails;
+import com.chhotu.billing_software.repository.OrderEntityRepository;
+import com.chhotu.billing_software.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DashboardServiceImplTest {
+
+    private DashboardServiceImpl dashboardService;
+
+    private OrderEntityRepository orderEntityRepository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // Two orders were placed today before the application started
+        orderEntityRepository = mock(OrderEntityRepository.class);
+        when(orderEntityRepository.findTotalsCreatedBetween(any(), any()))
+                .thenReturn(List.of(new Object[] {"ORD1", 4000L}, new Object[] {"ORD2", 6000L}));
+
+        OrderService orderService = mock(OrderService.class);
+        when(orderService.findRecentOrders()).thenReturn(List.of(order("ORD2", 6000L), order("ORD1", 4000L)));
+        ObjectProvider<OrderService> orderServiceProvider = mock(ObjectProvider.class);
+        when(orderServiceProvider.getObject()).thenReturn(orderService);
+
+        dashboardService = new DashboardServiceImpl(orderEntityRepository, orderServiceProvider, null);
+        dashboardService.seed();
+    }
+
+    @Test
+    void countersStartFromTodaysOrdersAndFollowNewOrders() {
+        dashboardService.recordOrderCreated(order("ORD3", 2500L));
+
+        DashboardResponse dashboard = dashboardService.getDashboard();
+        assertThat(dashboard.getTodayOrderCount()).isEqualTo(3);
+        assertThat(dashboard.getTodaySales()).isEqualTo(12500L);
+        assertThat(dashboard.getRecentOrders()).extracting(OrderResponse::getOrderId)
+                .containsExactly("ORD3", "ORD2", "ORD1");
+    }
+
+    @Test
+    void anOrderReadByTheSeedAndReportedAfterItsCommitCountsOnce() {
+        dashboardService.recordOrderCreated(order("ORD2", 6000L));
+        dashboardService.recordOrderDeleted(order("ORD1", 4000L));
+        dashboardService.recordOrderCreated(order("ORD1", 4000L));
+
+        DashboardResponse dashboard = dashboardService.getDashboard();
+        assertThat(dashboard.getTodayOrderCount()).isEqualTo(1);
+        assertThat(dashboard.getTodaySales()).isEqualTo(6000L);
+    }
+
+    @Test
+    void refreshCountsTheOrdersOfTheOtherInstances() {
+        // Another instance deleted ORD1 and created ORD4
+        when(orderEntityRepository.findTotalsCreatedBetween(any(), any()))
+                .thenReturn(List.of(new Object[] {"ORD2", 6000L}, new Object[] {"ORD4", 1500L}));
+
+        dashboardService.refresh();
+
+        DashboardResponse dashboard = dashboardService.getDashboard();
+        assertThat(dashboard.getTodayOrderCount()).isEqualTo(2);
+        assertThat(dashboard.getTodaySales()).isEqualTo(7500L);
+    }
+
+    @Test
+    void theFirstOrderAfterMidnightStartsANewDayOnce() {
+        dashboardService.clock = Clock.offset(Clock.systemDefaultZone(), Duration.ofDays(1));
+
+        OrderResponse first = order("ORD3", 2500L);
+        first.setCreatedAt(LocalDateTime.now(dashboardService.clock));
+        dashboardService.recordOrderCreated(first);
+
+        DashboardResponse dashboard = dashboardService.getDashboard();
+        assertThat(dashboard.getTodayOrderCount()).isEqualTo(1);
+        assertThat(dashboard.getTodaySales()).isEqualTo(2500L);
+    }
+
+    @Test
+    void recentOrdersKeepOnlyTheNewestFive() {
+        for (int i = 3; i <= 10; i++) {
+            dashboardService.recordOrderCreated(order("ORD" + i, 100L));
+        }
+
+        assertThat(dashboardService.getDashboard().getRecentOrders()).extracting(OrderResponse::getOrderId)
+                .containsExactly("ORD10", "ORD9", "ORD8", "ORD7", "ORD6");
+    }
+
+    @Test
+    void paymentCompletionUpdatesTheRecentOrder() {
+        OrderResponse paid = order("ORD2", 6000L);
+        paid.getPaymentDetails().setStatus(PaymentDetails.PaymentStatus.COMPLETED);
+
+        dashboardService.recordPaymentCompleted(paid);
+
+        assertThat(dashboardService.getDashboard().getRecentOrders().get(0).getPaymentDetails().getStatus())
+                .isEqualTo(PaymentDetails.PaymentStatus.COMPLETED);
+    }
+
+    private OrderResponse order(String orderId, long grandTotal) {
+        return OrderResponse.builder()
+                .orderId(orderId)
+                .grandTotal(grandTotal)
+                .createdAt(LocalDateTime.now())
+                .paymentDetails(PaymentDetails.builder().status(PaymentDetails.PaymentStatus.PENDING).build())
+                .build();
+    }
+}
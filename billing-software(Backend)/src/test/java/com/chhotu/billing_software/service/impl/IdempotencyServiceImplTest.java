@@ -0,0 +1,66 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs without a test transaction so that each call commits like a real request.
+ */
+@DataJpaTest
+@Import({IdempotencyServiceImpl.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyServiceImplTest {
+
+    @Autowired
+    private IdempotencyServiceImpl idempotencyService;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Test
+    void retriesReturnTheOriginalResponseWithoutRunningAgain() {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger runs = new AtomicInteger();
+
+        String first = idempotencyService.execute("orders", key, String.class, () -> "ORD" + runs.incrementAndGet());
+        String retry = idempotencyService.execute("orders", key, String.class, () -> "ORD" + runs.incrementAndGet());
+
+        assertThat(first).isEqualTo("ORD1");
+        assertThat(retry).isEqualTo("ORD1");
+        assertThat(runs).hasValue(1);
+        assertThat(idempotencyKeyRepository.findById("orders:" + key)).get()
+                .extracting(entity -> entity.getResponse()).isEqualTo("\"ORD1\"");
+    }
+
+    @Test
+    void aFailedRequestCanBeRetriedWithTheSameKey() {
+        String key = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> idempotencyService.execute("orders", key, String.class, () -> {
+            throw new IllegalStateException("Register timed out");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(idempotencyKeyRepository.existsById("orders:" + key)).isFalse();
+        assertThat(idempotencyService.execute("orders", key, String.class, () -> "ORD2")).isEqualTo("ORD2");
+    }
+
+    @Test
+    void keysAreScopedPerEndpoint() {
+        String key = UUID.randomUUID().toString();
+
+        assertThat(idempotencyService.execute("orders", key, String.class, () -> "order")).isEqualTo("order");
+        assertThat(idempotencyService.execute("payments-verify", key, String.class, () -> "payment")).isEqualTo("payment");
+    }
+}
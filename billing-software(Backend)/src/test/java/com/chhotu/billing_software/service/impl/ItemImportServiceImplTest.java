@@ -0,0 +1,196 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.entity.CategoryEntity;
+import com.chhotu.billing_software.entity.ItemEntity;
+import com.chhotu.billing_software.io.CatalogChangesResponse;
+import com.chhotu.billing_software.io.CategoryResponse;
+import com.chhotu.billing_software.io.ItemImportJobResponse;
+import com.chhotu.billing_software.io.ItemResponse;
+import com.chhotu.billing_software.repository.CatalogChangeRepository;
+import com.chhotu.billing_software.repository.CategoryRepository;
+import com.chhotu.billing_software.repository.ItemRepository;
+import com.chhotu.billing_software.service.CatalogService;
+import com.chhotu.billing_software.service.FileUploadService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+class ItemImportServiceImplTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CatalogChangeRepository catalogChangeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @TempDir
+    private Path tempDir;
+
+    private FileUploadService fileUploadService;
+
+    private CatalogService catalogService;
+
+    private CatalogChangeServiceImpl catalogChangeService;
+
+    private ItemImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        categoryRepository.save(CategoryEntity.builder().categoryId("snacks").name("Snacks").build());
+        categoryRepository.save(CategoryEntity.builder().categoryId("drinks").name("Drinks").build());
+
+        fileUploadService = mock(FileUploadService.class);
+        when(fileUploadService.uploadFile(any(String.class), any(String.class), any(byte[].class)))
+                .thenAnswer(invocation -> "https://bucket.s3.amazonaws.com/" + invocation.getArgument(0));
+        catalogService = mock(CatalogService.class);
+        catalogChangeService = new CatalogChangeServiceImpl(catalogChangeRepository, itemRepository, categoryRepository, jdbcTemplate);
+
+        // Batches of two rows, so the upload of one batch overlaps the insert of the previous one
+        importService = new ItemImportServiceImpl(categoryRepository, fileUploadService, catalogService,
+                catalogChangeService, jdbcTemplate, transactionTemplate, 2, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    void validRowsAreImportedAndInvalidOnesReported() throws IOException {
+        Path csv = Files.writeString(tempDir.resolve("items.csv"),
+                "Name,Price,Category,Description,Image\n"
+                        + "Samosa,15,snacks,,samosa.jpg\n"
+                        + "\"Masala, Chai\",12.50,drinks,\"Hot\nand sweet\",\n"
+                        + "Vada Pav,not-a-price,snacks,,\n"
+                        + "Lassi,40,Sweets,,\n"
+                        + "Cold Coffee,60,DRINKS,,coffee.jpg\n"
+                        + "Kachori,20,Snacks,,missing.jpg\n"
+                        + "Poha,30,snacks,,\n");
+        Path images = tempDir.resolve("images.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(images))) {
+            for (String name : List.of("samosa.jpg", "coffee.jpg")) {
+                zip.putNextEntry(new ZipEntry(name));
+                zip.write(new byte[] {1, 2, 3});
+                zip.closeEntry();
+            }
+        }
+
+        ItemImportServiceImpl.ImportJob job = new ItemImportServiceImpl.ImportJob("job");
+        importService.runImport(job, csv, images);
+        ItemImportJobResponse response = job.toResponse();
+
+        assertThat(response.getStatus()).isEqualTo(ItemImportJobResponse.Status.COMPLETED);
+        assertThat(response.getProcessedRows()).isEqualTo(7);
+        assertThat(response.getImportedItems()).isEqualTo(4);
+        assertThat(response.getFailedRows()).isEqualTo(3);
+        assertThat(response.getErrors()).containsExactly(
+                "Line 5: price is not an amount in rupees: not-a-price",
+                "Line 6: category not found: Sweets",
+                "Line 8: image not found in the zip file: missing.jpg");
+
+        List<ItemEntity> items = itemRepository.findAll().stream()
+                .sorted(Comparator.comparing(ItemEntity::getId))
+                .toList();
+        assertThat(items).extracting(ItemEntity::getName).containsExactly("Samosa", "Masala, Chai", "Cold Coffee", "Poha");
+        assertThat(items).extracting(ItemEntity::getPrice).containsExactly(1500L, 1250L, 6000L, 3000L);
+        assertThat(items).extracting(item -> item.getCategory().getCategoryId()).containsExactly("snacks", "drinks", "drinks", "snacks");
+        assertThat(items.get(1).getDescription()).isEqualTo("Hot\nand sweet");
+        assertThat(items.get(0).getImgUrl()).isEqualTo("https://bucket.s3.amazonaws.com/samosa.jpg");
+        assertThat(items.get(3).getImgUrl()).isNull();
+
+        verify(fileUploadService).uploadFile(eq("coffee.jpg"), eq("image/jpeg"), any(byte[].class));
+        verify(catalogService, times(1)).refresh();
+
+        // The imported items are in the change log, along with the item counts of their categories
+        CatalogChangesResponse changes = catalogChangeService.getChangesSince(catalogChangeRepository.findOldestId() - 1);
+        assertThat(changes.getItems()).extracting(ItemResponse::getName).containsExactly("Samosa", "Masala, Chai", "Cold Coffee", "Poha");
+        assertThat(changes.getCategories()).extracting(CategoryResponse::getCategoryId, CategoryResponse::getItems)
+                .containsExactlyInAnyOrder(tuple("snacks", 2), tuple("drinks", 2));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void aRowTheDatabaseRejectsFailsAloneInItsBatch() throws IOException {
+        // Runs without a test transaction so a failed batch is really rolled back before its halves are retried
+        try {
+            Path csv = Files.writeString(tempDir.resolve("items.csv"),
+                    "Name,Price,Category,Description,Image\n"
+                            + "Samosa,15,snacks,,samosa.jpg\n"
+                            + "Kachori,20,snacks," + "x".repeat(300) + ",kachori.jpg\n"
+                            + "Poha,30,snacks,,\n");
+            Path images = tempDir.resolve("images.zip");
+            try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(images))) {
+                for (String name : List.of("samosa.jpg", "kachori.jpg")) {
+                    zip.putNextEntry(new ZipEntry(name));
+                    zip.write(new byte[] {1, 2, 3});
+                    zip.closeEntry();
+                }
+            }
+
+            ItemImportServiceImpl.ImportJob job = new ItemImportServiceImpl.ImportJob("job");
+            importService.runImport(job, csv, images);
+            ItemImportJobResponse response = job.toResponse();
+
+            assertThat(response.getStatus()).isEqualTo(ItemImportJobResponse.Status.COMPLETED);
+            assertThat(response.getImportedItems()).isEqualTo(2);
+            assertThat(response.getFailedRows()).isEqualTo(1);
+            assertThat(response.getErrors()).singleElement().asString().startsWith("Line 3: insert failed: ");
+            assertThat(itemRepository.findAll()).extracting(ItemEntity::getName).containsExactlyInAnyOrder("Samosa", "Poha");
+
+            // Only the rejected row's image is taken back out of the bucket
+            verify(fileUploadService).deleteFile("https://bucket.s3.amazonaws.com/kachori.jpg");
+            verify(fileUploadService, times(1)).deleteFile(any(String.class));
+        } finally {
+            jdbcTemplate.update("DELETE FROM tbl_catalog_changes");
+            jdbcTemplate.update("DELETE FROM tbl_catalog_change_lock");
+            jdbcTemplate.update("DELETE FROM tbl_items");
+            jdbcTemplate.update("DELETE FROM tbl_category");
+        }
+    }
+
+    @Test
+    void aFileWithoutTheRequiredColumnsFails() throws IOException {
+        Path csv = Files.writeString(tempDir.resolve("items.csv"), "name,price\nSamosa,15\n");
+
+        ItemImportServiceImpl.ImportJob job = new ItemImportServiceImpl.ImportJob("job");
+        importService.runImport(job, csv, null);
+
+        assertThat(job.toResponse().getStatus()).isEqualTo(ItemImportJobResponse.Status.FAILED);
+        assertThat(job.toResponse().getErrors()).containsExactly("Import failed: The CSV file has no category column");
+        assertThat(itemRepository.count()).isZero();
+    }
+}
@@ -0,0 +1,73 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.entity.CategoryEntity;
+import com.chhotu.billing_software.entity.ItemEntity;
+import com.chhotu.billing_software.repository.CategoryRepository;
+import com.chhotu.billing_software.repository.ItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs without a test transaction, the rupee columns of an upgraded database are added and dropped around each test.
+ */
+@DataJpaTest
+@Import(MoneyBackfillServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MoneyBackfillServiceImplTest {
+
+    @Autowired
+    private MoneyBackfillServiceImpl moneyBackfillService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("ALTER TABLE tbl_items ADD COLUMN price DECIMAL(19, 2)");
+        CategoryEntity category = categoryRepository.save(CategoryEntity.builder().categoryId("snacks").name("Snacks").build());
+        itemRepository.save(ItemEntity.builder().itemId("samosa").name("Samosa").price(1500L).category(category).build());
+        itemRepository.save(ItemEntity.builder().itemId("chai").name("Chai").category(category).build());
+        itemRepository.save(ItemEntity.builder().itemId("poha").name("Poha").category(category).build());
+        // Rows written before the move to paise only have a rupee price
+        jdbcTemplate.update("UPDATE tbl_items SET price = 12.50 WHERE item_id = 'chai'");
+        jdbcTemplate.update("UPDATE tbl_items SET price = 29.99 WHERE item_id = 'poha'");
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+        categoryRepository.deleteAll();
+        jdbcTemplate.execute("ALTER TABLE tbl_items DROP COLUMN price");
+    }
+
+    @Test
+    void rupeeAmountsAreCopiedIntoTheEmptyPaiseColumnsOnce() {
+        assertThat(moneyBackfillService.backfillPaise()).isEqualTo(2);
+
+        assertThat(pricePaise("chai")).isEqualTo(1250L);
+        assertThat(pricePaise("poha")).isEqualTo(2999L);
+        // Rows already in paise are left alone
+        assertThat(pricePaise("samosa")).isEqualTo(1500L);
+
+        assertThat(moneyBackfillService.backfillPaise()).isZero();
+    }
+
+    private Long pricePaise(String itemId) {
+        return jdbcTemplate.queryForObject("SELECT price_paise FROM tbl_items WHERE item_id = ?", Long.class, itemId);
+    }
+}
@@ -0,0 +1,105 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.entity.CategoryEntity;
+import com.chhotu.billing_software.entity.ItemEntity;
+import com.chhotu.billing_software.io.OrderRequest;
+import com.chhotu.billing_software.repository.CategoryRepository;
+import com.chhotu.billing_software.repository.ItemRepository;
+import com.chhotu.billing_software.util.OrderIdGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures createOrder latency against cart size.
+ * Run with -Dbenchmark=true, and once more with -Dbenchmark.batchSize=0 to compare against unbatched inserts.
+ * Runs on the embedded H2 unless a database is given, e.g. a scratch MySQL with
+ * -Dspring.datasource.url=jdbc:mysql://localhost:3306/billing_bench?rewriteBatchedStatements=true plus its username
+ * and password. For the IDENTITY baseline, run the same test on the tree before the switch to pooled sequences.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderServiceImpl.class, OrderIdGenerator.class, SalesRollupServiceImpl.class, OrderArchiveServiceImpl.class,
+        DashboardServiceImpl.class, TopItemsServiceImpl.class, CustomerServiceImpl.class, ReportServiceImpl.class,
+        IdempotencyServiceImpl.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.jdbc.batch_size=${benchmark.batchSize:50}")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OrderCreateBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 500;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @BeforeEach
+    void setUp() {
+        CategoryEntity category = categoryRepository.save(CategoryEntity.builder()
+                .categoryId("category-0")
+                .name("Category")
+                .build());
+        for (int i = 0; i < 100; i++) {
+            itemRepository.save(ItemEntity.builder()
+                    .itemId("item-" + i)
+                    .name("Item " + i)
+                    .price(1000L)
+                    .category(category)
+                    .build());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void createOrderLatencyByCartSize() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int cartSize : new int[]{1, 10, 40, 100}) {
+            OrderRequest request = orderRequest(cartSize);
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                transactionTemplate.executeWithoutResult(status -> orderService.createOrder(request));
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                transactionTemplate.executeWithoutResult(status -> orderService.createOrder(request));
+            }
+            long averageMicros = (System.nanoTime() - start) / MEASURED_ROUNDS / 1_000;
+            System.out.printf("createOrder cart size %3d: %6d us/order%n", cartSize, averageMicros);
+        }
+    }
+
+    private OrderRequest orderRequest(int cartSize) {
+        List<OrderRequest.OrderItemRequest> cartItems = new ArrayList<>();
+        for (int i = 0; i < cartSize; i++) {
+            cartItems.add(new OrderRequest.OrderItemRequest("item-" + i, "Item " + i, 1000L, 1));
+        }
+        return new OrderRequest("Customer", "9999999999", cartItems, null, null, null, "CASH", null);
+    }
+}
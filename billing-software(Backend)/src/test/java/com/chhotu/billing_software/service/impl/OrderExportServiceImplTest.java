@@ -0,0 +1,122 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.entity.OrderEntity;
+import com.chhotu.billing_software.entity.OrderItemEntity;
+import com.chhotu.billing_software.io.ExportFormat;
+import com.chhotu.billing_software.io.OrderResponse;
+import com.chhotu.billing_software.io.PaymentMethod;
+import com.chhotu.billing_software.repository.OrderEntityRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({OrderExportServiceImpl.class, JacksonAutoConfiguration.class})
+class OrderExportServiceImplTest {
+
+    @Autowired
+    private OrderExportServiceImpl orderExportService;
+
+    @Autowired
+    private OrderEntityRepository orderEntityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        // An order archived yesterday with one line item
+        jdbcTemplate.update("INSERT INTO tbl_orders_archive (id, order_id, customer_name, grand_total_paise, created_at, payment_method) " +
+                "VALUES (1, 'ORD-A', 'Archived', 500, ?, 'CASH')", LocalDateTime.now().minusDays(1));
+        jdbcTemplate.update("INSERT INTO tbl_order_items_archive (id, item_id, name, price_paise, quantity, order_id) " +
+                "VALUES (1, 'item-0', 'Samosa', 500, 1, 1)");
+
+        // A recent order whose texts need quoting, then one without line items
+        orderEntityRepository.save(OrderEntity.builder()
+                .orderId("ORD-B")
+                .customerName("Sharma, \"Raju\"\nJr")
+                .subtotal(3000L)
+                .tax(30L)
+                .grandTotal(3030L)
+                .paymentMethod(PaymentMethod.UPI)
+                .items(new ArrayList<>(List.of(
+                        OrderItemEntity.builder().itemId("item-1").name("Masala, Chai").price(1000L).quantity(2).build(),
+                        OrderItemEntity.builder().itemId("item-2").name("Poha").price(1000L).quantity(1).build())))
+                .build());
+        orderEntityRepository.save(OrderEntity.builder()
+                .orderId("ORD-C")
+                .customerName("Walk-in")
+                .subtotal(100L)
+                .tax(1L)
+                .grandTotal(101L)
+                .paymentMethod(PaymentMethod.CASH)
+                .items(new ArrayList<>())
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void csvQuotesFieldsAndWritesOrdersWithoutItems() throws IOException {
+        String csv = export(ExportFormat.CSV, true);
+
+        assertThat(csv).startsWith("orderId,createdAt,customerName,phoneNumber,paymentMethod,paymentStatus," +
+                "subtotalPaise,taxPaise,grandTotalPaise,itemId,itemName,pricePaise,quantity\n");
+        // Separators, quotes and line breaks are quoted, quotes doubled
+        assertThat(csv).contains(",\"Sharma, \"\"Raju\"\"\nJr\",");
+        assertThat(csv).contains(",item-1,\"Masala, Chai\",1000,2\n");
+        assertThat(csv).contains(",item-2,Poha,1000,1\n");
+        // One line with empty item columns for the order without items
+        assertThat(csv).containsOnlyOnce("ORD-C").contains(",100,1,101,,,,\n");
+        // The archive comes first, being the oldest
+        assertThat(csv.indexOf("ORD-A")).isPositive().isLessThan(csv.indexOf("ORD-B"));
+        assertThat(csv.indexOf("ORD-B")).isLessThan(csv.indexOf("ORD-C"));
+    }
+
+    @Test
+    void ndjsonGroupsTheLineItemsOfEachOrder() throws IOException {
+        List<OrderResponse> orders = new ArrayList<>();
+        for (String line : export(ExportFormat.NDJSON, true).split("\n")) {
+            orders.add(objectMapper.readValue(line, OrderResponse.class));
+        }
+
+        assertThat(orders).extracting(OrderResponse::getOrderId).containsExactly("ORD-A", "ORD-B", "ORD-C");
+        assertThat(orders.get(0).getItems()).extracting(OrderResponse.OrderItemResponse::getName).containsExactly("Samosa");
+        assertThat(orders.get(1).getCustomerName()).isEqualTo("Sharma, \"Raju\"\nJr");
+        assertThat(orders.get(1).getItems()).extracting(OrderResponse.OrderItemResponse::getName).containsExactly("Masala, Chai", "Poha");
+        assertThat(orders.get(2).getItems()).isEmpty();
+    }
+
+    @Test
+    void archivedOrdersAreOnlyWrittenWhenAskedFor() throws IOException {
+        assertThat(export(ExportFormat.NDJSON, false).split("\n")).hasSize(2)
+                .noneMatch(line -> line.contains("ORD-A"));
+    }
+
+    private String export(ExportFormat format, boolean includeArchive) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        orderExportService.exportOrders(null, null, format, includeArchive, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
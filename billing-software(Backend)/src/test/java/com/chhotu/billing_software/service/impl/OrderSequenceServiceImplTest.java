@@ -0,0 +1,67 @@
+package com.chhotu.billing_software.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs without a test transaction. H2 has native sequences, so the sequences are swapped for the one-row tables
+ * Hibernate creates on MySQL around each test.
+ */
+@DataJpaTest
+@Import(OrderSequenceServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderSequenceServiceImplTest {
+
+    @Autowired
+    private OrderSequenceServiceImpl orderSequenceService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        for (String sequence : new String[] {"tbl_orders_seq", "tbl_order_items_seq"}) {
+            jdbcTemplate.execute("DROP SEQUENCE " + sequence);
+            jdbcTemplate.execute("CREATE TABLE " + sequence + " (next_val BIGINT)");
+            jdbcTemplate.update("INSERT INTO " + sequence + " VALUES (1)");
+        }
+        // Ids written by IDENTITY before the move to sequences, some of them already archived
+        jdbcTemplate.update("INSERT INTO tbl_orders (id, order_id) VALUES (120, 'ORD-120')");
+        jdbcTemplate.update("INSERT INTO tbl_order_items (id, item_id, order_id) VALUES (410, 'samosa', 120)");
+        jdbcTemplate.update("INSERT INTO tbl_orders_archive (id, order_id) VALUES (300, 'ORD-300')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tbl_order_items");
+        jdbcTemplate.update("DELETE FROM tbl_orders");
+        jdbcTemplate.update("DELETE FROM tbl_orders_archive");
+        for (String sequence : new String[] {"tbl_orders_seq", "tbl_order_items_seq"}) {
+            jdbcTemplate.execute("DROP TABLE " + sequence);
+            jdbcTemplate.execute("CREATE SEQUENCE " + sequence + " START WITH 1 INCREMENT BY 50");
+        }
+    }
+
+    @Test
+    void sequencesAreMovedPastTheIdsOfTheHotAndArchiveTablesOnce() {
+        assertThat(orderSequenceService.seedSequences()).isEqualTo(2);
+
+        assertThat(nextVal("tbl_orders_seq")).isEqualTo(351L);
+        assertThat(nextVal("tbl_order_items_seq")).isEqualTo(461L);
+
+        assertThat(orderSequenceService.seedSequences()).isZero();
+    }
+
+    private Long nextVal(String sequence) {
+        return jdbcTemplate.queryForObject("SELECT next_val FROM " + sequence, Long.class);
+    }
+}
@@ -0,0 +1,421 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.entity.CategoryEntity;
+import com.chhotu.billing_software.entity.ItemEntity;
+import com.chhotu.billing_software.entity.OrderEntity;
+import com.chhotu.billing_software.entity.OrderItemEntity;
+import com.chhotu.billing_software.io.CustomerResponse;
+import com.chhotu.billing_software.io.DailySalesResponse;
+import com.chhotu.billing_software.io.OrderBatchResult;
+import com.chhotu.billing_software.io.OrderPageResponse;
+import com.chhotu.billing_software.io.OrderPurgeResult;
+import com.chhotu.billing_software.io.OrderRequest;
+import com.chhotu.billing_software.io.OrderResponse;
+import com.chhotu.billing_software.io.PaymentMethod;
+import com.chhotu.billing_software.io.ReportBucket;
+import com.chhotu.billing_software.io.SalesReportResponse;
+import com.chhotu.billing_software.repository.CategoryRepository;
+import com.chhotu.billing_software.repository.CustomerRepository;
+import com.chhotu.billing_software.repository.DailySalesRepository;
+import com.chhotu.billing_software.repository.ItemRepository;
+import com.chhotu.billing_software.repository.OrderEntityRepository;
+import com.chhotu.billing_software.util.OrderIdGenerator;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "order.archive.after-days=-1"
+})
+@Import({OrderServiceImpl.class, OrderIdGenerator.class, SalesRollupServiceImpl.class, OrderArchiveServiceImpl.class,
+        DashboardServiceImpl.class, TopItemsServiceImpl.class, CustomerServiceImpl.class, ReportServiceImpl.class,
+        IdempotencyServiceImpl.class, JacksonAutoConfiguration.class})
+class OrderServiceImplTest {
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderEntityRepository orderEntityRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private SalesRollupServiceImpl salesRollupService;
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderArchiveServiceImpl orderArchiveService;
+
+    @Autowired
+    private CustomerServiceImpl customerService;
+
+    @Autowired
+    private DashboardServiceImpl dashboardService;
+
+    @Autowired
+    private ReportServiceImpl reportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // A catalog of forty items priced at 10.00 (1000 paise)
+        CategoryEntity category = categoryRepository.save(CategoryEntity.builder()
+                .categoryId("category-0")
+                .name("Category")
+                .build());
+        for (int i = 0; i < 40; i++) {
+            itemRepository.save(ItemEntity.builder()
+                    .itemId("item-" + i)
+                    .name("Item " + i)
+                    .price(1000L)
+                    .category(category)
+                    .build());
+        }
+
+        // Ten orders with three line items each
+        for (int i = 0; i < 10; i++) {
+            List<OrderItemEntity> items = new ArrayList<>();
+            for (int j = 0; j < 3; j++) {
+                items.add(OrderItemEntity.builder()
+                        .itemId("item-" + j)
+                        .name("Item " + j)
+                        .price(1000L)
+                        .quantity(1)
+                        .build());
+            }
+            orderEntityRepository.save(OrderEntity.builder()
+                    .orderId("ORD" + i)
+                    .customerName("Customer " + i)
+                    .phoneNumber("99999" + i)
+                    .subtotal(3000L)
+                    .tax(0L)
+                    .grandTotal(3000L)
+                    .paymentMethod(PaymentMethod.CASH)
+                    .items(items)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void recentOrdersLoadItemsWithoutNPlusOne() {
+        List<OrderResponse> recentOrders = orderService.findRecentOrders();
+
+        assertThat(recentOrders).hasSize(5);
+        assertThat(recentOrders).allSatisfy(order -> assertThat(order.getItems()).hasSize(3));
+        // One query for the orders, one for their items
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void orderHistoryLoadsItemsWithoutNPlusOne() {
+        List<OrderResponse> history = orderService.getOrderHistory(null, 10, null, null, null, false).getOrders();
+
+        assertThat(history).hasSize(10);
+        assertThat(history).allSatisfy(order -> assertThat(order.getItems()).hasSize(3));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void orderHistoryPagesThroughRecentThenArchivedOrdersWithTheCursor() {
+        // The ten orders of the setup share one timestamp, so only their ids order them, then go to the archive
+        LocalDateTime archivedAt = LocalDateTime.now().minusDays(2).withNano(0);
+        entityManager.createNativeQuery("UPDATE tbl_orders SET created_at = :createdAt")
+                .setParameter("createdAt", archivedAt)
+                .executeUpdate();
+        assertThat(orderArchiveService.archiveOrders()).isEqualTo(10);
+
+        // Five newer orders, again sharing one timestamp
+        List<String> expected = new ArrayList<>();
+        List<OrderRequest.OrderItemRequest> cartItems = List.of(new OrderRequest.OrderItemRequest("item-1", "Item 1", null, 1));
+        for (int i = 0; i < 5; i++) {
+            expected.add(0, orderService.createOrder(new OrderRequest("Customer", "9999999999", cartItems, null, null, null, "CASH", null)).getOrderId());
+        }
+        entityManager.flush();
+        entityManager.createNativeQuery("UPDATE tbl_orders SET created_at = :createdAt")
+                .setParameter("createdAt", LocalDateTime.now().minusHours(1).withNano(0))
+                .executeUpdate();
+        entityManager.clear();
+        for (int i = 9; i >= 0; i--) {
+            expected.add("ORD" + i);
+        }
+
+        // Pages of four: 4 recent, 1 recent + 3 archived, 4 archived, 3 archived
+        List<String> walked = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        OrderPageResponse page;
+        do {
+            page = orderService.getOrderHistory(cursor, 4, null, null, null, true);
+            page.getOrders().forEach(order -> walked.add(order.getOrderId()));
+            pageSizes.add(page.getOrders().size());
+            assertThat(page.getHasMore()).isEqualTo(page.getNextCursor() != null);
+            cursor = page.getNextCursor();
+        } while (page.getHasMore());
+
+        assertThat(pageSizes).containsExactly(4, 4, 4, 3);
+        assertThat(walked).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void createOrderBatchesLineItemInserts() {
+        List<OrderRequest.OrderItemRequest> cartItems = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            cartItems.add(new OrderRequest.OrderItemRequest("item-" + i, "Item " + i, 1000L, 1));
+        }
+
+        orderService.createOrder(new OrderRequest("Customer", "9999999999", cartItems, 40000L, 400L, 40400L, "CASH", null));
+        entityManager.flush();
+
+        // 41 rows written with the catalog lookup, sequence calls, order insert, one batched item insert
+        // and the rollup update, instead of one statement per row
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(41);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(11);
+    }
+
+    @Test
+    void createOrderPricesTheCartFromTheCatalog() {
+        List<OrderRequest.OrderItemRequest> cartItems = List.of(
+                new OrderRequest.OrderItemRequest("item-1", "Item 1", null, 3),
+                new OrderRequest.OrderItemRequest("item-2", "Item 2", null, 2));
+
+        OrderResponse order = orderService.createOrder(new OrderRequest("Customer", "9999999999", cartItems, null, null, null, "CASH", null));
+
+        assertThat(order.getSubtotal()).isEqualTo(5000L);
+        assertThat(order.getTax()).isEqualTo(50L);
+        assertThat(order.getGrandTotal()).isEqualTo(5050L);
+    }
+
+    @Test
+    void createOrderRejectsPricesThatDoNotMatchTheCatalog() {
+        List<OrderRequest.OrderItemRequest> cartItems = List.of(
+                new OrderRequest.OrderItemRequest("item-1", "Item 1", 100L, 3));
+
+        assertThatThrownBy(() -> orderService.createOrder(new OrderRequest("Customer", "9999999999", cartItems, 300L, 3L, 303L, "CASH", null)))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void uploadedOrdersAreCreatedOncePerClientOrderKey() {
+        List<OrderRequest.OrderItemRequest> cartItems = List.of(
+                new OrderRequest.OrderItemRequest("item-1", "Item 1", null, 1));
+        List<OrderRequest> upload = List.of(
+                new OrderRequest("Customer", "9999999999", cartItems, null, null, null, "CASH", "register-1:1"),
+                new OrderRequest("Customer", "9999999999", cartItems, null, null, null, "CASH", "register-1:2"));
+
+        List<OrderBatchResult> first = orderService.createOrders(upload, 0);
+        List<OrderBatchResult> retry = orderService.createOrders(upload, 0);
+        entityManager.clear();
+
+        assertThat(first).allSatisfy(result -> assertThat(result.getStatus()).isEqualTo(OrderBatchResult.Status.CREATED));
+        assertThat(retry).extracting(OrderBatchResult::getOrderId)
+                .containsExactlyElementsOf(first.stream().map(OrderBatchResult::getOrderId).toList());
+        assertThat(orderEntityRepository.count()).isEqualTo(12);
+    }
+
+    @Test
+    void createAndDeleteOrderUpdateTheDailyRollup() {
+        DailySalesResponse before = salesRollupService.getDailySales(LocalDate.now());
+        List<OrderRequest.OrderItemRequest> cartItems = List.of(
+                new OrderRequest.OrderItemRequest("item-1", "Item 1", null, 1));
+
+        OrderResponse order = orderService.createOrder(new OrderRequest("Customer", "9999999999", cartItems, null, null, null, "CASH", null));
+        entityManager.flush();
+        entityManager.clear();
+        DailySalesResponse afterCreate = salesRollupService.getDailySales(LocalDate.now());
+        assertThat(afterCreate.getOrderCount()).isEqualTo(before.getOrderCount() + 1);
+        assertThat(afterCreate.getCashSales()).isEqualTo(before.getCashSales() + 1010);
+
+        orderService.deleteOrder(order.getOrderId());
+        entityManager.flush();
+        entityManager.clear();
+        DailySalesResponse afterDelete = salesRollupService.getDailySales(LocalDate.now());
+        assertThat(afterDelete.getOrderCount()).isEqualTo(before.getOrderCount());
+    }
+
+    @Test
+    void rebuildRecomputesTheRollupFromOrders() {
+        salesRollupService.rebuild(LocalDate.now(), LocalDate.now());
+        entityManager.flush();
+        entityManager.clear();
+
+        DailySalesResponse today = salesRollupService.getDailySales(LocalDate.now());
+        assertThat(today.getOrderCount()).isEqualTo(10);
+        assertThat(today.getTotalSales()).isEqualTo(30000L);
+        assertThat(today.getCashOrderCount()).isZero();
+    }
+
+    @Test
+    void rebuildAndReportsIncludeArchivedOrders() {
+        assertThat(orderArchiveService.archiveOrders()).isEqualTo(10);
+        salesRollupService.rebuild(LocalDate.now(), LocalDate.now());
+        entityManager.flush();
+        entityManager.clear();
+
+        DailySalesResponse today = salesRollupService.getDailySales(LocalDate.now());
+        assertThat(today.getOrderCount()).isEqualTo(10);
+        assertThat(today.getTotalSales()).isEqualTo(30000L);
+
+        SalesReportResponse report = reportService.getSalesReport(LocalDate.now(), LocalDate.now(), ReportBucket.DAY);
+        assertThat(report.getOrderCount()).isEqualTo(10);
+        assertThat(report.getTotalSales()).isEqualTo(30000L);
+    }
+
+    @Test
+    void creatingADayThatExistsKeepsItsTotals() {
+        salesRollupService.rebuild(LocalDate.now(), LocalDate.now());
+        entityManager.flush();
+        entityManager.clear();
+
+        // The insert of a racing order fails on the primary key rather than overwriting the committed row
+        assertThatThrownBy(() -> dailySalesRepository.insertEmptyDay(LocalDate.now()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        entityManager.clear();
+
+        assertThat(salesRollupService.getDailySales(LocalDate.now()).getOrderCount()).isEqualTo(10);
+    }
+
+    @Test
+    void createAndDeleteOrderUpdateTheCustomer() {
+        List<OrderRequest.OrderItemRequest> cartItems = List.of(
+                new OrderRequest.OrderItemRequest("item-1", "Item 1", null, 1));
+
+        orderService.createOrder(new OrderRequest("Asha", "+91 98765-43210", cartItems, null, null, null, "CASH", null));
+        OrderResponse second = orderService.createOrder(new OrderRequest("Asha", "919876543210", cartItems, null, null, null, "CASH", null));
+        orderService.deleteOrder(second.getOrderId());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<CustomerResponse> customers = customerService.searchByPhonePrefix("91 987", 10);
+        assertThat(customers).hasSize(1);
+        assertThat(customers.get(0).getPhoneNumber()).isEqualTo("919876543210");
+        assertThat(customers.get(0).getName()).isEqualTo("Asha");
+        assertThat(customers.get(0).getVisitCount()).isEqualTo(1);
+        assertThat(customers.get(0).getLifetimeSpend()).isEqualTo(1010L);
+        assertThat(customerService.searchByPhonePrefix("91", 10)).isEmpty();
+    }
+
+    @Test
+    void creatingACustomerThatExistsKeepsTheirVisits() {
+        customerService.rebuild();
+        entityManager.flush();
+        entityManager.clear();
+
+        // The insert of a racing order fails on the primary key rather than resetting the committed row
+        assertThatThrownBy(() -> customerRepository.insertNew("999993", "Someone", LocalDateTime.now()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        entityManager.clear();
+
+        CustomerResponse customer = customerService.getCustomer("999993");
+        assertThat(customer.getVisitCount()).isEqualTo(1);
+        assertThat(customer.getLifetimeSpend()).isEqualTo(3000L);
+    }
+
+    @Test
+    void rebuildRecomputesTheCustomersFromOrders() {
+        assertThat(customerService.rebuild()).isEqualTo(10);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<CustomerResponse> customers = customerService.searchByPhonePrefix("99999", 20);
+        assertThat(customers).hasSize(10);
+        assertThat(customers).allSatisfy(customer -> assertThat(customer.getLifetimeSpend()).isEqualTo(3000L));
+        assertThat(customerService.getCustomer("999993").getName()).isEqualTo("Customer 3");
+    }
+
+    @Test
+    void anEmptyCustomerTableIsFilledFromTheOrdersAtStartup() {
+        customerService.seed();
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(customerRepository.count()).isEqualTo(10);
+
+        // A table that has rows is left alone
+        customerRepository.deleteById("999993");
+        entityManager.flush();
+        customerService.seed();
+        assertThat(customerRepository.count()).isEqualTo(9);
+    }
+
+    @Test
+    void archivedOrdersLeaveTheHotTablesButStayInTheHistory() {
+        assertThat(orderArchiveService.archiveOrders()).isEqualTo(10);
+        entityManager.clear();
+
+        assertThat(orderEntityRepository.count()).isZero();
+        assertThat(orderService.getOrderHistory(null, 20, null, null, null, false).getOrders()).isEmpty();
+
+        List<OrderResponse> history = orderService.getOrderHistory(null, 20, null, null, null, true).getOrders();
+        assertThat(history).hasSize(10);
+        assertThat(history).allSatisfy(order -> assertThat(order.getItems()).hasSize(3));
+    }
+
+    @Test
+    void purgeDeletesTheOrdersOfTheRangeInBatches() {
+        assertThat(orderArchiveService.archiveOrders()).isEqualTo(10);
+        entityManager.clear();
+
+        OrderPurgeResult result = orderArchiveService.purgeOrders(LocalDate.now(), LocalDate.now());
+        entityManager.clear();
+
+        assertThat(result.getOrdersPurged()).isZero();
+        assertThat(result.getArchivedOrdersPurged()).isEqualTo(10);
+        assertThat(orderService.getOrderHistory(null, 20, null, null, null, true).getOrders()).isEmpty();
+        assertThat(salesRollupService.getDailySales(LocalDate.now()).getOrderCount()).isZero();
+    }
+
+    @Test
+    void purgeTakesTheOrdersOffTheirCustomersAndTheDashboard() {
+        customerService.rebuild();
+        dashboardService.seed();
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(dashboardService.getDashboard().getTodayOrderCount()).isEqualTo(10);
+
+        OrderPurgeResult result = orderArchiveService.purgeOrders(LocalDate.now(), LocalDate.now());
+        entityManager.clear();
+
+        assertThat(result.getOrdersPurged()).isEqualTo(10);
+        CustomerResponse customer = customerService.getCustomer("999993");
+        assertThat(customer.getVisitCount()).isZero();
+        assertThat(customer.getLifetimeSpend()).isZero();
+        assertThat(customerService.searchByPhonePrefix("99999", 20)).isEmpty();
+        assertThat(dashboardService.getDashboard().getTodayOrderCount()).isZero();
+        assertThat(dashboardService.getDashboard().getRecentOrders()).isEmpty();
+    }
+}
@@ -0,0 +1,187 @@
+package com.chhotu.billing_software.service.impl;
+
+import com.chhotu.billing_software.entity.OrderEntity;
+import com.chhotu.billing_software.entity.OrderItemEntity;
+import com.chhotu.billing_software.entity.TopItemCheckpointEntity;
+import com.chhotu.billing_software.io.TopItemsPeriod;
+import com.chhotu.billing_software.io.TopItemsResponse;
+import com.chhotu.billing_software.repository.ArchivedOrderRepository;
+import com.chhotu.billing_software.repository.OrderEntityRepository;
+import com.chhotu.billing_software.repository.TopItemCheckpointRepository;
+import com.chhotu.billing_software.util.OrderIdGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs without a test transaction, so the sketches are only updated once an order really commits.
+ * This instance is node 0; node 3 is another instance sharing the database.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TopItemsServiceImplTest {
+
+    @Autowired
+    private OrderEntityRepository orderEntityRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private TopItemCheckpointRepository topItemCheckpointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final OrderIdGenerator thisNode = new OrderIdGenerator(0);
+
+    private final OrderIdGenerator otherNode = new OrderIdGenerator(3);
+
+    private final LocalDateTime noon = LocalDate.now().atTime(12, 0);
+
+    private TopItemsServiceImpl topItemsService;
+
+    private long nextId = 1;
+
+    @BeforeEach
+    void setUp() {
+        topItemsService = new TopItemsServiceImpl(orderEntityRepository, archivedOrderRepository, topItemCheckpointRepository, thisNode);
+        ReflectionTestUtils.setField(topItemsService, "capacity", 200);
+        topItemsService.clock = Clock.fixed(noon.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tbl_order_items");
+        jdbcTemplate.update("DELETE FROM tbl_orders");
+        jdbcTemplate.update("DELETE FROM tbl_order_items_archive");
+        jdbcTemplate.update("DELETE FROM tbl_orders_archive");
+        topItemCheckpointRepository.deleteAll();
+    }
+
+    @Test
+    void seedRestoresThisInstancesCheckpointAndReplaysOnlyItsLaterOrders() {
+        checkpointRow(0, "item-1", 5, noon.minusHours(1));
+        checkpointRow(3, "item-2", 7, noon.minusMinutes(10));
+        // Already in the checkpoint of this instance
+        insertOrder("tbl_orders", "tbl_order_items", thisNode.nextOrderId(), noon.minusHours(2), "item-1", 10);
+        // Created by this instance after its checkpoint
+        insertOrder("tbl_orders", "tbl_order_items", thisNode.nextOrderId(), noon.minusMinutes(30), "item-1", 3);
+        // Counted by the other instance, which checkpoints them itself
+        insertOrder("tbl_orders", "tbl_order_items", otherNode.nextOrderId(), noon.minusMinutes(30), "item-2", 4);
+
+        topItemsService.seed();
+
+        assertThat(topItemsService.getTopItems(TopItemsPeriod.TODAY, 10).getItems())
+                .extracting(TopItemsResponse.TopItem::getItemId, TopItemsResponse.TopItem::getName, TopItemsResponse.TopItem::getQuantity)
+                .containsExactly(tuple("item-1", "Item item-1", 8L), tuple("item-2", "Item item-2", 7L));
+    }
+
+    @Test
+    void checkpointReplacesOnlyThisInstancesRows() {
+        checkpointRow(0, "item-1", 5, noon.minusHours(1));
+        checkpointRow(3, "item-2", 7, noon.minusMinutes(10));
+        topItemsService.seed();
+        topItemsService.recordOrderCreated(order(noon, "item-1", 2));
+
+        transactionTemplate.executeWithoutResult(status -> topItemsService.checkpoint());
+
+        List<TopItemCheckpointEntity> rows = topItemCheckpointRepository.findByPeriodAndPeriodStart(TopItemsPeriod.TODAY, noon.toLocalDate());
+        assertThat(rows).extracting(TopItemCheckpointEntity::getNodeId, TopItemCheckpointEntity::getItemId, TopItemCheckpointEntity::getQuantity)
+                .containsExactlyInAnyOrder(tuple(0L, "item-1", 7L), tuple(3L, "item-2", 7L));
+    }
+
+    @Test
+    void ordersAreCountedOnceTheirTransactionCommits() {
+        topItemsService.seed();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            topItemsService.recordOrderCreated(order(noon, "item-1", 2));
+            assertThat(topItemsService.getTopItems(TopItemsPeriod.TODAY, 10).getItems()).isEmpty();
+        });
+
+        assertThat(topItemsService.getTopItems(TopItemsPeriod.TODAY, 10).getItems())
+                .extracting(TopItemsResponse.TopItem::getItemId, TopItemsResponse.TopItem::getQuantity)
+                .containsExactly(tuple("item-1", 2L));
+    }
+
+    @Test
+    void theFirstOrderOfANewDayStartsANewSketch() {
+        topItemsService.seed();
+        topItemsService.recordOrderCreated(order(noon, "item-1", 2));
+
+        topItemsService.clock = Clock.offset(topItemsService.clock, Duration.ofDays(1));
+        topItemsService.recordOrderCreated(order(noon.plusDays(1), "item-2", 1));
+        // Reported late, its day has already ended
+        topItemsService.recordOrderCreated(order(noon, "item-1", 5));
+
+        TopItemsResponse today = topItemsService.getTopItems(TopItemsPeriod.TODAY, 10);
+        assertThat(today.getFrom()).isEqualTo(noon.toLocalDate().plusDays(1));
+        assertThat(today.getItems()).extracting(TopItemsResponse.TopItem::getItemId, TopItemsResponse.TopItem::getQuantity)
+                .containsExactly(tuple("item-2", 1L));
+    }
+
+    @Test
+    void rangesAddUpTheHotAndArchivedOrdersExactly() {
+        insertOrder("tbl_orders", "tbl_order_items", thisNode.nextOrderId(), noon, "item-1", 2);
+        insertOrder("tbl_orders", "tbl_order_items", thisNode.nextOrderId(), noon, "item-2", 4);
+        insertOrder("tbl_orders_archive", "tbl_order_items_archive", "ORD1", noon.minusDays(100), "item-1", 3);
+        insertOrder("tbl_orders_archive", "tbl_order_items_archive", "ORD2", noon.minusDays(100), "item-3", 1);
+        // Outside the range
+        insertOrder("tbl_orders_archive", "tbl_order_items_archive", "ORD3", noon.minusDays(200), "item-3", 9);
+
+        TopItemsResponse range = topItemsService.getTopItems(noon.toLocalDate().minusDays(120), noon.toLocalDate(), 10);
+
+        assertThat(range.getApproximate()).isFalse();
+        assertThat(range.getItems()).extracting(TopItemsResponse.TopItem::getItemId, TopItemsResponse.TopItem::getQuantity)
+                .containsExactly(tuple("item-1", 5L), tuple("item-2", 4L), tuple("item-3", 1L));
+    }
+
+    private void checkpointRow(long nodeId, String itemId, long quantity, LocalDateTime checkpointedAt) {
+        topItemCheckpointRepository.save(TopItemCheckpointEntity.builder()
+                .period(TopItemsPeriod.TODAY)
+                .periodStart(noon.toLocalDate())
+                .nodeId(nodeId)
+                .itemId(itemId)
+                .name("Item " + itemId)
+                .quantity(quantity)
+                .error(0L)
+                .checkpointedAt(checkpointedAt)
+                .build());
+    }
+
+    private void insertOrder(String orders, String items, String orderId, LocalDateTime createdAt, String itemId, int quantity) {
+        long id = nextId++;
+        jdbcTemplate.update("INSERT INTO " + orders + " (id, order_id, created_at) VALUES (?, ?, ?)", id, orderId, createdAt);
+        jdbcTemplate.update("INSERT INTO " + items + " (id, item_id, name, quantity, order_id) VALUES (?, ?, ?, ?, ?)",
+                id, itemId, "Item " + itemId, quantity, id);
+    }
+
+    private OrderEntity order(LocalDateTime createdAt, String itemId, int quantity) {
+        return OrderEntity.builder()
+                .orderId(thisNode.nextOrderId())
+                .createdAt(createdAt)
+                .items(List.of(OrderItemEntity.builder().itemId(itemId).name("Item " + itemId).quantity(quantity).build()))
+                .build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.chhotu.billing_software.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    @Test
+    void quotedFieldsMayHoldSeparatorsQuotesAndLineBreaks() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(
+                "name,price,description\r\n"
+                        + "\"Masala, Chai\",12.50,\"The \"\"house\"\" tea\nwith ginger\"\r\n"
+                        + "Samosa,15,\n"
+                        + "Coffee,20"));
+
+        assertThat(reader.next()).containsExactly("name", "price", "description");
+        assertThat(reader.line()).isEqualTo(1);
+        assertThat(reader.next()).containsExactly("Masala, Chai", "12.50", "The \"house\" tea\nwith ginger");
+        assertThat(reader.line()).isEqualTo(2);
+        assertThat(reader.next()).containsExactly("Samosa", "15", "");
+        assertThat(reader.line()).isEqualTo(4);
+        assertThat(reader.next()).containsExactly("Coffee", "20");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void unterminatedQuoteFails() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("name\n\"Chai\n"));
+
+        assertThat(reader.next()).containsExactly("name");
+        assertThatThrownBy(reader::next).isInstanceOf(IOException.class).hasMessageContaining("line 2");
+    }
+}
@@ -0,0 +1,62 @@
+package com.chhotu.billing_software.util;
+
+import com.chhotu.billing_software.io.ItemResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemSearchIndexTest {
+
+    private final ItemSearchIndex index = new ItemSearchIndex(List.of(
+            item("1", "Masala Chai", "beverages", "Beverages", "Spiced milk tea"),
+            item("2", "Masala Dosa", "snacks", "Snacks", "Crisp rice crepe with potato"),
+            item("3", "Chicken Biryani", "meals", "Meals", "Basmati rice with chicken"),
+            item("4", "Cold Coffee", "beverages", "Beverages", "Chilled coffee with ice cream"),
+            item("5", "Butter Chicken Masala Combo", "meals", "Meals", null)));
+
+    @Test
+    void everyTokenMustMatchAsAPrefix() {
+        assertThat(names(index.search("mas ch", null, 10))).containsExactly("Masala Chai", "Butter Chicken Masala Combo");
+        assertThat(index.search("masala tea", null, 10)).extracting(ItemResponse::getItemId).containsExactly("1");
+        assertThat(index.search("pizza", null, 10)).isEmpty();
+        assertThat(index.search("  ", null, 10)).isEmpty();
+    }
+
+    @Test
+    void nameMatchesRankAboveCategoryAndDescriptionMatches() {
+        // Both names contain "chicken", so the shorter name comes first; "beverages" only matches category names
+        assertThat(names(index.search("chicken", null, 10))).containsExactly("Chicken Biryani", "Butter Chicken Masala Combo");
+        assertThat(names(index.search("coffee", null, 10))).containsExactly("Cold Coffee");
+        assertThat(names(index.search("beverages", null, 10))).containsExactly("Cold Coffee", "Masala Chai");
+    }
+
+    @Test
+    void typosAreToleratedWhenNothingMatchesExactly() {
+        assertThat(names(index.search("biryni", null, 10))).containsExactly("Chicken Biryani");
+        assertThat(names(index.search("chikcen", null, 10))).containsExactly("Chicken Biryani", "Butter Chicken Masala Combo");
+        // Too short to guess
+        assertThat(index.search("cai", null, 10)).isEmpty();
+    }
+
+    @Test
+    void resultsCanBeLimitedToACategory() {
+        assertThat(names(index.search("masala", "meals", 10))).containsExactly("Butter Chicken Masala Combo");
+        assertThat(index.search("masala", null, 1)).hasSize(1);
+    }
+
+    private static List<String> names(List<ItemResponse> items) {
+        return items.stream().map(ItemResponse::getName).toList();
+    }
+
+    private static ItemResponse item(String itemId, String name, String categoryId, String categoryName, String description) {
+        return ItemResponse.builder()
+                .itemId(itemId)
+                .name(name)
+                .categoryId(categoryId)
+                .categoryName(categoryName)
+                .description(description)
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.chhotu.billing_software.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares pricing a cart (subtotal, 1% tax, grand total) with the previous Double and BigDecimal
+ * representations against long paise. Run with -Dbenchmark=true.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmarkTest {
+
+    @Param({"5", "40"})
+    private int cartSize;
+
+    private double[] doublePrices;
+    private BigDecimal[] decimalPrices;
+    private long[] paisePrices;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        doublePrices = new double[cartSize];
+        decimalPrices = new BigDecimal[cartSize];
+        paisePrices = new long[cartSize];
+        quantities = new int[cartSize];
+        for (int i = 0; i < cartSize; i++) {
+            long paise = 100 + random.nextInt(50_000);
+            paisePrices[i] = paise;
+            decimalPrices[i] = Money.toRupees(paise);
+            doublePrices[i] = decimalPrices[i].doubleValue();
+            quantities[i] = 1 + random.nextInt(5);
+        }
+    }
+
+    @Benchmark
+    public double doubleTotals() {
+        double subtotal = 0.0;
+        for (int i = 0; i < cartSize; i++) {
+            subtotal += doublePrices[i] * quantities[i];
+        }
+        double tax = subtotal * 0.01;
+        return subtotal + tax;
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalTotals() {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = 0; i < cartSize; i++) {
+            subtotal = subtotal.add(decimalPrices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        subtotal = subtotal.setScale(2, RoundingMode.HALF_UP);
+        BigDecimal tax = subtotal.multiply(new BigDecimal("0.01")).setScale(2, RoundingMode.HALF_UP);
+        return subtotal.add(tax);
+    }
+
+    @Benchmark
+    public long paiseTotals() {
+        long subtotal = 0L;
+        for (int i = 0; i < cartSize; i++) {
+            subtotal = Math.addExact(subtotal, Money.times(paisePrices[i], quantities[i]));
+        }
+        return subtotal + Money.percentage(subtotal, 100);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void run() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MoneyBenchmarkTest.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
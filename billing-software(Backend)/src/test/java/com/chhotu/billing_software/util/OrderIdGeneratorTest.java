@@ -0,0 +1,70 @@
+package com.chhotu.billing_software.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderIdGeneratorTest {
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws InterruptedException {
+        OrderIdGenerator generator = new OrderIdGenerator(1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    ids.add(generator.nextId());
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(ids).hasSize(8 * 50_000);
+    }
+
+    @Test
+    void idsIncreaseOnOneNode() {
+        OrderIdGenerator generator = new OrderIdGenerator(1);
+        long previous = generator.nextId();
+        for (int i = 0; i < 100_000; i++) {
+            long next = generator.nextId();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void nodesNeverCollide() {
+        OrderIdGenerator first = new OrderIdGenerator(1);
+        OrderIdGenerator second = new OrderIdGenerator(2);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(first.nextId());
+            ids.add(second.nextId());
+        }
+        assertThat(ids).hasSize(20_000);
+    }
+
+    @Test
+    void theNodeIdIsReadBackFromAnOrderId() {
+        assertThat(OrderIdGenerator.nodeIdOf(new OrderIdGenerator(37).nextOrderId())).isEqualTo(37);
+        // Order IDs from before node IDs were ORD + the epoch milliseconds
+        assertThat(OrderIdGenerator.nodeIdOf("ORD1735689600000")).isEqualTo(-1);
+        assertThat(OrderIdGenerator.nodeIdOf("not-an-order")).isEqualTo(-1);
+    }
+
+    @Test
+    void aMissingNodeIdFailsStartup() {
+        assertThatThrownBy(() -> new OrderIdGenerator(-1)).isInstanceOf(IllegalStateException.class);
+    }
+}
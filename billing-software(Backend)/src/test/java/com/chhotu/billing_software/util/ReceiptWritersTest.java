@@ -0,0 +1,60 @@
+package com.chhotu.billing_software.util;
+
+import com.chhotu.billing_software.io.OrderResponse;
+import com.chhotu.billing_software.io.PaymentMethod;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReceiptWritersTest {
+
+    private final ReceiptLayout layout = new ReceiptLayout(42, "My Retail Shop", List.of("MG Road"), List.of("Thank you!"));
+
+    private final OrderResponse order = OrderResponse.builder()
+            .orderId("ORD1")
+            .customerName("Asha (regular)")
+            .phoneNumber("9999999999")
+            .createdAt(LocalDateTime.of(2026, 1, 1, 10, 30))
+            .items(List.of(
+                    new OrderResponse.OrderItemResponse("item-1", "Masala Chai", 1250L, 2),
+                    new OrderResponse.OrderItemResponse("item-2", "Samosa", 1500L, 1)))
+            .subtotal(4000L)
+            .tax(40L)
+            .grandTotal(4040L)
+            .paymentMethod(PaymentMethod.CASH)
+            .build();
+
+    @Test
+    void pdfCrossReferenceTablePointsAtEveryObject() {
+        String pdf = new String(new PdfReceiptWriter(layout).write(layout.body(order)), StandardCharsets.ISO_8859_1);
+
+        Matcher startXref = Pattern.compile("startxref\n(\\d+)").matcher(pdf);
+        assertThat(startXref.find()).isTrue();
+        assertThat(pdf.substring(Integer.parseInt(startXref.group(1)))).startsWith("xref");
+
+        Matcher entries = Pattern.compile("(\\d{10}) 00000 n").matcher(pdf);
+        int object = 1;
+        while (entries.find()) {
+            assertThat(pdf.substring(Integer.parseInt(entries.group(1)))).startsWith(object + " 0 obj");
+            object++;
+        }
+        assertThat(object).isEqualTo(7);
+        assertThat(pdf).contains("(Customer: Asha \\(regular\\)) Tj", "Rs 40.40");
+    }
+
+    @Test
+    void escPosStartsWithInitialiseAndEndsWithCut() {
+        byte[] receipt = new EscPosReceiptWriter(layout).write(layout.body(order));
+
+        assertThat(Arrays.copyOfRange(receipt, 0, 2)).containsExactly(0x1B, '@');
+        assertThat(Arrays.copyOfRange(receipt, receipt.length - 4, receipt.length)).containsExactly(0x1D, 'V', 66, 0);
+        assertThat(new String(receipt, StandardCharsets.US_ASCII)).contains("Masala Chai", "25.00", "Grand Total");
+    }
+}
@@ -0,0 +1,38 @@
+package com.chhotu.billing_software.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSavingTest {
+
+    @Test
+    void heavyHittersSurviveEvictionWithinTheirErrorBound() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(10);
+        // Three heavy items interleaved with a long tail of 500 distinct items sold once
+        for (int i = 0; i < 500; i++) {
+            sketch.offer("tail-" + i, 1);
+            if (i % 5 == 0) {
+                sketch.offer("tea", 4);
+                sketch.offer("coffee", 3);
+                sketch.offer("samosa", 2);
+            }
+        }
+
+        List<SpaceSaving.Counter<String>> top = sketch.top(3);
+
+        assertThat(top).extracting(SpaceSaving.Counter::getKey).containsExactlyInAnyOrder("tea", "coffee", "samosa");
+        assertThat(sketch.total()).isEqualTo(500 + 100 * 9);
+        for (SpaceSaving.Counter<String> counter : top) {
+            long exact = switch (counter.getKey()) {
+                case "tea" -> 400;
+                case "coffee" -> 300;
+                default -> 200;
+            };
+            assertThat(counter.getCount()).isGreaterThanOrEqualTo(exact);
+            assertThat(counter.getCount() - counter.getError()).isLessThanOrEqualTo(exact);
+        }
+    }
+}
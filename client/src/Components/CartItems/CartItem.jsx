@@ -1,6 +1,7 @@
 import { useContext } from "react";
 import "./CartItem.css";
 import { AppContext } from "../../context/AppContext";
+import { formatPaise } from "../../util/money";
 
 const CartItem = () => {
   const { cartItems, removeFromCart, updateQuantity } = useContext(AppContext);
@@ -16,7 +17,7 @@ const CartItem = () => {
               <div className="d-flex justify-content-between align-items-center mb-2">
                 <h6 className="mb-0 text-light">{item.name}</h6>
                 <p className="mb-0 text-light">
-                  ₹{(item.price * item.quantity).toFixed(2)}
+                  ₹{formatPaise(item.price * item.quantity)}
                 </p>
               </div>
               <div className="d-flex justify-content-between align-item-center">
@@ -1,14 +1,15 @@
-import { useContext, useState } from "react";
+import { useContext, useEffect, useRef, useState } from "react";
 import "./CartSummary.css";
 import { AppContext } from "../../context/AppContext";
 import toast from "react-hot-toast";
-import { createOrder, deleteOrder } from "../../Service/OrderService";
+import { createOrder, deleteOrder, fetchReceipt } from "../../Service/OrderService";
 import { AppConstants } from "../../util/constants";
 import {
   createRazorpayOrder,
   verifyPayment,
 } from "../../Service/PaymentService";
 import ReceiptPopup from "../ReceiptPopup/ReceiptPopup";
+import { formatPaise } from "../../util/money";
 
 const CartSummary = ({
   customerName,
@@ -24,11 +25,19 @@ const CartSummary = ({
 
   const [showPopup, setShowPopup] = useState(false);
 
+  // Idempotency key of the order being placed, reused when the same cart is submitted again after a timeout
+  const orderKey = useRef(null);
+
+  useEffect(() => {
+    orderKey.current = null;
+  }, [cartItems]);
+
   const totalAmount = cartItems.reduce(
     (total, item) => total + item.price * item.quantity,
     0
   );
-  const tax = totalAmount * 0.01;
+  // Same rounding as the server: 1% rounded half up to the paisa
+  const tax = Math.round(totalAmount / 100);
   const grandTotal = totalAmount + tax;
 
   const clearAll = () => {
@@ -42,8 +51,16 @@ const CartSummary = ({
     clearAll();
   };
 
-  const handlePrintReceipt = () => {
-    window.print();
+  const handlePrintReceipt = async () => {
+    try {
+      const response = await fetchReceipt(orderDetails.orderId);
+      const url = URL.createObjectURL(response.data);
+      const receiptWindow = window.open(url);
+      receiptWindow?.addEventListener("load", () => receiptWindow.print());
+    } catch (error) {
+      console.error(error);
+      window.print();
+    }
   };
 
   const loadRazorpayScript = () => {
@@ -57,6 +74,7 @@ const CartSummary = ({
   };
 
   const deleteOrderOnFailure = async (orderId) => {
+    orderKey.current = null;
     try {
       await deleteOrder(orderId);
     } catch (error) {
@@ -87,7 +105,10 @@ const CartSummary = ({
     setIsProcessing(true);
 
     try {
-      const response = await createOrder(orderData);
+      if (!orderKey.current) {
+        orderKey.current = crypto.randomUUID();
+      }
+      const response = await createOrder(orderData, orderKey.current);
       const savedData = response.data;
       if (response.status === 201 && paymentMode === "cash") {
         toast.success("Cash received");
@@ -179,15 +200,15 @@ const CartSummary = ({
     <div className="mt-1">
       <div className="d-flex justify-content-between mb-1">
         <span className="text-light">Item:</span>
-        <span className="text-light">₹{totalAmount.toFixed(2)}</span>
+        <span className="text-light">₹{formatPaise(totalAmount)}</span>
       </div>
       <div className="d-flex justify-content-between mb-1">
         <span className="text-light">Tax (1%):</span>
-        <span className="text-light">₹{tax.toFixed(2)}</span>
+        <span className="text-light">₹{formatPaise(tax)}</span>
       </div>
       <div className="d-flex justify-content-between mb-1">
         <span className="text-light">Total:</span>
-        <span className="text-light">₹{grandTotal.toFixed(2)}</span>
+        <span className="text-light">₹{formatPaise(grandTotal)}</span>
       </div>
 
       <div className="d-flex gap-3">
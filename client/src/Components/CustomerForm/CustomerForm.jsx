@@ -1,6 +1,31 @@
 import './CustomerForm.css';
+import { useEffect, useState } from "react";
+import { searchCustomers } from "../../Service/CustomerService";
+import { formatPaise } from "../../util/money";
 
 const CustomerForm = ({customerName, mobileNumber, setCustomerName, setMobileNumber}) => {
+    const [suggestions, setSuggestions] = useState([]);
+
+    // Autocomplete known customers once three digits have been typed; a newer keystroke cancels the pending lookup
+    useEffect(() => {
+        const digits = mobileNumber.replace(/\D/g, "");
+        if (digits.length < 3) {
+            setSuggestions([]);
+            return;
+        }
+        const controller = new AbortController();
+        searchCustomers(digits, controller.signal)
+            .then(response => setSuggestions(response.data))
+            .catch(() => {});
+        return () => controller.abort();
+    }, [mobileNumber]);
+
+    const selectCustomer = (customer) => {
+        setMobileNumber(customer.phoneNumber);
+        setCustomerName(customer.name || "");
+        setSuggestions([]);
+    }
+
     return(
         <div className='p-3'>
             <div className="mb-3">
@@ -13,9 +38,21 @@ const CustomerForm = ({customerName, mobileNumber, setCustomerName, setMobileNum
                     <label htmlFor="mobileNumber" className='col-4'>Mobile number</label>
                     <input type="text" className='form-control form-control-sm' id='mobileNumber'onChange={(e) => setMobileNumber(e.target.value)} value={mobileNumber} required/>
                 </div>
+
+                {suggestions.length > 0 && suggestions[0].phoneNumber !== mobileNumber && (
+                    <ul className="list-group list-group-flush customer-suggestions mt-1">
+                        {suggestions.map(customer => (
+                            <li key={customer.phoneNumber}
+                                className="list-group-item list-group-item-action bg-dark text-light small"
+                                onClick={() => selectCustomer(customer)}>
+                                {customer.phoneNumber} - {customer.name} ({customer.visitCount} visits, &#8377;{formatPaise(customer.lifetimeSpend)})
+                            </li>
+                        ))}
+                    </ul>
+                )}
             </div>
         </div>
     )
 }
 
-export default CustomerForm;
\ No newline at end of file
+export default CustomerForm;
@@ -1,8 +1,9 @@
-import { useContext, useState } from "react";
+import { useContext, useEffect, useState } from "react";
 import "./DisplayItem.css";
 import { AppContext } from "../../context/AppContext";
 import Item from "../Item/Item";
 import SearchBox from "../SearchBox/SearchBox";
+import { fetchItemPage, searchItems } from "../../Service/ItemService";
 
 const DisplayItem = ({ selectedCategory }) => {
   const { itemsData } = useContext(AppContext);
@@ -10,15 +11,47 @@ const DisplayItem = ({ selectedCategory }) => {
   //   console.log("itemData:", itemsData);
 
   const [searchText, setSearchText] = useState("");
+  const [searchResults, setSearchResults] = useState([]);
 
-  const filteredItems = itemsData
-    .filter((item) => {
-      if (!selectedCategory) return true;
-      return item.categoryId === selectedCategory;
-    })
-    .filter((item) =>
-      item.name.toLowerCase().includes(searchText.toLowerCase())
-    );
+  // Searching runs on the server; a newer keystroke cancels the pending request
+  useEffect(() => {
+    if (!searchText.trim()) {
+      setSearchResults([]);
+      return;
+    }
+    const controller = new AbortController();
+    searchItems(searchText, selectedCategory || undefined, controller.signal)
+      .then((response) => setSearchResults(response.data))
+      .catch(() => {});
+    return () => controller.abort();
+  }, [searchText, selectedCategory]);
+
+  // A selected category is loaded from the server one page at a time
+  const [categoryItems, setCategoryItems] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+
+  const loadCategoryPage = async (cursor, signal) => {
+    const response = await fetchItemPage(selectedCategory, cursor, signal);
+    setCategoryItems((loaded) => (cursor ? [...loaded, ...response.data.items] : response.data.items));
+    setNextCursor(response.data.nextCursor);
+  };
+
+  useEffect(() => {
+    setCategoryItems([]);
+    setNextCursor(null);
+    if (!selectedCategory) {
+      return;
+    }
+    const controller = new AbortController();
+    loadCategoryPage(null, controller.signal).catch(() => {});
+    return () => controller.abort();
+  }, [selectedCategory, itemsData]);
+
+  const filteredItems = searchText.trim()
+    ? searchResults
+    : selectedCategory
+      ? categoryItems
+      : itemsData;
 
   return (
     <div className="p-3">
@@ -45,6 +78,13 @@ const DisplayItem = ({ selectedCategory }) => {
             </div>
           ))
         )}
+        {!searchText.trim() && selectedCategory && nextCursor && (
+          <div className="col-12 text-center">
+            <button className="btn btn-outline-warning btn-sm" onClick={() => loadCategoryPage(nextCursor).catch(() => {})}>
+              Load more
+            </button>
+          </div>
+        )}
       </div>
     </div>
   );
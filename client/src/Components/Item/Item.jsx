@@ -1,6 +1,7 @@
 import { useContext } from "react";
 import "./Item.css";
 import { AppContext } from "../../context/AppContext";
+import { formatPaise } from "../../util/money";
 
 const Item = ({ itemName, itemPrice, itemImage, itemId }) => {
 
@@ -23,7 +24,7 @@ const Item = ({ itemName, itemPrice, itemImage, itemId }) => {
 
       <div className="flex-grow-1 ms-2">
         <h6 className="mb-1 text-light">{itemName}</h6>
-        <p className="mb-0 fw-bold text-light">₹{itemPrice}</p>
+        <p className="mb-0 fw-bold text-light">₹{formatPaise(itemPrice)}</p>
       </div>
       <div
         className="d-flex flex-column justify-content-between align-items-center ms-3"
@@ -181,6 +181,7 @@ import { AppContext } from "../../context/AppContext";
 import toast from "react-hot-toast";
 import { addItem } from "../../Service/ItemService";
 import { assets } from "../../assets/assets";
+import { toPaise } from "../../util/money";
 
 const ItemForm = () => {
   const { categories, setItemsData, itemsData, setCategories } =
@@ -232,7 +233,8 @@ const ItemForm = () => {
     }
 
     const formData = new FormData();
-    formData.append("item", JSON.stringify(data));
+    // The price is typed in rupees and sent in paise
+    formData.append("item", JSON.stringify({ ...data, price: toPaise(data.price) }));
     formData.append("file", image);
 
     try {
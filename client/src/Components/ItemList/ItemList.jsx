@@ -1,18 +1,31 @@
-import { useContext, useState } from "react";
+import { useContext, useEffect, useState } from "react";
 import { AppContext } from "../../context/AppContext";
-import { deleteItem } from "../../Service/ItemService";
+import { deleteItem, searchItems } from "../../Service/ItemService";
 import toast from "react-hot-toast";
 import './ItemList.css';
+import { formatPaise } from "../../util/money";
 
 
 const ItemList = () => {
 
     const {itemsData, setItemsData} = useContext(AppContext);
     const [searchTerm, setSearchTerm] = useState("");
+    const [searchResults, setSearchResults] = useState([]);
 
-    const filteredItems = itemsData.filter((item) => {
-        return item.name.toLowerCase().includes(searchTerm.toLowerCase());
-    });
+    // Searching runs on the server; a newer keystroke cancels the pending request
+    useEffect(() => {
+        if (!searchTerm.trim()) {
+            setSearchResults([]);
+            return;
+        }
+        const controller = new AbortController();
+        searchItems(searchTerm, undefined, controller.signal)
+            .then((response) => setSearchResults(response.data))
+            .catch(() => {});
+        return () => controller.abort();
+    }, [searchTerm, itemsData]);
+
+    const filteredItems = searchTerm.trim() ? searchResults : itemsData;
 
     const removeItem = async(itemId) => {
         try {
@@ -66,7 +79,7 @@ const ItemList = () => {
                                 Category: {item.categoryName}
                             </p>
                             <span className="mb-0 text-block badge rounded-pill text-bg-warning">
-                                &#8377;{item.price}
+                                &#8377;{formatPaise(item.price)}
                             </span>
                         </div>
                         <div>
@@ -95,7 +108,7 @@ const ItemList = () => {
                 Category: {item.categoryName}
               </p>
               <span className="mb-0 text-block badge rounded-pill text-bg-warning">
-                &#8377;{item.price}
+                &#8377;{formatPaise(item.price)}
               </span>
             </div>
             <div>
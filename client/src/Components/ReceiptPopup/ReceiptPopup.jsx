@@ -1,5 +1,6 @@
 import "./ReceiptPopup.css";
 import './Print.css';
+import { formatPaise } from "../../util/money";
 
 const ReceiptPopup = ({ orderDetails, onClose, onPrint }) => {
   return (
@@ -30,7 +31,7 @@ const ReceiptPopup = ({ orderDetails, onClose, onPrint }) => {
               <span>
                 {item.name} x {item.quantity}{" "}
               </span>
-              <span>₹{(item.price * item.quantity).toFixed(2)}</span>
+              <span>₹{formatPaise(item.price * item.quantity)}</span>
             </div>
           ))}
         </div>
@@ -39,19 +40,19 @@ const ReceiptPopup = ({ orderDetails, onClose, onPrint }) => {
           <span>
             <strong>Subtotal:</strong>
           </span>
-          <span>₹{orderDetails.subtotal.toFixed(2)}</span>
+          <span>₹{formatPaise(orderDetails.subtotal)}</span>
         </div>
         <div className="d-flex justify-content-between mb-2">
           <span>
             <strong>Tax (1%):</strong>
           </span>
-          <span>₹{orderDetails.tax.toFixed(2)}</span>
+          <span>₹{formatPaise(orderDetails.tax)}</span>
         </div>
         <div className="d-flex justify-content-between mb-4">
           <span>
             <strong>Grand Total:</strong>
           </span>
-          <span>₹{orderDetails.grandTotal.toFixed(2)}</span>
+          <span>₹{formatPaise(orderDetails.grandTotal)}</span>
         </div>
         <p>
           <strong>Payment Method: </strong>
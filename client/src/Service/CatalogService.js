@@ -0,0 +1,5 @@
+import axios from "axios";
+
+export const fetchCatalogChanges = async (since) => {
+    return await axios.get('http://localhost:8484/api/v1.0/catalog/changes', {params: {since}, headers: {"Authorization" : `Bearer ${localStorage.getItem('token')}`}});
+}
@@ -0,0 +1,5 @@
+import axios from "axios";
+
+export const searchCustomers = async (phonePrefix, signal) => {
+    return await axios.get('http://localhost:8484/api/v1.0/customers', {params: {phonePrefix, limit: 5}, signal, headers: {"Authorization" : `Bearer ${localStorage.getItem('token')}`}});
+}
@@ -3,3 +3,40 @@ import axios from "axios";
 export const fetchDashboardData = async () => {
     return await axios.get(`http://localhost:8484/api/v1.0/dashboard`, {headers: {"Authorization" : `Bearer ${localStorage.getItem('token')}`}});
 }
+
+// EventSource cannot send the Authorization header, so the stream is read with fetch
+export const subscribeDashboard = (onData) => {
+    const controller = new AbortController();
+    const read = async () => {
+        const response = await fetch(`http://localhost:8484/api/v1.0/dashboard/stream`, {
+            headers: {"Authorization" : `Bearer ${localStorage.getItem('token')}`, "Accept": "text/event-stream"},
+            signal: controller.signal
+        });
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = "";
+        for (;;) {
+            const {value, done} = await reader.read();
+            if (done) {
+                break;
+            }
+            buffer += value;
+            const events = buffer.split("\n\n");
+            buffer = events.pop();
+            for (const event of events) {
+                const data = event.split("\n")
+                    .filter(line => line.startsWith("data:"))
+                    .map(line => line.slice(5))
+                    .join("\n");
+                if (data) {
+                    onData(JSON.parse(data));
+                }
+            }
+        }
+    };
+    read().catch(error => {
+        if (error.name !== "AbortError") {
+            console.error(error);
+        }
+    });
+    return () => controller.abort();
+}
@@ -11,4 +11,12 @@ export const  deleteItem = async (itemId) => {
 
 export const fetchItems = async () => {
     return await axios.get(`http://localhost:8484/api/v1.0/items`, {headers: {"Authorization" : `Bearer ${localStorage.getItem('token')}`}});
-}
\ No newline at end of file
+}
+
+export const fetchItemPage = async (categoryId, cursor, signal) => {
+    return await axios.get(`http://localhost:8484/api/v1.0/items`, {params: {categoryId, cursor, size: 60}, signal, headers: {"Authorization" : `Bearer ${localStorage.getItem('token')}`}});
+}
+
+export const searchItems = async (q, categoryId, signal) => {
+    return await axios.get(`http://localhost:8484/api/v1.0/items/search`, {params: {q, categoryId, limit: 50}, signal, headers: {"Authorization" : `Bearer ${localStorage.getItem('token')}`}});
+}
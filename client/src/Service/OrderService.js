@@ -4,10 +4,20 @@ export const latestOrders = async () => {
     return await axios.get("http://localhost:8484/api/v1.0/orders/latest", {headers: {"Authorization" : `Bearer ${localStorage.getItem('token')}`}})
 }
 
-export const createOrder = async (order) => {
-    return await axios.post("http://localhost:8484/api/v1.0/orders", order, {headers: {"Authorization" : `Bearer ${localStorage.getItem('token')}`}});
+export const orderHistory = async (params) => {
+    return await axios.get("http://localhost:8484/api/v1.0/orders/history", {params, headers: {"Authorization" : `Bearer ${localStorage.getItem('token')}`}})
+}
+
+// A retry with the same idempotency key returns the original order instead of billing twice
+export const createOrder = async (order, idempotencyKey) => {
+    return await axios.post("http://localhost:8484/api/v1.0/orders", order, {headers: {"Authorization" : `Bearer ${localStorage.getItem('token')}`, "Idempotency-Key": idempotencyKey}});
 }
 
 export const deleteOrder = async (id) => {
     return await axios.delete(`http://localhost:8484/api/v1.0/orders/${id}`, {headers: {"Authorization" : `Bearer ${localStorage.getItem('token')}`}});
-}
\ No newline at end of file
+}
+
+// Receipt rendered by the server, as a PDF blob ready to print
+export const fetchReceipt = async (orderId) => {
+    return await axios.get(`http://localhost:8484/api/v1.0/orders/${orderId}/receipt`, {headers: {"Authorization" : `Bearer ${localStorage.getItem('token')}`}, responseType: "blob"});
+}
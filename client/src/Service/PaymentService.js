@@ -5,6 +5,7 @@ export const createRazorpayOrder = async (data) => {
 }
 
 export const verifyPayment = async (paymentData) => {
-    return await axios.post(`http://localhost:8484/api/v1.0/payments/verify`, paymentData, {headers: {"Authorization" : `Bearer ${localStorage.getItem('token')}`}})
+    // The Razorpay payment id identifies the verification, so a retried request is answered once
+    return await axios.post(`http://localhost:8484/api/v1.0/payments/verify`, paymentData, {headers: {"Authorization" : `Bearer ${localStorage.getItem('token')}`, "Idempotency-Key": paymentData.razorpayPaymentId}})
 }
 
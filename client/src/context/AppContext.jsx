@@ -1,6 +1,21 @@
-import { createContext, useEffect, useState } from "react";
+import { createContext, useEffect, useRef, useState } from "react";
 import { fetchCategories } from "../Service/CategoryService";
 import { fetchItems } from "../Service/ItemService";
+import { fetchCatalogChanges } from "../Service/CatalogService";
+
+// How often the catalog is synced with the changes made on other registers
+const CATALOG_SYNC_INTERVAL_MS = 30000;
+
+// Replaces the entries whose key is in the changes and drops the deleted ones, keeping the order of the others
+const applyChanges = (list, key, changed, deletedIds) => {
+  const changedByKey = new Map(changed.map((entry) => [entry[key], entry]));
+  const deleted = new Set(deletedIds);
+  const merged = list
+    .filter((entry) => !deleted.has(entry[key]))
+    .map((entry) => changedByKey.get(entry[key]) ?? entry);
+  const existing = new Set(list.map((entry) => entry[key]));
+  return [...merged, ...changed.filter((entry) => !existing.has(entry[key]))];
+};
 
 export const AppContext = createContext(null);
 
@@ -11,6 +26,9 @@ export const AppContextProvider = (props) => {
   const [auth, setAuth] = useState({ token: null, role: null });
   const [cartItems, setCartItems] = useState([]);
 
+  // Version of the catalog change log the categories and items are in step with
+  const catalogVersion = useRef(null);
+
   const addToCart = (item) => {
     const existingItem = cartItems.find(
       (cartItem) => cartItem.name === item.name
@@ -46,14 +64,51 @@ export const AppContextProvider = (props) => {
         );
       }
 
-      const response = await fetchCategories();
-      const itemResponse = await fetchItems();
-      setCategories(response.data);
-      setItemsData(itemResponse.data);
+      await loadCatalog();
     }
     loadData();
   }, []);
 
+  // Fetches the whole catalog, noting the change log version first so no later change is missed
+  const loadCatalog = async () => {
+    try {
+      const changes = await fetchCatalogChanges();
+      catalogVersion.current = changes.data.version;
+    } catch (error) {
+      catalogVersion.current = null;
+    }
+    const response = await fetchCategories();
+    const itemResponse = await fetchItems();
+    setCategories(response.data);
+    setItemsData(itemResponse.data);
+  };
+
+  useEffect(() => {
+    const syncCatalog = async () => {
+      if (!localStorage.getItem("token")) {
+        return;
+      }
+      try {
+        if (catalogVersion.current === null) {
+          await loadCatalog();
+          return;
+        }
+        const { data } = await fetchCatalogChanges(catalogVersion.current);
+        if (data.fullSync) {
+          await loadCatalog();
+          return;
+        }
+        setCategories((current) => applyChanges(current, "categoryId", data.categories, data.deletedCategoryIds));
+        setItemsData((current) => applyChanges(current, "itemId", data.items, data.deletedItemIds));
+        catalogVersion.current = data.version;
+      } catch (error) {
+        console.error("Catalog sync failed", error);
+      }
+    };
+    const timer = setInterval(syncCatalog, CATALOG_SYNC_INTERVAL_MS);
+    return () => clearInterval(timer);
+  }, []);
+
   const setAuthData = (token, role) => {
     setAuth({ token, role });
   };
@@ -1,7 +1,8 @@
 import { useState, useEffect } from "react";
 import "./Dashboard.css";
 import toast from "react-hot-toast";
-import { fetchDashboardData } from "../../Service/Dashboard";
+import { fetchDashboardData, subscribeDashboard } from "../../Service/Dashboard";
+import { formatPaise } from "../../util/money";
 
 const Dashboard = () => {
   const [data, setData] = useState(null);
@@ -20,6 +21,7 @@ const Dashboard = () => {
       }
     };
     loadData();
+    return subscribeDashboard(setData);
   }, []);
 
   if (loading) {
@@ -40,7 +42,7 @@ const Dashboard = () => {
             </div>
             <div className="stat-content">
               <h1>Today's Sales</h1>
-              <p>₹{data.todaySales.toFixed(2)}</p>
+              <p>₹{formatPaise(data.todaySales)}</p>
             </div>
           </div>
 
@@ -78,7 +80,7 @@ const Dashboard = () => {
                   <tr key={order.orderId}>
                     <td>{order.orderId.substring(0, 8)}...</td>
                     <td>{order.customerName}</td>
-                    <td>₹{order.grandTotal.toFixed(2)}</td>
+                    <td>₹{formatPaise(order.grandTotal)}</td>
                     <td>
                       <span
                         className={`payment-method ${order.paymentMethod.toLowerCase()}`}
@@ -1,23 +1,27 @@
 import { useEffect, useState } from "react";
 import "./OrderHistory.css";
-import { latestOrders } from "../../Service/OrderService";
+import { orderHistory } from "../../Service/OrderService";
+import { formatPaise } from "../../util/money";
 
 const OrderHistory = () => {
   const [orders, setOrders] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [loading, setLoading] = useState(true);
 
+  const fetchOrders = async (cursor) => {
+    try {
+      const response = await orderHistory({ cursor });
+      setOrders((prev) => (cursor ? [...prev, ...response.data.orders] : response.data.orders));
+      setNextCursor(response.data.nextCursor);
+    } catch (error) {
+      console.log(error);
+    } finally {
+      setLoading(false);
+    }
+  };
+
   useEffect(() => {
-    const fetchOrders = async () => {
-      try {
-        const response = await latestOrders();
-        setOrders(response.data);
-      } catch (error) {
-        console.log(error);
-      } finally {
-        setLoading(false);
-      }
-    };
-    fetchOrders();
+    fetchOrders(null);
   }, []);
 
   const formatItems = (items) => {
@@ -69,7 +73,7 @@ const OrderHistory = () => {
                   <small className="text-muted">{order.phoneNumber}</small>
                 </td>
                 <td>{formatItems(order.items)}</td>
-                <td>{order.grandTotal}</td>
+                <td>{formatPaise(order.grandTotal)}</td>
                 <td>{order.paymentMethod}</td>
                 <td>
                   <span
@@ -88,6 +92,14 @@ const OrderHistory = () => {
           </tbody>
         </table>
       </div>
+
+      {nextCursor && (
+        <div className="text-center">
+          <button className="btn btn-warning" onClick={() => fetchOrders(nextCursor)}>
+            Load more
+          </button>
+        </div>
+      )}
     </div>
   );
 };
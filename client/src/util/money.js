@@ -0,0 +1,5 @@
+// Amounts are exchanged with the server in paise (1 INR = 100 paise)
+
+export const formatPaise = (paise) => (paise / 100).toFixed(2);
+
+export const toPaise = (rupees) => Math.round(parseFloat(rupees) * 100);